@@ -7,8 +7,18 @@ package generator;
  *             http://erikdemaine.org/papers/DeepRhythms_CGTA/paper.pdf
  *             http://student.ulb.ac.be/~ptaslaki/publications/phdThesis-Perouz.pdf
  *             http://www.noisylittlebugger.net/diy/bjorklund/Bjorklund_Working_Final/Bjorklund_algorithm_arduino.txt
+ *
+ * The static euclidean methods are stateless and safe to call from any number of threads at once. They pack the
+ * pattern into bits (step i is bit i % 64 of word i / 64) and compute it iteratively, without allocating:
+ * step i is a pulse when (i * pulses) mod steps < pulses. That places the pulses as evenly as possible, which
+ * makes it the same rhythm as Bjorklund's algorithm, rotated so that it starts on a pulse (e.g., E(3, 8) is x..x..x.).
+ *
+ * compute_bitmap keeps its original output (which ends on a pulse instead) but works on per-instance state,
+ * so each thread needs its own Bjorklund instance.
  */
 public class Bjorklund {
+    public static final int MAX_PACKED_STEPS = Long.SIZE;
+
     private int steps;
     private int pulses;
 
@@ -17,10 +27,73 @@ public class Bjorklund {
     private int level;
     private int stepstatus;
 
-    private static boolean[] sequence;
+    private boolean[] sequence;
+
+    /**
+     *
+     * @param steps the number of steps in the pattern (0 to MAX_PACKED_STEPS)
+     * @param pulses the number of pulses to spread over the steps (0 to steps)
+     * @return the pattern, where bit i is set if step i is a pulse
+     */
+    public static long euclidean(int steps, int pulses) {
+        checkArguments(steps, pulses);
+        if (steps > MAX_PACKED_STEPS) {
+            throw new IllegalArgumentException(steps + " steps do not fit in a long; use euclidean(steps, pulses, long[])");
+        }
+
+        long pattern = 0;
+        for (int i = 0, position = 0; i < steps; i++) {
+            if (position < pulses) pattern |= 1L << i;
+
+            // position = (i * pulses) mod steps, without the multiplication or the division
+            position += pulses;
+            if (position >= steps) position -= steps;
+        }
+        return pattern;
+    }
+
+    /**
+     * This function operates in Θ(steps) time and does not allocate.
+     * @param steps the number of steps in the pattern (0 or more)
+     * @param pulses the number of pulses to spread over the steps (0 to steps)
+     * @param pattern receives the pattern, where bit i % 64 of word i / 64 is set if step i is a pulse;
+     *                it must hold at least getWordCount(steps) words, and the bits past the last step are cleared
+     */
+    public static void euclidean(int steps, int pulses, long[] pattern) {
+        checkArguments(steps, pulses);
+        int words = getWordCount(steps);
+        if (pattern.length < words) throw new IllegalArgumentException(steps + " steps need " + words + " words");
+
+        long position = 0;
+        for (int w = 0; w < pattern.length; w++) {
+            long word = 0;
+            int stepsInWord = (int) Math.max(0, Math.min(Long.SIZE, (long) steps - (long) w * Long.SIZE));
+            for (int j = 0; j < stepsInWord; j++) {
+                if (position < pulses) word |= 1L << j;
+
+                position += pulses;
+                if (position >= steps) position -= steps;
+            }
+            pattern[w] = word;
+        }
+    }
 
     /**
      *
+     * @param steps the number of steps in a pattern
+     * @return the number of longs needed to hold the pattern
+     */
+    public static int getWordCount(int steps) {
+        return (int) (((long) steps + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    private static void checkArguments(int steps, int pulses) {
+        if (steps < 0) throw new IllegalArgumentException("steps must not be negative: " + steps);
+        if (pulses < 0 || pulses > steps) throw new IllegalArgumentException("pulses must be 0 to " + steps + ": " + pulses);
+    }
+
+    /**
+     * The original, recursive implementation; see the class comment.
      * @param num_slots
      * @param num_pulses
      * @return
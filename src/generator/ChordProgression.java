@@ -2,21 +2,40 @@ package generator;
 
 import musictheory.NashvilleNumber;
 import org.jgrapht.DirectedGraph;
+import org.jgrapht.WeightedGraph;
 import org.jgrapht.graph.AbstractBaseGraph;
 import org.jgrapht.graph.ClassBasedEdgeFactory;
-import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.DefaultWeightedEdge;
 
 
 /**
  * Created by Joseph on 1/12/16.
  *
+ * Edges are weighted by how likely the transition is, relative to the other edges leaving the same vertex.
+ * Edges added without a weight get WeightedGraph.DEFAULT_EDGE_WEIGHT (1.0).
+ *
  * References: http://web.as.uky.edu/statistics/users/pbreheny/764-F11/notes/9-1.pdf
  */
 public abstract class ChordProgression
-        extends AbstractBaseGraph<NashvilleNumber, DefaultEdge>
-        implements DirectedGraph<NashvilleNumber, DefaultEdge> {
+        extends AbstractBaseGraph<NashvilleNumber, DefaultWeightedEdge>
+        implements DirectedGraph<NashvilleNumber, DefaultWeightedEdge>, WeightedGraph<NashvilleNumber, DefaultWeightedEdge> {
 
     public ChordProgression() {
-        super(new ClassBasedEdgeFactory<>(DefaultEdge.class), true, true);
+        super(new ClassBasedEdgeFactory<>(DefaultWeightedEdge.class), true, true);
+    }
+
+    /**
+     *
+     * @param source the NashvilleNumber to move from
+     * @param target the NashvilleNumber to move to
+     * @param weight the relative likelihood of the transition (must be positive)
+     * @return the new edge
+     */
+    public DefaultWeightedEdge addEdge(NashvilleNumber source, NashvilleNumber target, double weight) {
+        if (!(weight > 0)) throw new IllegalArgumentException("weight must be positive: " + weight);
+
+        DefaultWeightedEdge e = addEdge(source, target);
+        if (e != null) setEdgeWeight(e, weight);
+        return e;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,648 @@
+package generator;
+
+import musictheory.NashvilleNumber;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.EdgeFactory;
+import org.jgrapht.WeightedGraph;
+import org.jgrapht.graph.AbstractGraph;
+import org.jgrapht.graph.DefaultWeightedEdge;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A weighted, directed graph of NashvilleNumbers with the same shape as a ChordProgression,
+ * stored as adjacency bitsets keyed by NashvilleNumber ordinal instead of jgrapht's edge objects and hash sets.
+ *
+ * There are 65 NashvilleNumbers, one more than fits in a long, so each vertex's successors (and predecessors)
+ * take WORDS = 2 longs. Successors are iterated with Long.numberOfTrailingZeros, which takes Θ(1) time per
+ * successor and does not allocate:
+ *
+ *     for (int t = graph.nextSuccessor(s, 0); t != -1; t = graph.nextSuccessor(s, t + 1)) { ... }
+ *
+ * There is at most one edge from one vertex to another; parallel edges of a ChordProgression are merged,
+ * with their weights added up. CompactProgressionGraph.of copies a ChordProgression in, and asGraph is a live,
+ * read-only jgrapht view of the bitsets for code that needs a DirectedGraph or WeightedGraph.
+ * toChordProgression is a snapshot instead: a mutable ChordProgression that does not follow later changes.
+ */
+public final class CompactProgressionGraph {
+    private static final NashvilleNumber[] NASHVILLE_NUMBERS = NashvilleNumber.values();
+    static final int NUM_VERTICES = NASHVILLE_NUMBERS.length;
+    static final int WORDS = (NUM_VERTICES + Long.SIZE - 1) / Long.SIZE;
+
+    private final long[] vertices = new long[WORDS];
+    private final long[] successors = new long[NUM_VERTICES * WORDS];     // [source * WORDS + word]
+    private final long[] predecessors = new long[NUM_VERTICES * WORDS];   // [target * WORDS + word]
+    private final double[] weights = new double[NUM_VERTICES * NUM_VERTICES];  // [source * NUM_VERTICES + target]
+    private final View view = new View();
+
+    // One shared Edge per (source, target) pair, [source * NUM_VERTICES + target], so that views never allocate edges
+    private static final Edge[] EDGES = buildEdges();
+    private static final EdgeFactory<NashvilleNumber, Edge> EDGE_FACTORY = (source, target) -> edge(source.ordinal(), target.ordinal());
+
+    public CompactProgressionGraph() {}
+
+    /**
+     * Copies the vertices and edges of a ChordProgression.
+     * This function operates in Θ(V + E) time.
+     * @param graph the ChordProgression to copy
+     * @return a new CompactProgressionGraph with the same vertices, edges and weights
+     */
+    public static CompactProgressionGraph of(ChordProgression graph) {
+        CompactProgressionGraph compact = new CompactProgressionGraph();
+        for (NashvilleNumber v : graph.vertexSet()) {
+            compact.addVertex(v);
+        }
+        for (DefaultWeightedEdge e : graph.edgeSet()) {
+            int source = graph.getEdgeSource(e).ordinal(), target = graph.getEdgeTarget(e).ordinal();
+            compact.addEdge(source, target, compact.getEdgeWeight(source, target) + graph.getEdgeWeight(e));
+        }
+        return compact;
+    }
+
+    private static Edge[] buildEdges() {
+        Edge[] edges = new Edge[NUM_VERTICES * NUM_VERTICES];
+        for (int s = 0; s < NUM_VERTICES; s++) {
+            for (int t = 0; t < NUM_VERTICES; t++) {
+                edges[s * NUM_VERTICES + t] = new Edge(NASHVILLE_NUMBERS[s], NASHVILLE_NUMBERS[t]);
+            }
+        }
+        return edges;
+    }
+
+    private static Edge edge(int source, int target) {
+        return EDGES[source * NUM_VERTICES + target];
+    }
+
+    /**
+     * The jgrapht adapter: a read-only DirectedGraph and WeightedGraph backed by this graph's bitsets,
+     * e.g. for jgrapht's algorithms. The view follows every later change to this graph; its mutators
+     * throw UnsupportedOperationException. This function operates in Θ(1) time.
+     * @return the view of this graph
+     */
+    public View asGraph() {
+        return view;
+    }
+
+    /**
+     * Copies this graph into a new ChordProgression. Unlike asGraph, the copy is mutable and is a snapshot:
+     * it does not follow later changes to this graph.
+     * This function operates in Θ(V + E) time.
+     * @return a new ChordProgression with the same vertices, edges and weights
+     */
+    public ChordProgression toChordProgression() {
+        ChordProgression graph = new ChordProgression() {};
+        for (int v = nextVertex(0); v != -1; v = nextVertex(v + 1)) {
+            graph.addVertex(NASHVILLE_NUMBERS[v]);
+        }
+        for (int s = nextVertex(0); s != -1; s = nextVertex(s + 1)) {
+            for (int t = nextSuccessor(s, 0); t != -1; t = nextSuccessor(s, t + 1)) {
+                graph.addEdge(NASHVILLE_NUMBERS[s], NASHVILLE_NUMBERS[t], getEdgeWeight(s, t));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     *
+     * @param v the NashvilleNumber to add
+     */
+    public void addVertex(NashvilleNumber v) {
+        setBit(vertices, 0, v.ordinal());
+    }
+
+    /**
+     * Adds an edge with a weight of 1.0, adding its vertices if they are missing.
+     * @param source the NashvilleNumber to move from
+     * @param target the NashvilleNumber to move to
+     */
+    public void addEdge(NashvilleNumber source, NashvilleNumber target) {
+        addEdge(source.ordinal(), target.ordinal(), 1.0);
+    }
+
+    /**
+     * Adds an edge, or replaces the weight of an existing one, adding its vertices if they are missing.
+     * @param source the NashvilleNumber to move from
+     * @param target the NashvilleNumber to move to
+     * @param weight the relative likelihood of the transition (must be positive)
+     */
+    public void addEdge(NashvilleNumber source, NashvilleNumber target, double weight) {
+        addEdge(source.ordinal(), target.ordinal(), weight);
+    }
+
+    void addEdge(int source, int target, double weight) {
+        if (!(weight > 0)) throw new IllegalArgumentException("weight must be positive: " + weight);
+
+        setBit(vertices, 0, source);
+        setBit(vertices, 0, target);
+        setBit(successors, source * WORDS, target);
+        setBit(predecessors, target * WORDS, source);
+        weights[source * NUM_VERTICES + target] = weight;
+    }
+
+    /**
+     *
+     * @param source the NashvilleNumber to move from
+     * @param target the NashvilleNumber to move to
+     */
+    public void removeEdge(NashvilleNumber source, NashvilleNumber target) {
+        int s = source.ordinal(), t = target.ordinal();
+        successors[s * WORDS + (t >>> 6)] &= ~(1L << t);
+        predecessors[t * WORDS + (s >>> 6)] &= ~(1L << s);
+        weights[s * NUM_VERTICES + t] = 0;
+    }
+
+    /**
+     *
+     * @param v a NashvilleNumber
+     * @return whether v is a vertex of this graph
+     */
+    public boolean containsVertex(NashvilleNumber v) {
+        return hasBit(vertices, 0, v.ordinal());
+    }
+
+    /**
+     * This function operates in Θ(1) time.
+     * @param source the NashvilleNumber to move from
+     * @param target the NashvilleNumber to move to
+     * @return whether there is an edge from source to target
+     */
+    public boolean containsEdge(NashvilleNumber source, NashvilleNumber target) {
+        return containsEdge(source.ordinal(), target.ordinal());
+    }
+
+    boolean containsEdge(int source, int target) {
+        return hasBit(successors, source * WORDS, target);
+    }
+
+    /**
+     *
+     * @param source the NashvilleNumber to move from
+     * @param target the NashvilleNumber to move to
+     * @return the weight of the edge from source to target, or 0 if there is none
+     */
+    public double getEdgeWeight(NashvilleNumber source, NashvilleNumber target) {
+        return getEdgeWeight(source.ordinal(), target.ordinal());
+    }
+
+    double getEdgeWeight(int source, int target) {
+        return weights[source * NUM_VERTICES + target];
+    }
+
+    /**
+     *
+     * @return the number of vertices in this graph
+     */
+    public int vertexCount() {
+        return bitCount(vertices, 0);
+    }
+
+    /**
+     *
+     * @return the number of edges in this graph
+     */
+    public int edgeCount() {
+        return bitCount(successors, 0, successors.length);
+    }
+
+    /**
+     *
+     * @param v a NashvilleNumber
+     * @return the number of edges leaving v
+     */
+    public int outDegreeOf(NashvilleNumber v) {
+        return outDegreeOf(v.ordinal());
+    }
+
+    int outDegreeOf(int v) {
+        return bitCount(successors, v * WORDS);
+    }
+
+    /**
+     *
+     * @param v a NashvilleNumber
+     * @return the number of edges entering v
+     */
+    public int inDegreeOf(NashvilleNumber v) {
+        return inDegreeOf(v.ordinal());
+    }
+
+    int inDegreeOf(int v) {
+        return bitCount(predecessors, v * WORDS);
+    }
+
+    /**
+     * This function operates in Θ(WORDS) time and does not allocate.
+     * @param from the lowest ordinal to consider (values below 0 are taken as 0)
+     * @return the lowest vertex ordinal that is at least from, or -1 if there is none
+     */
+    public int nextVertex(int from) {
+        return nextBit(vertices, 0, from);
+    }
+
+    /**
+     * This function operates in Θ(WORDS) time and does not allocate.
+     * @param source the ordinal of the NashvilleNumber to move from
+     * @param from the lowest ordinal to consider (values below 0 are taken as 0)
+     * @return the lowest successor ordinal of source that is at least from, or -1 if there is none
+     */
+    public int nextSuccessor(int source, int from) {
+        return nextBit(successors, source * WORDS, from);
+    }
+
+    /**
+     * This function operates in Θ(WORDS) time and does not allocate.
+     * @param target the ordinal of the NashvilleNumber to move to
+     * @param from the lowest ordinal to consider (values below 0 are taken as 0)
+     * @return the lowest predecessor ordinal of target that is at least from, or -1 if there is none
+     */
+    public int nextPredecessor(int target, int from) {
+        return nextBit(predecessors, target * WORDS, from);
+    }
+
+    /**
+     *
+     * @param source the ordinal of the NashvilleNumber to move from
+     * @param word the index of the word, from 0 to WORDS - 1
+     * @return bits word * 64 to word * 64 + 63 of the successor bitset of source
+     */
+    long getSuccessorWord(int source, int word) {
+        return successors[source * WORDS + word];
+    }
+
+    /**
+     * An edge of a CompactProgressionGraph view. There is one shared Edge per (source, target) pair,
+     * and its weight is always read from the graph.
+     */
+    public static final class Edge {
+        private final NashvilleNumber source, target;
+
+        private Edge(NashvilleNumber source, NashvilleNumber target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        public NashvilleNumber getSource() {
+            return source;
+        }
+
+        public NashvilleNumber getTarget() {
+            return target;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + source + " : " + target + ")";
+        }
+    }
+
+    /**
+     * See asGraph. Sets returned by the view are live and unmodifiable; iterating over one
+     * while the graph is being changed gives undefined results.
+     */
+    public final class View extends AbstractGraph<NashvilleNumber, Edge>
+            implements DirectedGraph<NashvilleNumber, Edge>, WeightedGraph<NashvilleNumber, Edge> {
+
+        private View() {}
+
+        @Override
+        public Set<Edge> getAllEdges(NashvilleNumber source, NashvilleNumber target) {
+            if (!containsVertex(source) || !containsVertex(target)) return null;
+
+            Edge e = getEdge(source, target);
+            return e != null ? Collections.singleton(e) : Collections.<Edge>emptySet();
+        }
+
+        @Override
+        public Edge getEdge(NashvilleNumber source, NashvilleNumber target) {
+            int s = source.ordinal(), t = target.ordinal();
+            return CompactProgressionGraph.this.containsEdge(s, t) ? edge(s, t) : null;
+        }
+
+        @Override
+        public EdgeFactory<NashvilleNumber, Edge> getEdgeFactory() {
+            return EDGE_FACTORY;
+        }
+
+        @Override
+        public Edge addEdge(NashvilleNumber source, NashvilleNumber target) {
+            throw new UnsupportedOperationException("the view is read-only");
+        }
+
+        @Override
+        public boolean addEdge(NashvilleNumber source, NashvilleNumber target, Edge e) {
+            throw new UnsupportedOperationException("the view is read-only");
+        }
+
+        @Override
+        public boolean addVertex(NashvilleNumber v) {
+            throw new UnsupportedOperationException("the view is read-only");
+        }
+
+        @Override
+        public boolean containsEdge(Edge e) {
+            return e != null && CompactProgressionGraph.this.containsEdge(e.source.ordinal(), e.target.ordinal());
+        }
+
+        @Override
+        public boolean containsVertex(NashvilleNumber v) {
+            return v != null && CompactProgressionGraph.this.containsVertex(v);
+        }
+
+        @Override
+        public Set<Edge> edgeSet() {
+            return new AbstractSet<Edge>() {
+                @Override
+                public Iterator<Edge> iterator() {
+                    return new EdgeIterator();
+                }
+
+                @Override
+                public int size() {
+                    return edgeCount();
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return o instanceof Edge && containsEdge((Edge) o);
+                }
+            };
+        }
+
+        @Override
+        public Set<Edge> edgesOf(NashvilleNumber v) {
+            assertVertexExist(v);
+            int u = v.ordinal();
+
+            return new AbstractSet<Edge>() {
+                @Override
+                public Iterator<Edge> iterator() {
+                    // Outgoing edges, then incoming ones; a loop is outgoing, so it is skipped the second time
+                    Iterator<Edge> outgoing = new BitIterator(successors, u, true);
+                    Iterator<Edge> incoming = new BitIterator(predecessors, u, false);
+                    return new Iterator<Edge>() {
+                        private Edge next = advance();
+
+                        private Edge advance() {
+                            if (outgoing.hasNext()) return outgoing.next();
+                            while (incoming.hasNext()) {
+                                Edge e = incoming.next();
+                                if (e.source != e.target) return e;
+                            }
+                            return null;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next != null;
+                        }
+
+                        @Override
+                        public Edge next() {
+                            if (next == null) throw new NoSuchElementException();
+                            Edge e = next;
+                            next = advance();
+                            return e;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return CompactProgressionGraph.this.outDegreeOf(u) + CompactProgressionGraph.this.inDegreeOf(u)
+                            - (CompactProgressionGraph.this.containsEdge(u, u) ? 1 : 0);
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    if (!(o instanceof Edge)) return false;
+                    Edge e = (Edge) o;
+                    return (e.source == v || e.target == v) && containsEdge(e);
+                }
+            };
+        }
+
+        @Override
+        public Edge removeEdge(NashvilleNumber source, NashvilleNumber target) {
+            throw new UnsupportedOperationException("the view is read-only");
+        }
+
+        @Override
+        public boolean removeEdge(Edge e) {
+            throw new UnsupportedOperationException("the view is read-only");
+        }
+
+        @Override
+        public boolean removeVertex(NashvilleNumber v) {
+            throw new UnsupportedOperationException("the view is read-only");
+        }
+
+        @Override
+        public Set<NashvilleNumber> vertexSet() {
+            return new AbstractSet<NashvilleNumber>() {
+                @Override
+                public Iterator<NashvilleNumber> iterator() {
+                    return new Iterator<NashvilleNumber>() {
+                        private int next = nextVertex(0);
+
+                        @Override
+                        public boolean hasNext() {
+                            return next != -1;
+                        }
+
+                        @Override
+                        public NashvilleNumber next() {
+                            if (next == -1) throw new NoSuchElementException();
+                            NashvilleNumber v = NASHVILLE_NUMBERS[next];
+                            next = nextVertex(next + 1);
+                            return v;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return vertexCount();
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return o instanceof NashvilleNumber && containsVertex((NashvilleNumber) o);
+                }
+            };
+        }
+
+        @Override
+        public NashvilleNumber getEdgeSource(Edge e) {
+            return e.source;
+        }
+
+        @Override
+        public NashvilleNumber getEdgeTarget(Edge e) {
+            return e.target;
+        }
+
+        @Override
+        public double getEdgeWeight(Edge e) {
+            return CompactProgressionGraph.this.getEdgeWeight(e.source.ordinal(), e.target.ordinal());
+        }
+
+        @Override
+        public void setEdgeWeight(Edge e, double weight) {
+            throw new UnsupportedOperationException("the view is read-only");
+        }
+
+        @Override
+        public int inDegreeOf(NashvilleNumber v) {
+            assertVertexExist(v);
+            return CompactProgressionGraph.this.inDegreeOf(v.ordinal());
+        }
+
+        @Override
+        public Set<Edge> incomingEdgesOf(NashvilleNumber v) {
+            assertVertexExist(v);
+            return new NeighborEdgeSet(v.ordinal(), false);
+        }
+
+        @Override
+        public int outDegreeOf(NashvilleNumber v) {
+            assertVertexExist(v);
+            return CompactProgressionGraph.this.outDegreeOf(v.ordinal());
+        }
+
+        @Override
+        public Set<Edge> outgoingEdgesOf(NashvilleNumber v) {
+            assertVertexExist(v);
+            return new NeighborEdgeSet(v.ordinal(), true);
+        }
+    }
+
+    /*
+     * Iterators and sets behind the view
+     */
+
+    // The edges leaving (or entering) one vertex, read from its successor (or predecessor) bitset
+    private final class BitIterator implements Iterator<Edge> {
+        private final long[] bits;
+        private final int vertex;
+        private final boolean outgoing;
+        private int next;
+
+        BitIterator(long[] bits, int vertex, boolean outgoing) {
+            this.bits = bits;
+            this.vertex = vertex;
+            this.outgoing = outgoing;
+            this.next = nextBit(bits, vertex * WORDS, 0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != -1;
+        }
+
+        @Override
+        public Edge next() {
+            if (next == -1) throw new NoSuchElementException();
+            Edge e = outgoing ? edge(vertex, next) : edge(next, vertex);
+            next = nextBit(bits, vertex * WORDS, next + 1);
+            return e;
+        }
+    }
+
+    private final class NeighborEdgeSet extends AbstractSet<Edge> {
+        private final int vertex;
+        private final boolean outgoing;
+
+        NeighborEdgeSet(int vertex, boolean outgoing) {
+            this.vertex = vertex;
+            this.outgoing = outgoing;
+        }
+
+        @Override
+        public Iterator<Edge> iterator() {
+            return new BitIterator(outgoing ? successors : predecessors, vertex, outgoing);
+        }
+
+        @Override
+        public int size() {
+            return outgoing ? outDegreeOf(vertex) : inDegreeOf(vertex);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Edge)) return false;
+            Edge e = (Edge) o;
+            return (outgoing ? e.source : e.target).ordinal() == vertex && containsEdge(e.source.ordinal(), e.target.ordinal());
+        }
+    }
+
+    // Every edge, by source and then by target
+    private final class EdgeIterator implements Iterator<Edge> {
+        private int source = 0;
+        private int target = nextSuccessor(0, 0);
+
+        EdgeIterator() {
+            skipEmptySources();
+        }
+
+        private void skipEmptySources() {
+            while (target == -1 && ++source < NUM_VERTICES) {
+                target = nextSuccessor(source, 0);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return source < NUM_VERTICES;
+        }
+
+        @Override
+        public Edge next() {
+            if (source >= NUM_VERTICES) throw new NoSuchElementException();
+            Edge e = edge(source, target);
+            target = nextSuccessor(source, target + 1);
+            skipEmptySources();
+            return e;
+        }
+    }
+
+    /*
+     * Bitset helpers; each bitset is WORDS longs starting at offset
+     */
+
+    private static void setBit(long[] bits, int offset, int i) {
+        bits[offset + (i >>> 6)] |= 1L << i;
+    }
+
+    private static boolean hasBit(long[] bits, int offset, int i) {
+        return (bits[offset + (i >>> 6)] & (1L << i)) != 0;
+    }
+
+    private static int bitCount(long[] bits, int offset) {
+        return bitCount(bits, offset, offset + WORDS);
+    }
+
+    private static int bitCount(long[] bits, int from, int to) {
+        int count = 0;
+        for (int w = from; w < to; w++) {
+            count += Long.bitCount(bits[w]);
+        }
+        return count;
+    }
+
+    private static int nextBit(long[] bits, int offset, int from) {
+        if (from >= NUM_VERTICES) return -1;
+        if (from < 0) from = 0;
+
+        int w = from >>> 6;
+        long word = bits[offset + w] & (-1L << from);  // Shifts are taken modulo 64, so this clears the bits below from
+        while (true) {
+            if (word != 0) return (w << 6) + Long.numberOfTrailingZeros(word);
+            if (++w == WORDS) return -1;
+            word = bits[offset + w];
+        }
+    }
+}
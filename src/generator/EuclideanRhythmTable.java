@@ -0,0 +1,235 @@
+package generator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Every Euclidean rhythm E(pulses, steps) with up to MAX_STEPS steps, in every rotation, plus a reverse index from
+ * bit patterns back to the rhythm and rotation they are ("is this bar Euclidean, and which one?").
+ *
+ * Patterns are packed as in Bjorklund.euclidean: step i is bit i. Rotating a pattern by r makes it start r steps
+ * later, so rotation r of E(3, 8) (x..x..x.) starts on its step r, e.g. rotation 1 is ..x..x.x. The canonical
+ * (necklace) form of a pattern is its rotation with the smallest unsigned value.
+ *
+ * The tables are built on first use, one row of steps per fork/join task. Lookups take Θ(1) time and do not
+ * allocate; results are packed into an int (steps, pulses and rotation, one byte each), as in ChordRecognizer.
+ */
+public final class EuclideanRhythmTable {
+    public static final int MAX_STEPS = Bjorklund.MAX_PACKED_STEPS;
+    public static final int NOT_FOUND = -1;
+
+    private static final int BYTE_BITS = 8, BYTE_MASK = (1 << BYTE_BITS) - 1;
+
+    private EuclideanRhythmTable() {}
+
+    /*
+     * Holder idiom: the tables are only built the first time they are queried.
+     */
+    private static final class Holder {
+        static final long[][][] ROTATIONS = new long[MAX_STEPS + 1][][];   // [steps][pulses][rotation]
+        static final long[][] NECKLACES = new long[MAX_STEPS + 1][];       // [steps][pulses]
+
+        // Open-addressing index from (pattern, steps) to the packed result of its first matching rotation
+        static final long[] INDEX_PATTERNS;
+        static final int[] INDEX_RESULTS;
+
+        static {
+            List<RowBuilder> rows = new ArrayList<>(MAX_STEPS);
+            int entries = 0;
+            for (int steps = 1; steps <= MAX_STEPS; steps++) {
+                rows.add(new RowBuilder(steps, ROTATIONS, NECKLACES));
+                entries += steps * (steps + 1);
+            }
+            ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(rows);
+                }
+            });
+
+            // At most half full, so that probes stay short
+            int capacity = Integer.highestOneBit(entries) << 2;
+            INDEX_PATTERNS = new long[capacity];
+            INDEX_RESULTS = new int[capacity];
+            Arrays.fill(INDEX_RESULTS, NOT_FOUND);
+
+            for (int steps = 1; steps <= MAX_STEPS; steps++) {
+                for (int pulses = 0; pulses <= steps; pulses++) {
+                    long[] rotations = ROTATIONS[steps][pulses];
+                    for (int r = 0; r < steps; r++) {
+                        int slot = findSlot(INDEX_PATTERNS, INDEX_RESULTS, rotations[r], steps);
+                        if (INDEX_RESULTS[slot] == NOT_FOUND) {
+                            INDEX_PATTERNS[slot] = rotations[r];
+                            INDEX_RESULTS[slot] = pack(steps, pulses, r);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * Builds every pulse count and rotation for one number of steps. It runs on pool threads while the calling
+     * thread is still initializing Holder, so it must never touch Holder: it writes to the arrays it is handed
+     * instead. It may be the first to use Bjorklund, which then gets initialized on a worker thread; that is
+     * safe only because Bjorklund's initialization does not depend on Holder (or on anything that does).
+     * EuclideanRhythmTable itself is already initialized, since only its methods reach Holder.
+     */
+    private static final class RowBuilder extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int steps;
+        private final long[][][] rotations;
+        private final long[][] necklaces;
+
+        RowBuilder(int steps, long[][][] rotations, long[][] necklaces) {
+            this.steps = steps;
+            this.rotations = rotations;
+            this.necklaces = necklaces;
+        }
+
+        @Override
+        protected void compute() {
+            long[][] row = new long[steps + 1][steps];
+            long[] rowNecklaces = new long[steps + 1];
+
+            for (int pulses = 0; pulses <= steps; pulses++) {
+                long pattern = Bjorklund.euclidean(steps, pulses);
+                long necklace = pattern;
+                for (int r = 0; r < steps; r++) {
+                    long rotated = rotate(pattern, steps, r);
+                    row[pulses][r] = rotated;
+                    if (Long.compareUnsigned(rotated, necklace) < 0) necklace = rotated;
+                }
+                rowNecklaces[pulses] = necklace;
+            }
+
+            rotations[steps] = row;
+            necklaces[steps] = rowNecklaces;
+        }
+    }
+
+    private static int findSlot(long[] patterns, int[] results, long pattern, int steps) {
+        int mask = patterns.length - 1;
+        long hash = (pattern + steps) * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (results[slot] != NOT_FOUND && (patterns[slot] != pattern || getSteps(results[slot]) != steps)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int pack(int steps, int pulses, int rotation) {
+        return (rotation << (2 * BYTE_BITS)) | (pulses << BYTE_BITS) | steps;
+    }
+
+    private static void checkArguments(int steps, int pulses) {
+        if (steps < 1 || steps > MAX_STEPS) throw new IllegalArgumentException("steps must be 1 to " + MAX_STEPS + ": " + steps);
+        if (pulses < 0 || pulses > steps) throw new IllegalArgumentException("pulses must be 0 to " + steps + ": " + pulses);
+    }
+
+    /**
+     * This function operates in Θ(1) time.
+     * @param pattern a packed pattern
+     * @param steps the number of steps in the pattern (1 to MAX_STEPS)
+     * @param rotation the number of steps to rotate by (taken modulo steps)
+     * @return the pattern, starting rotation steps later
+     */
+    public static long rotate(long pattern, int steps, int rotation) {
+        int r = Math.floorMod(rotation, steps);
+        if (r == 0) return pattern;
+
+        long mask = (steps == Long.SIZE) ? -1L : (1L << steps) - 1;
+        return ((pattern >>> r) | (pattern << (steps - r))) & mask;
+    }
+
+    /**
+     * Finds the necklace form of any pattern, Euclidean or not. This function operates in Θ(steps) time.
+     * @param pattern a packed pattern
+     * @param steps the number of steps in the pattern (1 to MAX_STEPS)
+     * @return the rotation of pattern with the smallest unsigned value
+     */
+    public static long canonicalize(long pattern, int steps) {
+        long necklace = pattern;
+        for (int r = 1; r < steps; r++) {
+            long rotated = rotate(pattern, steps, r);
+            if (Long.compareUnsigned(rotated, necklace) < 0) necklace = rotated;
+        }
+        return necklace;
+    }
+
+    /**
+     *
+     * @param steps the number of steps (1 to MAX_STEPS)
+     * @param pulses the number of pulses (0 to steps)
+     * @param rotation the number of steps to rotate by (taken modulo steps)
+     * @return the packed pattern of E(pulses, steps), rotated
+     */
+    public static long getPattern(int steps, int pulses, int rotation) {
+        checkArguments(steps, pulses);
+        return Holder.ROTATIONS[steps][pulses][Math.floorMod(rotation, steps)];
+    }
+
+    /**
+     *
+     * @param steps the number of steps (1 to MAX_STEPS)
+     * @param pulses the number of pulses (0 to steps)
+     * @return the necklace form of E(pulses, steps)
+     */
+    public static long getNecklace(int steps, int pulses) {
+        checkArguments(steps, pulses);
+        return Holder.NECKLACES[steps][pulses];
+    }
+
+    /**
+     * This function operates in Θ(1) time and does not allocate.
+     * @param pattern a packed pattern
+     * @param steps the number of steps in the pattern (1 to MAX_STEPS)
+     * @return the packed (steps, pulses, rotation) of the Euclidean rhythm that pattern is, or NOT_FOUND if it is not one;
+     *         when several rotations give the same pattern, the smallest one is returned
+     */
+    public static int lookUp(long pattern, int steps) {
+        if (steps < 1 || steps > MAX_STEPS) return NOT_FOUND;
+        return Holder.INDEX_RESULTS[findSlot(Holder.INDEX_PATTERNS, Holder.INDEX_RESULTS, pattern, steps)];
+    }
+
+    /**
+     *
+     * @param pattern a packed pattern
+     * @param steps the number of steps in the pattern (1 to MAX_STEPS)
+     * @return whether pattern is a rotation of a Euclidean rhythm
+     */
+    public static boolean isEuclidean(long pattern, int steps) {
+        return lookUp(pattern, steps) != NOT_FOUND;
+    }
+
+    /**
+     *
+     * @param result a packed result of lookUp (other than NOT_FOUND)
+     * @return the number of steps of the rhythm
+     */
+    public static int getSteps(int result) {
+        return result & BYTE_MASK;
+    }
+
+    /**
+     *
+     * @param result a packed result of lookUp (other than NOT_FOUND)
+     * @return the number of pulses of the rhythm
+     */
+    public static int getPulses(int result) {
+        return (result >>> BYTE_BITS) & BYTE_MASK;
+    }
+
+    /**
+     *
+     * @param result a packed result of lookUp (other than NOT_FOUND)
+     * @return the rotation of the rhythm (see getPattern)
+     */
+    public static int getRotation(int result) {
+        return (result >>> (2 * BYTE_BITS)) & BYTE_MASK;
+    }
+}
@@ -14,6 +14,9 @@ import static musictheory.NashvilleNumber.*;
  */
 public class MajorProgressionGraph1 extends ChordProgression {
 
+    // Root motion down a fifth (e.g., V -> I) is the strongest progression, so it is twice as likely as the others
+    private static final double STRONG = 2.0;
+
     public MajorProgressionGraph1() {
         NashvilleNumber[] intervals = {ONE, TWO, THREE, FOUR, FIVE, SIX, SEVEN};
 
@@ -24,30 +27,30 @@ public class MajorProgressionGraph1 extends ChordProgression {
         this.addEdge(ONE, ONE);
         this.addEdge(ONE, TWO);
         this.addEdge(ONE, THREE);
-        this.addEdge(ONE, FOUR);
+        this.addEdge(ONE, FOUR, STRONG);
         this.addEdge(ONE, FIVE);
         this.addEdge(ONE, SIX);
 
-        this.addEdge(TWO, FIVE);
+        this.addEdge(TWO, FIVE, STRONG);
         this.addEdge(TWO, SEVEN);
 
         this.addEdge(THREE, FOUR);
-        this.addEdge(THREE, SIX);
+        this.addEdge(THREE, SIX, STRONG);
 
         this.addEdge(FOUR, ONE);
         this.addEdge(FOUR, TWO);
         this.addEdge(FOUR, FIVE);
-        this.addEdge(FOUR, SEVEN);
+        this.addEdge(FOUR, SEVEN, STRONG);
 
-        this.addEdge(FIVE, ONE);
+        this.addEdge(FIVE, ONE, STRONG);
         this.addEdge(FIVE, SIX);
         this.addEdge(FIVE, SEVEN);
 
-        this.addEdge(SIX, TWO);
+        this.addEdge(SIX, TWO, STRONG);
         this.addEdge(SIX, FOUR);
         this.addEdge(SIX, FIVE);
 
         this.addEdge(SEVEN, ONE);
-        this.addEdge(SEVEN, THREE);
+        this.addEdge(SEVEN, THREE, STRONG);
     }
 }
@@ -0,0 +1,500 @@
+package generator;
+
+import musictheory.NashvilleNumber;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * An order-k Markov model of chord progressions, trained from a corpus of songs written in Nashville numbers.
+ *
+ * The corpus is plain text (ASCII or UTF-8), one song per line. Each token is an optional accidental
+ * ("b", "bb", "#", "x", "♭" or "♯"), an interval number from 1 to 13, and an optional chord quality that is
+ * ignored (e.g., "1 6m 4 5", "1, b7, 4/6, 1"). Tokens are separated by whitespace or commas.
+ *
+ * Counts are kept in primitive arrays indexed by NashvilleNumber ordinal: a dense 65 x 65 matrix of
+ * first-order transitions, and (for order 2 and up) a primitive open-addressing table keyed by the packed
+ * ordinals of the context and the next NashvilleNumber, so memory grows with the number of distinct n-grams
+ * rather than with 65^(k + 1). Nothing is boxed.
+ *
+ * Training from a file splits it into byte ranges, counts each range on the fork/join pool and merges the
+ * counts at the end. The trained model converts to a weighted graph (see toGraph) that can be used in place of
+ * a hand-written ChordProgression such as MajorProgressionGraph1; the graph holds the first-order transitions.
+ */
+public final class MarkovProgressionModel {
+    private static final NashvilleNumber[] NASHVILLE_NUMBERS = NashvilleNumber.values();
+    private static final int NUM_VERTICES = CompactProgressionGraph.NUM_VERTICES;
+
+    // The packed key of an n-gram (k + 1 ordinals, base 65) must fit in a long
+    public static final int MAX_ORDER = 9;
+
+    // [accidental semitones + 2][interval number] -> NashvilleNumber, or null
+    private static final NashvilleNumber[][] BY_ACCIDENTAL_AND_NUMBER = buildLookup();
+
+    private final int order;
+    private final long[] occurrences = new long[NUM_VERTICES];
+    private final long[] transitions = new long[NUM_VERTICES * NUM_VERTICES];  // [from * NUM_VERTICES + to]
+    private final NGramCounts nGrams;                                           // Null for order 1
+    private final long contextModulus;                                          // 65^order
+    private long songCount = 0;
+
+    /**
+     *
+     * @param order the number of NashvilleNumbers that each prediction is conditioned on (1 to MAX_ORDER)
+     */
+    public MarkovProgressionModel(int order) {
+        if (order < 1 || order > MAX_ORDER) throw new IllegalArgumentException("order must be 1 to " + MAX_ORDER + ": " + order);
+
+        this.order = order;
+        this.nGrams = (order == 1) ? null : new NGramCounts();
+        this.contextModulus = pow(NUM_VERTICES, order);
+    }
+
+    private static NashvilleNumber[][] buildLookup() {
+        String[] prefixes = {"DOUBLE_FLAT_", "FLAT_", "", "SHARP_", "DOUBLE_SHARP_"};
+        String[] numbers = {null, "ONE", "TWO", "THREE", "FOUR", "FIVE", "SIX", "SEVEN",
+                "OCTAVE", "NINE", "TEN", "ELEVEN", "TWELVE", "THIRTEEN"};
+
+        NashvilleNumber[][] lookup = new NashvilleNumber[prefixes.length][numbers.length];
+        for (int a = 0; a < prefixes.length; a++) {
+            for (int n = 1; n < numbers.length; n++) {
+                lookup[a][n] = NashvilleNumber.valueOf(prefixes[a] + numbers[n]);
+            }
+        }
+        return lookup;
+    }
+
+    /*
+     * Training
+     */
+
+    /**
+     * Trains a model from a corpus file, using every core.
+     * @param corpus the corpus, one song per line
+     * @param order the order of the model (1 to MAX_ORDER)
+     * @return the trained model
+     * @throws IOException if the corpus cannot be read
+     * @throws IllegalArgumentException if the corpus holds a token that is not a Nashville number
+     */
+    public static MarkovProgressionModel train(Path corpus, int order) throws IOException {
+        return train(corpus, order, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Trains a model from a corpus file, reading byte ranges of it in parallel. The reads block, so they run on
+     * a fork/join pool of their own, which is shut down afterwards, rather than tying up the common pool.
+     * @param corpus the corpus, one song per line
+     * @param order the order of the model (1 to MAX_ORDER)
+     * @param parallelism the number of byte ranges to split the corpus into
+     * @return the trained model
+     * @throws IOException if the corpus cannot be read
+     * @throws IllegalArgumentException if the corpus holds a token that is not a Nashville number
+     */
+    public static MarkovProgressionModel train(Path corpus, int order, int parallelism) throws IOException {
+        long size = Files.size(corpus);
+        int chunks = (int) Math.max(1, Math.min(parallelism, size / (1 << 20)));  // At least 1 MB each
+
+        List<RecursiveTask<MarkovProgressionModel>> tasks = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            long start = size * i / chunks, end = size * (i + 1) / chunks;
+            tasks.add(new RecursiveTask<MarkovProgressionModel>() {
+                @Override
+                protected MarkovProgressionModel compute() {
+                    try {
+                        return trainRange(corpus, order, start, end);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(chunks);
+        try {
+            return pool.invoke(new RecursiveTask<MarkovProgressionModel>() {
+                @Override
+                protected MarkovProgressionModel compute() {
+                    invokeAll(tasks);
+
+                    MarkovProgressionModel model = tasks.get(0).join();
+                    for (int i = 1; i < tasks.size(); i++) {
+                        model.merge(tasks.get(i).join());
+                    }
+                    return model;
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // The fork/join pool may hand back a copy of the exception, with the original as its cause
+            for (Throwable t = e; t != null; t = t.getCause()) {
+                if (t instanceof IOException) throw (IOException) t;
+            }
+            throw e;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Counts the songs that start in a byte range of the corpus. A song that straddles the start of the range
+     * belongs to the previous range, and a song that straddles the end belongs to this one.
+     */
+    private static MarkovProgressionModel trainRange(Path corpus, int order, long start, long end) throws IOException {
+        MarkovProgressionModel model = new MarkovProgressionModel(order);
+
+        try (FileChannel channel = FileChannel.open(corpus, StandardOpenOption.READ)) {
+            // Back up one byte, so that a range starting right after a line break does not skip its first song
+            long position = Math.max(0, start - 1);
+            channel.position(position);
+
+            SongReader reader = new SongReader(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16), position);
+            if (start > 0) reader.skipLine();
+
+            while (reader.getPosition() < end) {
+                int length = reader.readSong();
+                if (length == -1) break;
+                model.addSong(reader.song, length);
+            }
+        }
+
+        return model;
+    }
+
+    /**
+     * Trains a model from a stream, one song per line, on the calling thread. The stream is not closed.
+     * @param in the corpus
+     * @param order the order of the model (1 to MAX_ORDER)
+     * @return the trained model
+     * @throws IOException if the corpus cannot be read
+     * @throws IllegalArgumentException if the corpus holds a token that is not a Nashville number
+     */
+    public static MarkovProgressionModel train(InputStream in, int order) throws IOException {
+        MarkovProgressionModel model = new MarkovProgressionModel(order);
+
+        SongReader reader = new SongReader(new BufferedInputStream(in, 1 << 16), 0);
+        for (int length = reader.readSong(); length != -1; length = reader.readSong()) {
+            model.addSong(reader.song, length);
+        }
+        return model;
+    }
+
+    /**
+     *
+     * @param song the NashvilleNumbers of a song, in order
+     */
+    public void addSong(NashvilleNumber... song) {
+        int[] ordinals = new int[song.length];
+        for (int i = 0; i < song.length; i++) {
+            ordinals[i] = song[i].ordinal();
+        }
+        addSong(ordinals, song.length);
+    }
+
+    /**
+     * Counts every transition of a song. Order-k transitions are only counted once a full context is available.
+     * This function operates in Θ(n) time and does not allocate (other than when the n-gram table grows).
+     * @param song the NashvilleNumber ordinals of a song, in order
+     * @param length the number of ordinals to read from song
+     */
+    void addSong(int[] song, int length) {
+        if (length == 0) return;
+        songCount++;
+
+        long key = 0;
+        for (int i = 0; i < length; i++) {
+            occurrences[song[i]]++;
+            if (i > 0) transitions[song[i - 1] * NUM_VERTICES + song[i]]++;
+
+            // Slide the packed n-gram along the song, dropping its oldest ordinal
+            key = (key % contextModulus) * NUM_VERTICES + song[i];
+            if (nGrams != null && i >= order) nGrams.add(key, 1);
+        }
+    }
+
+    /**
+     * Adds another model's counts to this one's.
+     * @param other a model of the same order
+     */
+    public void merge(MarkovProgressionModel other) {
+        if (other.order != order) throw new IllegalArgumentException("cannot merge order " + other.order + " into order " + order);
+
+        for (int i = 0; i < occurrences.length; i++) occurrences[i] += other.occurrences[i];
+        for (int i = 0; i < transitions.length; i++) transitions[i] += other.transitions[i];
+        if (nGrams != null) nGrams.addAll(other.nGrams);
+        songCount += other.songCount;
+    }
+
+    /*
+     * Queries
+     */
+
+    /**
+     *
+     * @return the number of NashvilleNumbers that each prediction is conditioned on
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     *
+     * @return the number of (non-empty) songs the model was trained on
+     */
+    public long getSongCount() {
+        return songCount;
+    }
+
+    /**
+     *
+     * @param context the last getOrder() NashvilleNumbers, oldest first
+     * @param next the NashvilleNumber that follows them
+     * @return the number of times next followed context in the corpus
+     */
+    public long getCount(NashvilleNumber[] context, NashvilleNumber next) {
+        if (context.length != order) throw new IllegalArgumentException("context must hold " + order + " NashvilleNumbers");
+
+        if (nGrams == null) return transitions[context[0].ordinal() * NUM_VERTICES + next.ordinal()];
+        return nGrams.get(pack(context) * NUM_VERTICES + next.ordinal());
+    }
+
+    /**
+     *
+     * @param context the last getOrder() NashvilleNumbers, oldest first
+     * @param next the NashvilleNumber that follows them
+     * @return the maximum likelihood estimate of the chance that next follows context, or 0 if context was never seen
+     */
+    public double getProbability(NashvilleNumber[] context, NashvilleNumber next) {
+        long count = getCount(context, next);
+        if (count == 0) return 0;
+
+        long total = 0;
+        if (nGrams == null) {
+            int from = context[0].ordinal() * NUM_VERTICES;
+            for (int to = 0; to < NUM_VERTICES; to++) total += transitions[from + to];
+        }
+        else {
+            long packed = pack(context) * NUM_VERTICES;
+            for (int to = 0; to < NUM_VERTICES; to++) total += nGrams.get(packed + to);
+        }
+        return (double) count / total;
+    }
+
+    /**
+     * The first-order transitions as a weighted graph: every NashvilleNumber in the corpus is a vertex, and every
+     * transition is an edge weighted by how often it occurred.
+     * @return a new CompactProgressionGraph (see also CompactProgressionGraph.toChordProgression)
+     */
+    public CompactProgressionGraph toGraph() {
+        CompactProgressionGraph graph = new CompactProgressionGraph();
+        for (int v = 0; v < NUM_VERTICES; v++) {
+            if (occurrences[v] > 0) graph.addVertex(NASHVILLE_NUMBERS[v]);
+        }
+        for (int from = 0; from < NUM_VERTICES; from++) {
+            for (int to = 0; to < NUM_VERTICES; to++) {
+                long count = transitions[from * NUM_VERTICES + to];
+                if (count > 0) graph.addEdge(from, to, count);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     *
+     * @return the first-order transitions as a ChordProgression, for use in place of e.g. MajorProgressionGraph1
+     */
+    public ChordProgression toChordProgression() {
+        return toGraph().toChordProgression();
+    }
+
+    private static long pack(NashvilleNumber[] context) {
+        long packed = 0;
+        for (NashvilleNumber nn : context) {
+            packed = packed * NUM_VERTICES + nn.ordinal();
+        }
+        return packed;
+    }
+
+    private static long pow(long base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) result *= base;
+        return result;
+    }
+
+    /**
+     * Parses a single Nashville number, e.g. "1", "b7", "#4", "♭3" or "6m" (the chord quality is ignored).
+     * @param token the token to parse
+     * @return the NashvilleNumber
+     * @throws IllegalArgumentException if token is not a Nashville number
+     */
+    public static NashvilleNumber parse(String token) {
+        byte[] bytes = token.getBytes(StandardCharsets.UTF_8);
+        NashvilleNumber nn = parse(bytes, 0, bytes.length);
+        if (nn == null) throw new IllegalArgumentException("not a Nashville number: " + token);
+        return nn;
+    }
+
+    /**
+     *
+     * @param bytes UTF-8 text
+     * @param from the index of the first byte of the token
+     * @param to the index after the last byte of the token
+     * @return the NashvilleNumber, or null if the token is not a Nashville number
+     */
+    private static NashvilleNumber parse(byte[] bytes, int from, int to) {
+        int i = from, semitones = 0;
+
+        // Accidentals: b, #, x, or the UTF-8 encodings of ♭ (E2 99 AD) and ♯ (E2 99 AF)
+        while (i < to) {
+            if (bytes[i] == 'b') { semitones--; i++; }
+            else if (bytes[i] == '#') { semitones++; i++; }
+            else if (bytes[i] == 'x') { semitones += 2; i++; }
+            else if (i + 2 < to && bytes[i] == (byte) 0xE2 && bytes[i + 1] == (byte) 0x99
+                    && (bytes[i + 2] == (byte) 0xAD || bytes[i + 2] == (byte) 0xAF)) {
+                semitones += (bytes[i + 2] == (byte) 0xAD) ? -1 : 1;
+                i += 3;
+            }
+            else break;
+        }
+
+        int number = 0, digits = 0;
+        while (i < to && bytes[i] >= '0' && bytes[i] <= '9' && digits < 3) {
+            number = number * 10 + (bytes[i++] - '0');
+            digits++;
+        }
+
+        if (digits == 0 || number < 1 || number > 13 || semitones < -2 || semitones > 2) return null;
+        return BY_ACCIDENTAL_AND_NUMBER[semitones + 2][number];
+    }
+
+    /*
+     * Reads songs line by line straight from bytes, into a reused buffer of ordinals.
+     */
+    private static final class SongReader {
+        private final InputStream in;
+        private long position;
+        private byte[] line = new byte[256];
+        int[] song = new int[64];
+
+        SongReader(InputStream in, long position) {
+            this.in = in;
+            this.position = position;
+        }
+
+        long getPosition() {
+            return position;
+        }
+
+        void skipLine() throws IOException {
+            int b;
+            do {
+                b = in.read();
+                if (b != -1) position++;
+            } while (b != -1 && b != '\n');
+        }
+
+        /**
+         *
+         * @return the number of NashvilleNumbers read into song, or -1 at the end of the stream
+         */
+        int readSong() throws IOException {
+            long lineStart = position;
+            int length = 0, b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (b == '\n') break;
+                if (length == line.length) line = Arrays.copyOf(line, length * 2);
+                line[length++] = (byte) b;
+            }
+            if (b == -1 && length == 0 && position == lineStart) return -1;
+
+            int count = 0;
+            for (int i = 0; i < length; ) {
+                while (i < length && isSeparator(line[i])) i++;
+                int tokenStart = i;
+                while (i < length && !isSeparator(line[i])) i++;
+                if (i == tokenStart) break;
+
+                NashvilleNumber nn = parse(line, tokenStart, i);
+                if (nn == null) {
+                    throw new IllegalArgumentException("not a Nashville number at byte " + (lineStart + tokenStart) + ": "
+                            + new String(line, tokenStart, i - tokenStart, StandardCharsets.UTF_8));
+                }
+
+                if (count == song.length) song = Arrays.copyOf(song, count * 2);
+                song[count++] = nn.ordinal();
+            }
+            return count;
+        }
+
+        private static boolean isSeparator(byte b) {
+            return b == ' ' || b == '\t' || b == ',' || b == '\r';
+        }
+    }
+
+    /*
+     * A primitive open-addressing hash table from packed n-grams to counts.
+     * Keys are stored plus one, so that zero marks an empty slot.
+     */
+    private static final class NGramCounts {
+        private long[] keys = new long[1 << 10];
+        private long[] counts = new long[1 << 10];
+        private int size = 0;
+
+        void add(long key, long count) {
+            int slot = find(key);
+            if (keys[slot] == 0) {
+                keys[slot] = key + 1;
+                size++;
+            }
+            counts[slot] += count;
+
+            if (size > keys.length / 2) grow();
+        }
+
+        long get(long key) {
+            int slot = find(key);
+            return (keys[slot] == 0) ? 0 : counts[slot];
+        }
+
+        void addAll(NGramCounts other) {
+            for (int i = 0; i < other.keys.length; i++) {
+                if (other.keys[i] != 0) add(other.keys[i] - 1, other.counts[i]);
+            }
+        }
+
+        private int find(long key) {
+            int mask = keys.length - 1;
+            long hash = key * 0x9E3779B97F4A7C15L;
+            int slot = (int) (hash ^ (hash >>> 32)) & mask;
+            while (keys[slot] != 0 && keys[slot] != key + 1) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys, oldCounts = counts;
+            keys = new long[oldKeys.length * 2];
+            counts = new long[oldCounts.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = find(oldKeys[i] - 1);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+    }
+}
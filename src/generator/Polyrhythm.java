@@ -0,0 +1,259 @@
+package generator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Layers Euclidean rhythms with different numbers of steps (e.g., E(3, 8) against E(5, 12)) over one cycle.
+ *
+ * The cycle is divided into getResolution() ticks, the least common multiple of the layers' numbers of steps,
+ * so that every step of every layer falls on a tick: a layer of n steps moves getResolution() / n ticks per step.
+ * Each layer can be rotated (in its own steps, as in EuclideanRhythmTable.rotate) and offset (in ticks).
+ *
+ * Every layer is packed into a bitset of ticks (tick t is bit t % 64 of word t / 64) from Bjorklund.euclidean,
+ * rather than compute_bitmap's boolean[], and the layers are merged by ORing their words together.
+ * The onsets are then streamed by an OnsetIterator, which does not allocate.
+ */
+public final class Polyrhythm {
+    public static final int MAX_LAYERS = Long.SIZE;
+    public static final int MAX_RESOLUTION = 1 << 24;
+
+    private static final class Layer {
+        final int steps;
+        final int pulses;
+        final int rotation;
+        final int offset;
+
+        Layer(int steps, int pulses, int rotation, int offset) {
+            this.steps = steps;
+            this.pulses = pulses;
+            this.rotation = rotation;
+            this.offset = offset;
+        }
+    }
+
+    private final List<Layer> layers = new ArrayList<>();
+    private int resolution = 1;
+
+    // Built on demand, and thrown away whenever a layer is added
+    private long[][] layerTicks = null;    // [layer][word]
+    private long[] onsetTicks = null;      // OR of the layers
+
+    public Polyrhythm() {}
+
+    /**
+     * Adds E(pulses, steps), without rotation or offset.
+     * @param steps the number of steps of the layer (1 or more)
+     * @param pulses the number of pulses to spread over the steps (0 to steps)
+     * @return the index of the layer
+     */
+    public int addLayer(int steps, int pulses) {
+        return addLayer(steps, pulses, 0, 0);
+    }
+
+    /**
+     *
+     * @param steps the number of steps of the layer (1 or more)
+     * @param pulses the number of pulses to spread over the steps (0 to steps)
+     * @param rotation the number of steps to rotate the layer by, so that it starts on its step rotation (taken modulo steps)
+     * @param offset the number of ticks to delay the layer by (taken modulo the resolution, which may still grow)
+     * @return the index of the layer
+     * @throws IllegalArgumentException if there are already MAX_LAYERS layers, or the resolution would exceed MAX_RESOLUTION
+     */
+    public int addLayer(int steps, int pulses, int rotation, int offset) {
+        if (steps < 1) throw new IllegalArgumentException("steps must be at least 1: " + steps);
+        if (pulses < 0 || pulses > steps) throw new IllegalArgumentException("pulses must be 0 to " + steps + ": " + pulses);
+        if (layers.size() == MAX_LAYERS) throw new IllegalArgumentException("at most " + MAX_LAYERS + " layers");
+
+        long lcm = (long) resolution / gcd(resolution, steps) * steps;
+        if (lcm > MAX_RESOLUTION) throw new IllegalArgumentException("resolution must be at most " + MAX_RESOLUTION + ": " + lcm);
+
+        layers.add(new Layer(steps, pulses, Math.floorMod(rotation, steps), offset));
+        resolution = (int) lcm;
+        layerTicks = null;
+        onsetTicks = null;
+        return layers.size() - 1;
+    }
+
+    /**
+     *
+     * @return the number of layers
+     */
+    public int getLayerCount() {
+        return layers.size();
+    }
+
+    /**
+     *
+     * @return the number of ticks in a cycle: the least common multiple of the layers' numbers of steps
+     */
+    public int getResolution() {
+        return resolution;
+    }
+
+    /**
+     *
+     * @param layer the index of a layer
+     * @return the number of ticks between two steps of the layer
+     */
+    public int getTicksPerStep(int layer) {
+        return resolution / layers.get(layer).steps;
+    }
+
+    /**
+     *
+     * @return the onsets of all the layers, where bit t % 64 of word t / 64 is set if any layer has a pulse on tick t
+     */
+    public long[] getOnsets() {
+        build();
+        return onsetTicks.clone();
+    }
+
+    /**
+     *
+     * @param layer the index of a layer
+     * @return the onsets of the layer, where bit t % 64 of word t / 64 is set if it has a pulse on tick t
+     */
+    public long[] getOnsets(int layer) {
+        build();
+        return layerTicks[layer].clone();
+    }
+
+    /**
+     * Places every pulse of every layer on the timeline, in Θ(layers * resolution / 64 + pulses) time.
+     */
+    private void build() {
+        if (onsetTicks != null) return;
+
+        int words = Bjorklund.getWordCount(resolution);
+        layerTicks = new long[layers.size()][words];
+        onsetTicks = new long[words];
+
+        for (int l = 0; l < layers.size(); l++) {
+            Layer layer = layers.get(l);
+            long[] pattern = new long[Bjorklund.getWordCount(layer.steps)];
+            Bjorklund.euclidean(layer.steps, layer.pulses, pattern);
+
+            long stride = resolution / layer.steps;
+            long offset = Math.floorMod(layer.offset, resolution);
+            long[] ticks = layerTicks[l];
+            for (int w = 0; w < pattern.length; w++) {
+                for (long bits = pattern[w]; bits != 0; bits &= bits - 1) {
+                    // Step i of the pattern is step i - rotation of the layer
+                    int step = Math.floorMod((w << 6) + Long.numberOfTrailingZeros(bits) - layer.rotation, layer.steps);
+                    int tick = (int) ((step * stride + offset) % resolution);
+                    ticks[tick >>> 6] |= 1L << tick;
+                }
+            }
+
+            for (int w = 0; w < words; w++) {
+                onsetTicks[w] |= ticks[w];
+            }
+        }
+    }
+
+    /**
+     * Streams the onsets of the first cycles.
+     * @param cycles the number of cycles to play
+     * @return an OnsetIterator positioned before the first onset
+     */
+    public OnsetIterator onsets(long cycles) {
+        build();
+        return new OnsetIterator(layerTicks, onsetTicks, resolution, cycles);
+    }
+
+    /**
+     * A cursor over the onsets of a Polyrhythm, in order of tick, repeating the cycle.
+     * It works on a snapshot of the layers and does not allocate, so it is not affected by layers added afterwards.
+     *
+     *     for (OnsetIterator it = polyrhythm.onsets(4); it.next(); ) { ... it.getTick() ... it.getLayers() ... }
+     */
+    public static final class OnsetIterator {
+        private final long[][] layerTicks;
+        private final long[] onsetTicks;
+        private final int resolution;
+        private final long cycles;
+
+        private long cycle = 0;
+        private int tick = -1;
+        private long layerMask = 0;
+
+        OnsetIterator(long[][] layerTicks, long[] onsetTicks, int resolution, long cycles) {
+            this.layerTicks = layerTicks;
+            this.onsetTicks = onsetTicks;
+            this.resolution = resolution;
+            this.cycles = cycles;
+        }
+
+        /**
+         * Moves to the next onset. This function operates in Θ(resolution / 64 + layers) time at worst.
+         * @return whether there is one (false once every cycle has been played)
+         */
+        public boolean next() {
+            while (cycle < cycles) {
+                int t = nextTick(tick + 1);
+                if (t != -1) {
+                    tick = t;
+                    layerMask = 0;
+                    for (int l = 0; l < layerTicks.length; l++) {
+                        if ((layerTicks[l][t >>> 6] & (1L << t)) != 0) layerMask |= 1L << l;
+                    }
+                    return true;
+                }
+
+                if (tick == -1) break;  // There are no onsets at all
+                cycle++;
+                tick = -1;
+            }
+
+            cycle = cycles;
+            layerMask = 0;
+            return false;
+        }
+
+        private int nextTick(int from) {
+            if (from >= resolution) return -1;
+
+            int w = from >>> 6;
+            long word = onsetTicks[w] & (-1L << from);  // Shifts are taken modulo 64, so this clears the bits below from
+            while (true) {
+                if (word != 0) return (w << 6) + Long.numberOfTrailingZeros(word);
+                if (++w == onsetTicks.length) return -1;
+                word = onsetTicks[w];
+            }
+        }
+
+        /**
+         *
+         * @return the tick of the current onset, counted from the start of the first cycle
+         */
+        public long getTick() {
+            return cycle * resolution + tick;
+        }
+
+        /**
+         *
+         * @return the tick of the current onset within its cycle
+         */
+        public int getTickInCycle() {
+            return tick;
+        }
+
+        /**
+         *
+         * @return the bitset of the layers with a pulse on the current onset, where bit l is set for layer l
+         */
+        public long getLayers() {
+            return layerMask;
+        }
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+}
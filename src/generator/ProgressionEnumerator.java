@@ -0,0 +1,455 @@
+package generator;
+
+import musictheory.NashvilleNumber;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Enumerates every path of a given length through a progression graph, optionally from a given start vertex
+ * and to a given end vertex, on a fork/join pool (the common pool, unless one is passed in).
+ *
+ * Paths are streamed rather than collected, in the compact encoding of one byte per NashvilleNumber ordinal
+ * (there are 65 of them, so each fits in a byte): path[i] is the ordinal of the i-th NashvilleNumber.
+ * They can either be handed to a PathConsumer or spilled to an OutputStream as fixed-width records of
+ * length bytes each, to be read back later with read.
+ *
+ * Before enumerating, the number of ways to finish a path from every vertex is counted backwards from the end.
+ * The search only steps to vertices that can still finish a path, so no branch is a dead end, and a subtree
+ * is split into fork/join tasks only while it holds more than SEQUENTIAL_THRESHOLD paths. Neither the tasks
+ * nor the sequential search recurse once per step, so paths can be as long as memory allows.
+ * Paths are produced in no particular order.
+ */
+public final class ProgressionEnumerator {
+    private static final NashvilleNumber[] NASHVILLE_NUMBERS = NashvilleNumber.values();
+    private static final int NUM_VERTICES = CompactProgressionGraph.NUM_VERTICES;
+    private static final int WORDS = CompactProgressionGraph.WORDS;
+
+    // Subtrees with at most this many paths are enumerated by a single task
+    private static final long SEQUENTIAL_THRESHOLD = 1 << 14;
+
+    // Largest per-task buffer when spilling to an OutputStream; smaller subtrees get a buffer that just fits them
+    private static final int SPILL_BUFFER_SIZE = 1 << 16;
+
+    private ProgressionEnumerator() {}
+
+    /**
+     * Receives the enumerated paths. It is called from several threads at once, so it must be thread-safe.
+     */
+    public interface PathConsumer {
+        /**
+         *
+         * @param path the NashvilleNumber ordinal of each step; the array is reused once accept returns
+         */
+        void accept(byte[] path);
+    }
+
+    /*
+     * The reachability tables for one enumeration, shared (read-only) by all of its tasks.
+     * From vertex v, there are counts[k][v] ways to take k more steps and finish a path,
+     * and reachable[k] is the bitset of the vertices where counts[k][v] > 0.
+     */
+    private static final class Search {
+        final CompactProgressionGraph graph;
+        final int length;
+        final long[][] counts;
+        final long[][] reachable;
+        final PathConsumer consumer;    // Exactly one of consumer and out is set
+        final OutputStream out;
+
+        Search(CompactProgressionGraph graph, int length, NashvilleNumber end, PathConsumer consumer, OutputStream out) {
+            if (length < 1) throw new IllegalArgumentException("length must be at least 1: " + length);
+
+            this.graph = graph;
+            this.length = length;
+            this.consumer = consumer;
+            this.out = out;
+            this.counts = new long[length][NUM_VERTICES];
+            this.reachable = new long[length][WORDS];
+
+            for (int v = graph.nextVertex(0); v != -1; v = graph.nextVertex(v + 1)) {
+                if (end == null || v == end.ordinal()) {
+                    counts[0][v] = 1;
+                    reachable[0][v >>> 6] |= 1L << v;
+                }
+            }
+
+            for (int k = 1; k < length; k++) {
+                for (int v = graph.nextVertex(0); v != -1; v = graph.nextVertex(v + 1)) {
+                    long count = 0;
+                    for (int w = 0; w < WORDS; w++) {
+                        long bits = graph.getSuccessorWord(v, w) & reachable[k - 1][w];
+                        for (; bits != 0; bits &= bits - 1) {
+                            count = saturatedAdd(count, counts[k - 1][(w << 6) + Long.numberOfTrailingZeros(bits)]);
+                        }
+                    }
+                    if (count > 0) {
+                        counts[k][v] = count;
+                        reachable[k][v >>> 6] |= 1L << v;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Runs the first step of the search.
+         * @param start the first vertex of every path, or null for any
+         * @param pool the pool to run the tasks on
+         */
+        void run(NashvilleNumber start, ForkJoinPool pool) {
+            int steps = length - 1;
+            List<Task> tasks = new ArrayList<>();
+            for (int v = 0; v < NUM_VERTICES; v++) {
+                if (counts[steps][v] == 0 || (start != null && v != start.ordinal())) continue;
+
+                byte[] prefix = new byte[length];
+                prefix[0] = (byte) v;
+                tasks.add(new Task(this, prefix, 1));
+            }
+
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        }
+
+        /**
+         * Enumerates every path that starts with path[0, depth) on the calling thread, without allocating
+         * (other than a stack of successor words and the spill buffer).
+         * @param path the prefix of the paths, with room for the whole path
+         * @param depth the length of the prefix
+         */
+        void enumerateSequentially(byte[] path, int depth) {
+            if (consumer != null) {
+                extend(path, depth, consumer);
+            }
+            else {
+                SpillBuffer buffer = new SpillBuffer(out, length, counts[length - depth][path[depth - 1]]);
+                extend(path, depth, buffer);
+                buffer.flush();
+            }
+        }
+
+        /*
+         * A depth-first search with an explicit stack: pending[(d - depth) * WORDS + w] holds the successors of
+         * path[d - 1] that are still to be tried at step d, so the stack grows with the path rather than the call stack.
+         */
+        private void extend(byte[] path, int depth, PathConsumer sink) {
+            if (depth == length) {
+                sink.accept(path);
+                return;
+            }
+
+            long[] pending = new long[(length - depth) * WORDS];
+            loadSuccessors(path, depth, pending, 0);
+
+            int d = depth;
+            while (d >= depth) {
+                int offset = (d - depth) * WORDS;
+                int w = 0;
+                while (w < WORDS && pending[offset + w] == 0) w++;
+                if (w == WORDS) {
+                    d--;    // Every successor at this step has been tried
+                    continue;
+                }
+
+                long bits = pending[offset + w];
+                pending[offset + w] = bits & (bits - 1);
+                path[d] = (byte) ((w << 6) + Long.numberOfTrailingZeros(bits));
+
+                if (d == length - 1) {
+                    sink.accept(path);
+                }
+                else {
+                    d++;
+                    loadSuccessors(path, d, pending, offset + WORDS);
+                }
+            }
+        }
+
+        /**
+         * Stores the successors of path[d - 1] that can still finish a path in the remaining steps.
+         */
+        private void loadSuccessors(byte[] path, int d, long[] pending, int offset) {
+            int last = path[d - 1];
+            long[] next = reachable[length - 1 - d];
+            for (int w = 0; w < WORDS; w++) {
+                pending[offset + w] = graph.getSuccessorWord(last, w) & next[w];
+            }
+        }
+    }
+
+    /*
+     * Enumerates the paths starting with a prefix, splitting the work by the next step while there is a lot of it.
+     * The task keeps the successor with the most paths for itself and walks down to it in a loop, so a long chain
+     * of splits does not recurse; every forked successor holds at most half of the task's paths (short of
+     * saturation), so joins nest at most 64 deep. Successors with few paths are enumerated in place instead of being forked.
+     */
+    private static final class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final byte[] prefix;
+        private final int depth;
+
+        Task(Search search, byte[] prefix, int depth) {
+            this.search = search;
+            this.prefix = prefix;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            List<Task> forked = new ArrayList<>();
+            byte[] path = prefix;
+            int d = depth;
+
+            while (true) {
+                int last = path[d - 1];
+                int remaining = search.length - d;
+                if (remaining == 0 || search.counts[remaining][last] <= SEQUENTIAL_THRESHOLD) {
+                    search.enumerateSequentially(path, d);
+                    break;
+                }
+
+                long[] next = search.reachable[remaining - 1];
+                long[] counts = search.counts[remaining - 1];
+                int largest = -1;
+                for (int w = 0; w < WORDS; w++) {
+                    long bits = search.graph.getSuccessorWord(last, w) & next[w];
+                    for (; bits != 0; bits &= bits - 1) {
+                        int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        if (largest == -1 || counts[v] > counts[largest]) largest = v;
+                    }
+                }
+
+                for (int w = 0; w < WORDS; w++) {
+                    long bits = search.graph.getSuccessorWord(last, w) & next[w];
+                    for (; bits != 0; bits &= bits - 1) {
+                        int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        if (v == largest) continue;
+
+                        if (counts[v] <= SEQUENTIAL_THRESHOLD) {
+                            path[d] = (byte) v;
+                            search.enumerateSequentially(path, d + 1);
+                        }
+                        else {
+                            byte[] child = path.clone();
+                            child[d] = (byte) v;
+                            Task task = new Task(search, child, d + 1);
+                            task.fork();
+                            forked.add(task);
+                        }
+                    }
+                }
+
+                path[d] = (byte) largest;
+                d++;
+            }
+
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                forked.get(i).join();
+            }
+        }
+    }
+
+    /*
+     * Collects whole records and writes them out in large blocks; one per sequential task,
+     * with room for at most all of the task's paths.
+     */
+    private static final class SpillBuffer implements PathConsumer {
+        private final OutputStream out;
+        private final byte[] buffer;
+        private int size = 0;
+
+        SpillBuffer(OutputStream out, int length, long paths) {
+            long records = Math.max(1, Math.min(paths, SPILL_BUFFER_SIZE / length));
+            this.out = out;
+            this.buffer = new byte[(int) records * length];
+        }
+
+        @Override
+        public void accept(byte[] path) {
+            if (size == buffer.length) flush();
+            System.arraycopy(path, 0, buffer, size, path.length);
+            size += path.length;
+        }
+
+        void flush() {
+            if (size == 0) return;
+            try {
+                synchronized (out) {
+                    out.write(buffer, 0, size);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            size = 0;
+        }
+    }
+
+    /**
+     * Counts the paths without enumerating them. This function operates in Θ(length * E) time.
+     * @param graph the graph to walk through
+     * @param length the number of NashvilleNumbers in each path
+     * @param start the first NashvilleNumber of every path, or null for any
+     * @param end the last NashvilleNumber of every path, or null for any
+     * @return the number of paths, or Long.MAX_VALUE if there are at least that many
+     */
+    public static long countPaths(CompactProgressionGraph graph, int length, NashvilleNumber start, NashvilleNumber end) {
+        Search search = new Search(graph, length, end, null, null);
+        long[] counts = search.counts[length - 1];
+        if (start != null) return counts[start.ordinal()];
+
+        long total = 0;
+        for (long count : counts) {
+            total = saturatedAdd(total, count);
+        }
+        return total;
+    }
+
+    /**
+     * Hands every path to a consumer, on the common pool.
+     * @param graph the graph to walk through
+     * @param length the number of NashvilleNumbers in each path
+     * @param start the first NashvilleNumber of every path, or null for any
+     * @param end the last NashvilleNumber of every path, or null for any
+     * @param consumer the thread-safe receiver of the paths
+     */
+    public static void enumerate(CompactProgressionGraph graph, int length, NashvilleNumber start, NashvilleNumber end,
+                                 PathConsumer consumer) {
+        enumerate(graph, length, start, end, consumer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Hands every path to a consumer.
+     * @param graph the graph to walk through
+     * @param length the number of NashvilleNumbers in each path
+     * @param start the first NashvilleNumber of every path, or null for any
+     * @param end the last NashvilleNumber of every path, or null for any
+     * @param consumer the thread-safe receiver of the paths
+     * @param pool the pool to enumerate on
+     */
+    public static void enumerate(CompactProgressionGraph graph, int length, NashvilleNumber start, NashvilleNumber end,
+                                 PathConsumer consumer, ForkJoinPool pool) {
+        new Search(graph, length, end, consumer, null).run(start, pool);
+    }
+
+    /**
+     *
+     * @param graph the graph to walk through
+     * @param length the number of NashvilleNumbers in each path
+     * @param start the first NashvilleNumber of every path, or null for any
+     * @param end the last NashvilleNumber of every path, or null for any
+     * @param consumer the thread-safe receiver of the paths
+     */
+    public static void enumerate(ChordProgression graph, int length, NashvilleNumber start, NashvilleNumber end,
+                                 PathConsumer consumer) {
+        enumerate(CompactProgressionGraph.of(graph), length, start, end, consumer);
+    }
+
+    /**
+     * Spills every path to a stream, on the common pool (see the overload that takes a ForkJoinPool).
+     * @param graph the graph to walk through
+     * @param length the number of NashvilleNumbers in each path
+     * @param start the first NashvilleNumber of every path, or null for any
+     * @param end the last NashvilleNumber of every path, or null for any
+     * @param out the stream to write the records to (e.g., a BufferedOutputStream over a file)
+     * @throws IOException if writing to out fails
+     */
+    public static void enumerate(CompactProgressionGraph graph, int length, NashvilleNumber start, NashvilleNumber end,
+                                 OutputStream out) throws IOException {
+        enumerate(graph, length, start, end, out, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Spills every path to a stream, as records of length bytes each. Each task writes whole blocks of records
+     * while holding the stream's lock, so records are never interleaved. The stream is not closed.
+     * @param graph the graph to walk through
+     * @param length the number of NashvilleNumbers in each path
+     * @param start the first NashvilleNumber of every path, or null for any
+     * @param end the last NashvilleNumber of every path, or null for any
+     * @param out the stream to write the records to (e.g., a BufferedOutputStream over a file)
+     * @param pool the pool to enumerate on
+     * @throws IOException if writing to out fails
+     */
+    public static void enumerate(CompactProgressionGraph graph, int length, NashvilleNumber start, NashvilleNumber end,
+                                 OutputStream out, ForkJoinPool pool) throws IOException {
+        try {
+            new Search(graph, length, end, null, out).run(start, pool);
+        } catch (UncheckedIOException e) {
+            // The fork/join pool may hand back a copy of the exception, with the original as its cause
+            for (Throwable t = e; t != null; t = t.getCause()) {
+                if (t instanceof IOException) throw (IOException) t;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     *
+     * @param graph the graph to walk through
+     * @param length the number of NashvilleNumbers in each path
+     * @param start the first NashvilleNumber of every path, or null for any
+     * @param end the last NashvilleNumber of every path, or null for any
+     * @param out the stream to write the records to (e.g., a BufferedOutputStream over a file)
+     * @throws IOException if writing to out fails
+     */
+    public static void enumerate(ChordProgression graph, int length, NashvilleNumber start, NashvilleNumber end,
+                                 OutputStream out) throws IOException {
+        enumerate(CompactProgressionGraph.of(graph), length, start, end, out);
+    }
+
+    /**
+     * Reads back the records written by enumerate, on the calling thread.
+     * @param in the stream to read the records from
+     * @param length the number of NashvilleNumbers in each path
+     * @param consumer the receiver of the paths
+     * @return the number of paths read
+     * @throws IOException if reading from in fails, or the stream ends in the middle of a record
+     */
+    public static long read(InputStream in, int length, PathConsumer consumer) throws IOException {
+        byte[] path = new byte[length];
+        long count = 0;
+        while (true) {
+            int read = 0;
+            while (read < length) {
+                int n = in.read(path, read, length - read);
+                if (n == -1) break;
+                read += n;
+            }
+            if (read == 0) return count;
+            if (read < length) throw new EOFException("truncated record after " + count + " paths");
+
+            consumer.accept(path);
+            count++;
+        }
+    }
+
+    /**
+     *
+     * @param path the NashvilleNumber ordinal of each step
+     * @return the NashvilleNumbers of the path
+     */
+    public static NashvilleNumber[] decode(byte[] path) {
+        NashvilleNumber[] progression = new NashvilleNumber[path.length];
+        for (int i = 0; i < path.length; i++) {
+            progression[i] = NASHVILLE_NUMBERS[path[i]];
+        }
+        return progression;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return (sum < 0) ? Long.MAX_VALUE : sum;
+    }
+}
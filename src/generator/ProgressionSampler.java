@@ -0,0 +1,173 @@
+package generator;
+
+import musictheory.NashvilleNumber;
+
+import java.util.Random;
+
+/**
+ * Generates random walks through a ChordProgression, following each edge in proportion to its weight.
+ *
+ * The outgoing edges of every vertex are flattened into an alias table (Vose's method) when the sampler is built,
+ * so choosing the next NashvilleNumber takes Θ(1) time: one random number, no iteration over outgoingEdgesOf
+ * and no allocation. Changes made to the graph afterwards are not seen by the sampler.
+ *
+ * Walks are reproducible: two samplers built from the same graph with the same seed produce the same walks.
+ * A sampler is not thread-safe; give each thread its own (e.g., seeded with seed + thread number).
+ *
+ * References: http://www.keithschwarz.com/darts-dice-coins/
+ */
+public final class ProgressionSampler {
+    private static final NashvilleNumber[] NASHVILLE_NUMBERS = NashvilleNumber.values();
+
+    // Indexed by source ordinal; a vertex without outgoing edges has empty rows
+    private final int[][] successors;         // Target ordinal of each column
+    private final double[][] probabilities;   // Chance of keeping a column instead of taking its alias
+    private final int[][] aliases;            // Column to take otherwise
+
+    private final Random random;
+
+    /**
+     *
+     * @param graph the ChordProgression to walk through
+     * @param seed the seed for the random walks
+     */
+    public ProgressionSampler(ChordProgression graph, long seed) {
+        this(CompactProgressionGraph.of(graph), seed);
+    }
+
+    /**
+     *
+     * @param graph the CompactProgressionGraph to walk through
+     * @param seed the seed for the random walks
+     */
+    public ProgressionSampler(CompactProgressionGraph graph, long seed) {
+        int n = NASHVILLE_NUMBERS.length;
+        this.successors = new int[n][];
+        this.probabilities = new double[n][];
+        this.aliases = new int[n][];
+        this.random = new Random(seed);
+
+        for (int source = 0; source < n; source++) {
+            int[] targets = new int[graph.outDegreeOf(source)];
+            double[] weights = new double[targets.length];
+
+            int i = 0;
+            for (int t = graph.nextSuccessor(source, 0); t != -1; t = graph.nextSuccessor(source, t + 1)) {
+                targets[i] = t;
+                weights[i] = graph.getEdgeWeight(source, t);
+                i++;
+            }
+
+            setAliasTable(source, targets, weights);
+        }
+    }
+
+    /**
+     * Vose's alias method: every column holds at most two outcomes, the column's own and its alias,
+     * so that picking a column uniformly and then one of its two outcomes follows the weights exactly.
+     * @param source the ordinal of the source NashvilleNumber
+     * @param targets the target ordinal of each outgoing edge
+     * @param weights the weight of each outgoing edge
+     */
+    private void setAliasTable(int source, int[] targets, double[] weights) {
+        int n = targets.length;
+        double[] probability = new double[n];
+        int[] alias = new int[n];
+
+        double total = 0;
+        for (double w : weights) total += w;
+
+        // Scale the weights so that they average 1, then split the columns into underfull and overfull ones
+        double[] scaled = new double[n];
+        int[] small = new int[n], large = new int[n];
+        int numSmall = 0, numLarge = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1) small[numSmall++] = i;
+            else large[numLarge++] = i;
+        }
+
+        // Top up each underfull column with the excess of an overfull one
+        while (numSmall > 0 && numLarge > 0) {
+            int s = small[--numSmall], l = large[--numLarge];
+            probability[s] = scaled[s];
+            alias[s] = l;
+
+            scaled[l] = (scaled[l] + scaled[s]) - 1;
+            if (scaled[l] < 1) small[numSmall++] = l;
+            else large[numLarge++] = l;
+        }
+
+        // Whatever is left is full, up to rounding error
+        while (numLarge > 0) probability[large[--numLarge]] = 1;
+        while (numSmall > 0) probability[small[--numSmall]] = 1;
+
+        this.successors[source] = targets;
+        this.probabilities[source] = probability;
+        this.aliases[source] = alias;
+    }
+
+    /**
+     * Restarts the sequence of random walks, as if the sampler had just been built with seed.
+     * @param seed the seed for the random walks
+     */
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    /**
+     * This function operates in Θ(1) time and does not allocate.
+     * @param ordinal the ordinal of the current NashvilleNumber
+     * @return the ordinal of a random successor, or -1 if the current NashvilleNumber has no outgoing edges
+     */
+    public int next(int ordinal) {
+        int[] targets = successors[ordinal];
+        if (targets.length == 0) return -1;
+
+        // One random number picks both the column and the side of the column
+        double u = random.nextDouble() * targets.length;
+        int column = (int) u;
+        return (u - column < probabilities[ordinal][column]) ? targets[column] : targets[aliases[ordinal][column]];
+    }
+
+    /**
+     * This function operates in Θ(1) time.
+     * @param current the current NashvilleNumber
+     * @return a random successor of current, or null if current has no outgoing edges
+     */
+    public NashvilleNumber next(NashvilleNumber current) {
+        int next = next(current.ordinal());
+        return (next == -1) ? null : NASHVILLE_NUMBERS[next];
+    }
+
+    /**
+     * Fills an array with a random walk, without allocating.
+     * @param start the first NashvilleNumber of the walk
+     * @param progression the array to fill; progression[0] receives start
+     * @throws IllegalStateException if the walk reaches a NashvilleNumber without outgoing edges
+     */
+    public void walk(NashvilleNumber start, NashvilleNumber[] progression) {
+        if (progression.length == 0) return;
+
+        int current = start.ordinal();
+        progression[0] = start;
+        for (int i = 1; i < progression.length; i++) {
+            current = next(current);
+            if (current == -1) throw new IllegalStateException(progression[i - 1] + " has no outgoing edges");
+            progression[i] = NASHVILLE_NUMBERS[current];
+        }
+    }
+
+    /**
+     *
+     * @param start the first NashvilleNumber of the walk
+     * @param length the number of NashvilleNumbers in the walk, start included
+     * @return a random walk through the graph
+     * @throws IllegalStateException if the walk reaches a NashvilleNumber without outgoing edges
+     */
+    public NashvilleNumber[] walk(NashvilleNumber start, int length) {
+        NashvilleNumber[] progression = new NashvilleNumber[length];
+        walk(start, progression);
+        return progression;
+    }
+}
@@ -4,16 +4,40 @@ package musictheory;
  * Created by Joseph on 3/8/16.
  */
 enum Accidental {
-    DOUBLE_FLAT("\u266d\u266d"),
-    FLAT("\u266d"),
-    NATURAL("\u266e"),
-    NONE(""),
-    SHARP("\u266f"),
-    DOUBLE_SHARP("x");
+    DOUBLE_FLAT("\u266d\u266d", "bb", -2),
+    FLAT("\u266d", "b", -1),
+    NATURAL("\u266e", "", 0),
+    NONE("", "", 0),
+    SHARP("\u266f", "#", 1),
+    DOUBLE_SHARP("x", "x", 2);
 
     final String indicator;
+    final String asciiIndicator;    // Natural signs are dropped, since they do not change the pitch
+    final int semitones;            // How far the accidental moves a natural letter
 
-    Accidental(String indicator) {
+    Accidental(String indicator, String asciiIndicator, int semitones) {
         this.indicator = indicator;
+        this.asciiIndicator = asciiIndicator;
+        this.semitones = semitones;
     }
-}
\ No newline at end of file
+
+    /**
+     * Rewrites a name or symbol that uses the (Unicode) accidental indicators with their ASCII equivalents.
+     * @param text a name or symbol, e.g. "7♭5♯9" or "ø"
+     * @return the ASCII rendering of text, e.g. "7b5#9" or "m7b5"
+     */
+    static String toAscii(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 4);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\u266d': sb.append(FLAT.asciiIndicator); break;
+                case '\u266f': sb.append(SHARP.asciiIndicator); break;
+                case '\u266e': sb.append(NATURAL.asciiIndicator); break;
+                case 'ø': sb.append("m7").append(FLAT.asciiIndicator).append('5'); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,9 @@
+package musictheory;
+
+/**
+ * The glyphs used for accidentals when rendering the name of a Note, Chord or Scale.
+ */
+public enum AccidentalStyle {
+    UNICODE,    // ♭♭, ♭, ♮, ♯, x (the default)
+    ASCII       // bb, b, #, x (natural signs are dropped)
+}
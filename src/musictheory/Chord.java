@@ -9,26 +9,103 @@ public class Chord extends IntervalSet {
 
     private int inversion = 0;          // With n notes, there are n-1 possible inversions
     private Octave[] defaultOctaves;    // Default octave for each Note
+    private Octave[] invertedOctaves;   // Octave for each Note once it has been inverted (default octave + 1)
+    private int[] defaultPitches;       // Pitch for each Note at its default octave
+    private int[] invertedPitches;      // Pitch for each Note at its inverted octave
+
+    // Keys pack (root, ChordType, Octave); the cache holds every key, so each Chord.of result is interned
+    private static final int NUM_TYPES = ChordType.values().length, NUM_OCTAVES = Octave.values().length;
+    private static final IntervalSetCache<Chord> CACHE = new IntervalSetCache<>(NoteType.values().length * NUM_TYPES * NUM_OCTAVES);
 
     public Chord(NoteType root, ChordType chordType) throws Exception {
-        super(root, chordType.nashvilleNumbers, Octave.OCTAVE_MIN, root.name + chordType.chordSymbol);
+        super(root, chordType.nashvilleNumbers, Octave.OCTAVE_MIN);
         this.chordType = chordType;
         setNoteOctaves(octave);
     }
 
     public Chord(NoteType root, ChordType chordType, Octave octave) throws Exception {
-        super(root, chordType.nashvilleNumbers, octave, root.name + chordType.chordSymbol);
+        super(root, chordType.nashvilleNumbers, octave);
         this.chordType = chordType;
         setNoteOctaves(octave);
     }
 
-    protected Chord(Chord other) throws Exception {
-        super(other.rootNoteType, other.chordType.nashvilleNumbers, other.octave,
-                other.rootNoteType.name + other.chordType.chordSymbol);
+    public Chord(Chord other) throws Exception {
+        super(other.namedRootNoteType, other.chordType.nashvilleNumbers, other.octave);
         this.chordType = other.chordType;
         setNoteOctaves(octave);
     }
 
+    /**
+     * Transposes a Chord to a new root, keeping its ChordType, Octave and inversion.
+     * Only the spelling is read again; every Note keeps its place above the root, so its octave is other's
+     * shifted by however many times the interval to the new root carries its relative pitch past B.
+     * @param other the Chord to transpose
+     * @param root the root NoteType of the transposed Chord
+     */
+    Chord(Chord other, NoteType root) throws Exception {
+        super(other, root, other.chordType.nashvilleNumbers);
+        this.chordType = other.chordType;
+
+        int numNotes = super.notes.length;
+        if (other.defaultOctaves[numNotes - 1] == Octave.OCTAVE_MAX) {
+            // other may have been capped at the top of the range, so its octaves cannot be shifted
+            for (int i = 0; i < numNotes; i++) {
+                super.notes[i] = new Note(super.noteTypes[i], octave);
+            }
+            setNoteOctaves(octave);
+        }
+        else {
+            int semitones = super.rootNoteType.relativePitch - other.rootNoteType.relativePitch;
+            defaultOctaves = new Octave[numNotes];
+            for (int i = 0; i < numNotes; i++) {
+                int shift = Math.floorDiv(other.noteTypes[i].relativePitch + semitones, 12);
+                defaultOctaves[i] = shift < 0 ? other.defaultOctaves[i].lowerBy(-shift) : other.defaultOctaves[i].raiseBy(shift);
+                super.notes[i] = new Note(super.noteTypes[i], defaultOctaves[i]);
+            }
+            setInversionOffsets();
+        }
+
+        if (other.inversion != 0) setToInversion(other.inversion);
+    }
+
+    /**
+     * Returns a shared, immutable, uninverted Chord from the interning cache, constructing it on the first request.
+     * Use the copy constructor to get a mutable Chord (e.g., for inversions).
+     * @param root the root NoteType of the Chord
+     * @param chordType the ChordType of the Chord
+     * @param octave the Octave of the Chord
+     * @return the immutable Chord for root, chordType and octave
+     */
+    public static Chord of(NoteType root, ChordType chordType, Octave octave) throws Exception {
+        int key = (root.ordinal() * NUM_TYPES + chordType.ordinal()) * NUM_OCTAVES + octave.ordinal();
+
+        Chord chord = CACHE.get(key);
+        if (chord == null) {
+            chord = new Chord(root, chordType, octave);
+            chord.makeImmutable();
+            chord = CACHE.putIfAbsent(key, chord);
+        }
+        return chord;
+    }
+
+    /**
+     *
+     * @param root the root NoteType of the Chord
+     * @param chordType the ChordType of the Chord
+     * @return the immutable Chord for root and chordType, at the lowest Octave
+     */
+    public static Chord of(NoteType root, ChordType chordType) throws Exception {
+        return of(root, chordType, Octave.OCTAVE_MIN);
+    }
+
+    /**
+     *
+     * @return the interning cache behind Chord.of, including its hit / miss statistics
+     */
+    public static IntervalSetCache<Chord> getCache() {
+        return CACHE;
+    }
+
     /**
      * Raises or lowers all Notes in the Chord to a specified octave, if it is within the octave range of the Chord.
      * If the desired octave is above the octave range of the Chord, then the Chord will be raised to its highest octave.
@@ -36,6 +113,8 @@ public class Chord extends IntervalSet {
      * @param octave the octave number to set the Chord at
      */
     protected void setNoteOctaves(Octave octave) {
+        checkMutable();
+
         int numNotes = super.notes.length;
         defaultOctaves = new Octave[numNotes];
 
@@ -85,6 +164,26 @@ public class Chord extends IntervalSet {
                 defaultOctaves[i] = octave;
             }
         }
+
+        setInversionOffsets();
+    }
+
+    /**
+     * Precomputes the octave and pitch of every Note in both of its possible positions,
+     * so that any inversion can be applied (or read) with constant work per Note.
+     * This is called whenever the default octaves change.
+     */
+    private void setInversionOffsets() {
+        int numNotes = super.notes.length;
+        invertedOctaves = new Octave[numNotes];
+        defaultPitches = new int[numNotes];
+        invertedPitches = new int[numNotes];
+
+        for (int i = 0; i < numNotes; i++) {
+            invertedOctaves[i] = defaultOctaves[i].raiseBy(1);
+            defaultPitches[i] = super.notes[i].getPitch();
+            invertedPitches[i] = new Note(super.noteTypes[i], invertedOctaves[i]).getPitch();
+        }
     }
 
     protected NoteType getNoteTypeWithHighestPotential() {
@@ -111,57 +210,30 @@ public class Chord extends IntervalSet {
         return super.noteTypes[super.noteTypes.length-2];
     }
 
-    private void invertNoteOctaves() {
-        for (int i = 0; i < inversion; i++) {
-            super.notes[i].setOctave(defaultOctaves[i].raiseBy(1));
-        }
-    }
-
     /**
      * Performs an inversion on the Chord by raising the octave of the lowest Note.
      * Chords with n Notes have n - 1 possible inversions. An inversion after the n - 1st
      * will return the Chord to its original structure and Note octaves.
      */
     public void invert() {
-        this.inversion = (++inversion) % super.noteTypes.length;
-        super.name = super.rootNoteType.name + chordType.chordSymbol;
-
-        if (inversion != 0) {
-            // The chord still has the same name,
-            // but has the bass note tacked to the end of it.
-            super.name += "/" + super.noteTypes[inversion].name;
-
-            // Raise the octave of notes[inversion-1]
-            invertNoteOctaves();
-        }
-        else {
-            // Return the octaves to their original positions
-            for (int i = 0; i < super.notes.length; i++) {
-                super.notes[i].setOctave(defaultOctaves[i]);
-            }
-        }
+        setToInversion(inversion + 1);
     }
 
     /**
      * Sets the Chord to the specified inversion number, if the number is a valid inversion number.
      * If not, this method will set the Chord to the modulus of the specified inversion number.
+     * This function operates in Θ(n) time, regardless of the inversion number.
      * @param inversionNumber the inversion number to set this Chord to
      */
     public void setToInversion(int inversionNumber) {
-        if (inversion != 0) resetInversion();
+        checkMutable();
 
-        if (inversionNumber >= 0) {
-            inversionNumber %= super.notes.length;
-        }
-        else {
-            // Get the modulus for negative inversionNumber
-            while (inversionNumber <= 0) {
-                inversionNumber += super.notes.length;
-            }
-        }
+        // Works for negative inversionNumbers, too
+        this.inversion = Math.floorMod(inversionNumber, super.notes.length);
 
-        for (int i = 0; i < inversionNumber; i++) {
-            invert();
+        // In inversion k, the k lowest Notes of the Chord are raised by one octave
+        for (int i = 0; i < super.notes.length; i++) {
+            super.notes[i].setOctave(i < inversion ? invertedOctaves[i] : defaultOctaves[i]);
         }
     }
 
@@ -169,13 +241,32 @@ public class Chord extends IntervalSet {
      * Resets the Chord to an uninverted state, with its original octave.
      */
     protected void resetInversion() {
-        this.inversion = 0;
-        super.name = super.rootNoteType.name + chordType.chordSymbol;
+        setToInversion(0);
+    }
+
+    /**
+     * Reads the pitches that the Chord's Notes would have in the specified inversion,
+     * without changing the Chord or allocating.
+     * @param inversionNumber the inversion number (taken modulo the number of Notes)
+     * @param pitches the array to fill; pitches[i] receives the pitch of the Chord's Note i
+     */
+    public void getPitchesForInversion(int inversionNumber, int[] pitches) {
+        int inversionToRead = Math.floorMod(inversionNumber, super.notes.length);
         for (int i = 0; i < super.notes.length; i++) {
-            super.notes[i].setOctave(defaultOctaves[i]);
+            pitches[i] = i < inversionToRead ? invertedPitches[i] : defaultPitches[i];
         }
     }
 
+    /**
+     * Inverted Chords are named as slash chords, with the bass Note tacked to the end of the name.
+     * @param style the glyphs to use for accidentals
+     * @return the name of this Chord (e.g., "Cmaj/E")
+     */
+    @Override
+    public String getName(AccidentalStyle style) {
+        return NameTable.getChordName(super.namedRootNoteType, chordType, inversion, super.noteTypes[inversion], style);
+    }
+
     /**
      *
      * @return the ChordType for this Chord
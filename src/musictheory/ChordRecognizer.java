@@ -0,0 +1,154 @@
+package musictheory;
+
+import java.util.Arrays;
+
+/**
+ * Recognizes the Chord formed by a cluster of MIDI pitches: its root NoteType, ChordType and inversion.
+ *
+ * Every rotation of every ChordType is precomputed into a table indexed by (pitch-class mask, bass pitch class),
+ * so recognizing a cluster is one pass over its pitches plus a single table read, with no allocation.
+ * Octave doublings and voicing do not matter; the pitch classes must match a ChordType exactly.
+ *
+ * Results are packed into an int (the ChordType ordinal, the root NoteType ordinal and the inversion number,
+ * one byte each), in the same spirit as PackedPitch. Use the getters below to read them.
+ */
+public final class ChordRecognizer {
+    public static final int NOT_FOUND = -1;
+
+    private static final int BYTE_BITS = 8, BYTE_MASK = (1 << BYTE_BITS) - 1;
+    private static final NoteType[] NOTE_TYPES = NoteType.values();
+    private static final ChordType[] CHORD_TYPES = ChordType.values();
+
+    // [pitch-class mask * 12 + bass pitch class] -> packed result, or NOT_FOUND
+    private static final int[] INDEX = buildIndex();
+
+    private ChordRecognizer() {}
+
+    private static int[] buildIndex() {
+        int[] index = new int[(PitchClassSet.CHROMATIC + 1) * 12];
+        Arrays.fill(index, NOT_FOUND);
+
+        /*
+         * When several (root, ChordType) pairs share the same pitch classes and bass (e.g., C6 and Am7/C),
+         * a root position reading wins over an inverted one, and otherwise the ChordType declared first wins.
+         * Each root is spelled to give the Chord the fewest accidentals (e.g., D♭maj over C♯maj).
+         */
+        for (ChordType ct : CHORD_TYPES) {
+            for (int rootPitch = 0; rootPitch < 12; rootPitch++) {
+                NoteType root = SpellingTable.getPreferredRoot(ct.nashvilleNumbers, rootPitch);
+                if (root == null) continue;
+
+                int mask = PitchClassSet.rotate(ct.pitchClassMask, rootPitch);
+
+                for (int inversion = ct.nashvilleNumbers.length - 1; inversion >= 0; inversion--) {
+                    int bass = (rootPitch + ct.nashvilleNumbers[inversion].relativePitchDistance) % 12;
+                    int key = mask * 12 + bass;
+
+                    if (index[key] == NOT_FOUND || (getInversionNumber(index[key]) != 0 && inversion == 0)) {
+                        index[key] = pack(root, ct, inversion);
+                    }
+                }
+            }
+        }
+
+        return index;
+    }
+
+    private static int pack(NoteType root, ChordType chordType, int inversion) {
+        return (inversion << (2 * BYTE_BITS)) | (root.ordinal() << BYTE_BITS) | chordType.ordinal();
+    }
+
+    /**
+     * This function operates in Θ(n) time and does not allocate.
+     * @param midiPitches the MIDI pitches (0 - 127) of the cluster, in any order
+     * @param length the number of pitches to read from midiPitches
+     * @return the packed recognized Chord, or NOT_FOUND if the pitch classes do not form a known ChordType
+     */
+    public static int recognize(int[] midiPitches, int length) {
+        if (length == 0) return NOT_FOUND;
+
+        int mask = PitchClassSet.EMPTY;
+        int lowest = Integer.MAX_VALUE;
+        for (int i = 0; i < length; i++) {
+            int pitch = midiPitches[i];
+            mask |= 1 << (pitch % 12);
+            if (pitch < lowest) lowest = pitch;
+        }
+
+        return recognize(mask, lowest % 12);
+    }
+
+    /**
+     *
+     * @param midiPitches the MIDI pitches (0 - 127) of the cluster, in any order
+     * @return the packed recognized Chord, or NOT_FOUND if the pitch classes do not form a known ChordType
+     */
+    public static int recognize(int[] midiPitches) {
+        return recognize(midiPitches, midiPitches.length);
+    }
+
+    /**
+     *
+     * @param pitches the cluster to recognize
+     * @return the packed recognized Chord, or NOT_FOUND if the pitch classes do not form a known ChordType
+     */
+    public static int recognize(PitchArray pitches) {
+        if (pitches.size() == 0) return NOT_FOUND;
+
+        int lowest = Integer.MAX_VALUE;
+        for (int i = 0; i < pitches.size(); i++) {
+            lowest = Math.min(lowest, pitches.getMidiPitch(i));
+        }
+
+        return recognize(pitches.getPitchClassMask(), lowest % 12);
+    }
+
+    /**
+     *
+     * @param pitchClassMask the pitch classes of the cluster (see PitchClassSet)
+     * @param bassPitchClass the relative pitch of the lowest Note in the cluster
+     * @return the packed recognized Chord, or NOT_FOUND if the pitch classes do not form a known ChordType
+     */
+    static int recognize(int pitchClassMask, int bassPitchClass) {
+        return INDEX[pitchClassMask * 12 + bassPitchClass];
+    }
+
+    /**
+     *
+     * @param recognized a packed result of recognize (other than NOT_FOUND)
+     * @return the root NoteType of the recognized Chord
+     */
+    public static NoteType getRootNoteType(int recognized) {
+        return NOTE_TYPES[(recognized >>> BYTE_BITS) & BYTE_MASK];
+    }
+
+    /**
+     *
+     * @param recognized a packed result of recognize (other than NOT_FOUND)
+     * @return the ChordType of the recognized Chord
+     */
+    public static ChordType getChordType(int recognized) {
+        return CHORD_TYPES[recognized & BYTE_MASK];
+    }
+
+    /**
+     *
+     * @param recognized a packed result of recognize (other than NOT_FOUND)
+     * @return the inversion number of the recognized Chord (0 when the root is in the bass)
+     */
+    public static int getInversionNumber(int recognized) {
+        return (recognized >>> (2 * BYTE_BITS)) & BYTE_MASK;
+    }
+
+    /**
+     *
+     * @param recognized a packed result of recognize (other than NOT_FOUND)
+     * @param octave the Octave to build the Chord at
+     * @return a new Chord with the recognized root, ChordType and inversion
+     */
+    public static Chord toChord(int recognized, Octave octave) throws Exception {
+        Chord chord = new Chord(getRootNoteType(recognized), getChordType(recognized), octave);
+        chord.setToInversion(getInversionNumber(recognized));
+        return chord;
+    }
+}
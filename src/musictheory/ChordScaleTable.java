@@ -0,0 +1,115 @@
+package musictheory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The inverse of Scale.getDiatonicChordTypes: for each (ChordType, root), every Scale in which that Chord is diatonic,
+ * i.e. "what can I play over this chord?"
+ *
+ * A Chord is diatonic to a Scale when the Scale contains all of its pitch classes, so the candidates come straight
+ * from ScaleIndex. They are ranked the way chord-scale theory ranks them:
+ *
+ * 1. fewest avoid notes (scale tones a half step above a chord tone, e.g. the F of C Ionian over Cmaj7),
+ * 2. fewest added tensions (scale tones that are not chord tones),
+ * 3. ScaleType order, then root.
+ *
+ * The ranking is computed once, when the class is loaded, and every query after that is an array read.
+ * The Scales themselves are materialized (through Scale.of) the first time each (ChordType, root) is asked for.
+ */
+public final class ChordScaleTable {
+    private static final ChordType[] CHORD_TYPES = ChordType.values();
+
+    // [chordType ordinal * 12 + root relative pitch] -> ranked ScaleIndex candidates
+    private static final char[][] RANKED_CANDIDATES = build();
+
+    // Same indexing; filled in on first request
+    private static final AtomicReferenceArray<List<Scale>> SCALES =
+            new AtomicReferenceArray<List<Scale>>(RANKED_CANDIDATES.length);
+
+    private ChordScaleTable() {}
+
+    private static char[][] build() {
+        char[][] table = new char[CHORD_TYPES.length * 12][];
+
+        for (ChordType ct : CHORD_TYPES) {
+            for (int rootPitch = 0; rootPitch < 12; rootPitch++) {
+                int chordMask = PitchClassSet.rotate(ct.pitchClassMask, rootPitch);
+                int count = ScaleIndex.getCandidateCount(chordMask);
+
+                // Sort by (rank, candidate), packed into one long so that a primitive sort can be used
+                long[] keys = new long[count];
+                for (int i = 0; i < count; i++) {
+                    int k = ScaleIndex.getCandidate(chordMask, i);
+                    keys[i] = ((long) getRank(chordMask, ScaleIndex.getPitchClassMask(k)) << 32) | k;
+                }
+                Arrays.sort(keys);
+
+                char[] ranked = new char[count];
+                for (int i = 0; i < count; i++) {
+                    ranked[i] = (char) keys[i];
+                }
+                table[ct.ordinal() * 12 + rootPitch] = ranked;
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     *
+     * @param chordMask the pitch classes of the Chord
+     * @param scaleMask the pitch classes of a Scale containing the Chord
+     * @return a rank that orders by avoid notes and then by added tensions (lower is better)
+     */
+    static int getRank(int chordMask, int scaleMask) {
+        int tensions = scaleMask & ~chordMask;
+        int avoidNotes = tensions & PitchClassSet.rotate(chordMask, 1);
+        return PitchClassSet.size(avoidNotes) * 16 + PitchClassSet.size(tensions);
+    }
+
+    /**
+     * This function operates in Θ(1) time once the Scales for root and chordType have been requested.
+     * @param root the root of the Chord (only its relative pitch matters)
+     * @param chordType the ChordType of the Chord
+     * @return an unmodifiable list of the Scales that the Chord is diatonic to, best first
+     */
+    public static List<Scale> getCompatibleScales(NoteType root, ChordType chordType) throws Exception {
+        int key = chordType.ordinal() * 12 + root.relativePitch;
+
+        List<Scale> scales = SCALES.get(key);
+        if (scales == null) {
+            char[] ranked = RANKED_CANDIDATES[key];
+            List<Scale> built = new ArrayList<Scale>(ranked.length);
+            for (char k : ranked) {
+                built.add(Scale.of(ScaleIndex.getRoot(k), ScaleIndex.getScaleType(k)));
+            }
+
+            SCALES.compareAndSet(key, null, Collections.unmodifiableList(built));
+            scales = SCALES.get(key);
+        }
+        return scales;
+    }
+
+    /**
+     *
+     * @param chord the Chord to find Scales for
+     * @return an unmodifiable list of the Scales that the Chord is diatonic to, best first
+     */
+    public static List<Scale> getCompatibleScales(Chord chord) throws Exception {
+        return getCompatibleScales(chord.getRootNoteType(), chord.getChordType());
+    }
+
+    /**
+     *
+     * @param root the root of the Chord (only its relative pitch matters)
+     * @param chordType the ChordType of the Chord
+     * @return the number of Scales that the Chord is diatonic to
+     */
+    static int getCompatibleScaleCount(NoteType root, ChordType chordType) {
+        return RANKED_CANDIDATES[chordType.ordinal() * 12 + root.relativePitch].length;
+    }
+}
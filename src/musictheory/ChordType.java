@@ -236,10 +236,23 @@ public enum ChordType {
     );
 
     final String chordSymbol;
+    final String asciiChordSymbol;
     final NashvilleNumber[] nashvilleNumbers;
+    final int pitchClassMask;   // Relative pitches of the ChordType with a root of C (see PitchClassSet)
 
     ChordType(String chordSymbol, NashvilleNumber[] nashvilleNumbers) {
         this.chordSymbol = chordSymbol;
+        this.asciiChordSymbol = Accidental.toAscii(chordSymbol);
         this.nashvilleNumbers = nashvilleNumbers;
+        this.pitchClassMask = PitchClassSet.of(nashvilleNumbers);
+    }
+
+    /**
+     *
+     * @param style the glyphs to use for accidentals
+     * @return the chord symbol of this ChordType in the given style (e.g., "7♭9" or "7b9")
+     */
+    String getChordSymbol(AccidentalStyle style) {
+        return style == AccidentalStyle.ASCII ? asciiChordSymbol : chordSymbol;
     }
 }
@@ -0,0 +1,73 @@
+package musictheory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A table of the ChordTypes that are diatonic to each (ScaleType, scale degree) pair.
+ *
+ * Whether a ChordType is diatonic to a scale degree depends only on the ScaleType's relative pitches,
+ * never on the root of the Scale, so the table is built once (on first use) and shared by every Scale.
+ * Degrees are zero-based indices into ScaleType.nashvilleNumbers.
+ */
+final class DiatonicChordTable {
+
+    private DiatonicChordTable() {}
+
+    /*
+     * The table lives in a holder class so that it is only built the first time
+     * somebody asks for diatonic chords; callers that only need the notes of a Scale never pay for it.
+     */
+    private static final class Holder {
+        static final List<ChordType>[][] TABLE = build();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<ChordType>[][] build() {
+        ScaleType[] scaleTypes = ScaleType.values();
+        ChordType[] chordTypes = ChordType.values();
+        List<ChordType>[][] table = new List[scaleTypes.length][];
+
+        for (ScaleType st : scaleTypes) {
+            int scaleLength = st.nashvilleNumbers.length;
+            table[st.ordinal()] = new List[scaleLength];
+
+            for (int i = 0; i < scaleLength; i++) {
+                List<ChordType> diatonics = new ArrayList<>();
+                for (ChordType ct : chordTypes) {
+                    if (isDiatonic(st, i, ct)) diatonics.add(ct);
+                }
+
+                table[st.ordinal()][i] = Collections.unmodifiableList(diatonics);
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     *
+     * @param scaleType the ScaleType in question
+     * @param degree the zero-based index of the scale degree within scaleType.nashvilleNumbers
+     * @return an unmodifiable list of the ChordTypes that are diatonic to the scale degree, in ChordType order
+     */
+    static List<ChordType> getChordTypes(ScaleType scaleType, int degree) {
+        return Holder.TABLE[scaleType.ordinal()][degree];
+    }
+
+    /**
+     *
+     * @param scaleType the ScaleType in question
+     * @param degree the zero-based index of the scale degree within scaleType.nashvilleNumbers
+     * @param chordType the ChordType to check
+     * @return whether chordType, built on the scale degree, only contains pitches from scaleType
+     */
+    static boolean isDiatonic(ScaleType scaleType, int degree, ChordType chordType) {
+        // If all pitches of the ChordType built on the scale degree are also in the scale,
+        // then the chord is diatonic for that scale degree.
+        int candidateChordMask = PitchClassSet.rotate(chordType.pitchClassMask,
+                scaleType.nashvilleNumbers[degree].relativePitchDistance);
+        return PitchClassSet.isSubsetOf(candidateChordMask, scaleType.pitchClassMask);
+    }
+}
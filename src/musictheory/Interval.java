@@ -59,6 +59,22 @@ public enum Interval {
     final int intervalNumber;
     final RomanNumeral romanNumeral;
 
+    /*
+     * Every Interval, indexed by [intervalNumber - 1][relativePitchDistance + SEMITONE_OFFSET].
+     * Combinations without an Interval (e.g., a doubly augmented fourth) are null.
+     */
+    private static final int SEMITONE_OFFSET = 2;
+    private static final Interval[][] BY_NUMBER_AND_DISTANCE = new Interval[8][12 + 1 + 2 * SEMITONE_OFFSET];
+
+    // The number of semitones between C and each letter, indexed by letter - 'A'
+    private static final int[] LETTER_PITCHES = {9, 11, 0, 2, 4, 5, 7};
+
+    static {
+        for (Interval i : Interval.values()) {
+            BY_NUMBER_AND_DISTANCE[i.intervalNumber - 1][i.relativePitchDistance + SEMITONE_OFFSET] = i;
+        }
+    }
+
     Interval(int relativePitchDistance, IntervalQuality quality, int intervalNumber) {
         this.relativePitchDistance = relativePitchDistance;
         this.intervalQuality = quality;
@@ -68,6 +84,105 @@ public enum Interval {
                 : RomanNumeral.getBigRomanNumerals()[(intervalNumber-1)%7];
     }
 
+    /**
+     * Compound intervals are reduced to their simple Interval (e.g., a major tenth is a MAJOR_THIRD),
+     * except that whole octaves stay PERFECT_OCTAVE. Use getCompoundNumber for the full size and direction.
+     * This function operates in Θ(1) time and does not allocate.
+     * @param from the first Note
+     * @param to the second Note
+     * @return the spelled Interval between the two Notes, irrespective of direction,
+     * or null if it has no Interval (e.g., a doubly augmented fourth)
+     */
+    public static Interval between(Note from, Note to) {
+        int steps = getStaffPosition(to) - getStaffPosition(from);
+        int semitones = to.getPitch() - from.getPitch();
+
+        // Measure descending intervals from the lower Note
+        if (steps < 0 || (steps == 0 && semitones < 0)) {
+            steps = -steps;
+            semitones = -semitones;
+        }
+
+        // Reduce by whole octaves, keeping a 7 (an octave) rather than a 0 (a unison) for compound octaves
+        int octaves = (steps == 0) ? 0 : (steps - 1) / 7;
+        return lookUp(steps - 7 * octaves, semitones - 12 * octaves);
+    }
+
+    /**
+     *
+     * @param from the lower NoteType
+     * @param to the upper NoteType
+     * @return the spelled Interval from "from" up to the nearest "to" above it (a unison or less than an octave),
+     * or null if it has no Interval
+     */
+    public static Interval between(NoteType from, NoteType to) {
+        int steps = Math.floorMod(getLetterIndex(to.letter) - getLetterIndex(from.letter), 7);
+        int semitones = Math.floorMod(to.relativePitch - from.relativePitch, 12);
+
+        // A unison letter with a lower pitch (e.g., C up to C♭) can only be reached as an octave
+        if (steps == 0 && semitones > SEMITONE_OFFSET) steps = 7;
+
+        // Pick the octave of the distance that suits the number of steps
+        // (e.g., B up to C♭ is 0 semitones, and C up to B♯ is 12)
+        int deviation = semitones - 12 * steps / 7;
+        if (deviation > SEMITONE_OFFSET + 1) semitones -= 12;
+        else if (deviation < -(SEMITONE_OFFSET + 1)) semitones += 12;
+
+        return lookUp(steps, semitones);
+    }
+
+    /**
+     *
+     * @param from the first Note
+     * @param to the second Note
+     * @return the full interval number, negative when "to" is below "from" (e.g., 10 for a tenth up, -3 for a third down)
+     */
+    public static int getCompoundNumber(Note from, Note to) {
+        int steps = getStaffPosition(to) - getStaffPosition(from);
+        if (steps == 0) return (to.getPitch() < from.getPitch()) ? -1 : 1;
+        return steps > 0 ? steps + 1 : steps - 1;
+    }
+
+    /**
+     * Fills in the Interval between each pair of consecutive Notes of a melody, without allocating.
+     * @param melody the Notes of the melody, in order
+     * @param intervals receives between(melody[i], melody[i + 1]) at index i; needs at least melody.length - 1 elements
+     * @param compoundNumbers if not null, receives getCompoundNumber(melody[i], melody[i + 1]) at index i
+     */
+    public static void between(Note[] melody, Interval[] intervals, int[] compoundNumbers) {
+        for (int i = 0; i + 1 < melody.length; i++) {
+            intervals[i] = between(melody[i], melody[i + 1]);
+            if (compoundNumbers != null) {
+                compoundNumbers[i] = getCompoundNumber(melody[i], melody[i + 1]);
+            }
+        }
+    }
+
+    private static Interval lookUp(int steps, int semitones) {
+        int column = semitones + SEMITONE_OFFSET;
+        if (column < 0 || column >= BY_NUMBER_AND_DISTANCE[steps].length) return null;
+        return BY_NUMBER_AND_DISTANCE[steps][column];
+    }
+
+    /**
+     * Counts the letters (staff lines and spaces) from C in the lowest Octave up to a Note.
+     * B♯ and C♭ count as B and C, not as the C and B they sound like.
+     * @param note a Note
+     * @return the diatonic position of the Note
+     */
+    private static int getStaffPosition(Note note) {
+        int letterPitch = note.getPitch() - note.getAccidental().semitones;
+        int letterIndex = getLetterIndex(note.getLetter());
+
+        // The letter's own pitch, in the octave that the Note is spelled in
+        int letterOctave = Math.floorDiv(letterPitch - LETTER_PITCHES[note.getLetter() - 'A'], 12);
+        return letterOctave * 7 + letterIndex;
+    }
+
+    private static int getLetterIndex(char letter) {
+        return (letter - 'C' + 7) % 7;
+    }
+
     /**
      *
      * @return
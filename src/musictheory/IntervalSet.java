@@ -9,28 +9,52 @@ import static musictheory.NoteType.*;
 abstract class IntervalSet {
     protected final NoteType[] noteTypes;
     protected final NoteType rootNoteType;
+    protected final NoteType namedRootNoteType;  // The root as given to the constructor, natural sign included
     protected final Note[] notes;
-    protected String name;
+    protected final int pitchClassMask;
     protected final Octave octaveRange;
     protected Octave octave;
+    private volatile boolean immutable = false;   // Set once for IntervalSets shared through an IntervalSetCache
 
-    IntervalSet(NoteType rootNoteType, NashvilleNumber[] nashvilleNumbers, Octave octave, String name) throws Exception {
+    IntervalSet(NoteType rootNoteType, NashvilleNumber[] nashvilleNumbers, Octave octave) throws Exception {
 
         // If the IntervalSet constructor was called with a NoteType containing
         // a natural accidental, just convert the NoteType to its non-accidental equivalent.
         if (rootNoteType.isNatural()) this.rootNoteType = getNoteType(rootNoteType.letter, NONE);
         else this.rootNoteType = rootNoteType;
 
+        // ...but keep the natural sign in the name (e.g., the diatonic E♮maj of a flat key)
+        this.namedRootNoteType = rootNoteType;
+
         this.noteTypes = setNoteTypes(nashvilleNumbers);
 
+        this.pitchClassMask = PitchClassSet.of(this.noteTypes);
+
         // IntervalSets have an octave range that is limited by the highest base relative pitch in the set
         this.octaveRange = getNoteTypeWithHighestPotential().maxOctave;
 
         this.octave = octave;
 
         this.notes = setNotes(this.octave, this.octaveRange);
+    }
 
-        this.name = name;
+    /**
+     * Moves an IntervalSet to a new root, at the same Octave. The NoteTypes are read from the SpellingTable and
+     * the pitch-class mask is rotated; the Notes are left for the subclass to place (see Chord(Chord, NoteType)).
+     * @param other the IntervalSet to transpose
+     * @param rootNoteType the root NoteType of the transposed IntervalSet
+     * @param nashvilleNumbers the NashvilleNumbers that other was built from
+     */
+    IntervalSet(IntervalSet other, NoteType rootNoteType, NashvilleNumber[] nashvilleNumbers) throws Exception {
+        if (rootNoteType.isNatural()) this.rootNoteType = getNoteType(rootNoteType.letter, NONE);
+        else this.rootNoteType = rootNoteType;
+        this.namedRootNoteType = rootNoteType;
+
+        this.noteTypes = setNoteTypes(nashvilleNumbers);
+        this.pitchClassMask = PitchClassSet.rotate(other.pitchClassMask, this.rootNoteType.relativePitch - other.rootNoteType.relativePitch);
+        this.octaveRange = getNoteTypeWithHighestPotential().maxOctave;
+        this.octave = other.octave;
+        this.notes = new Note[this.noteTypes.length];
     }
 
     /**
@@ -41,7 +65,8 @@ abstract class IntervalSet {
     protected abstract void setNoteOctaves(Octave octave);
 
     /**
-     * Dynamically builds the list of diatonic NoteTypes for this IntervalSet, based on the root NoteType and NashvilleNumbers.
+     * Builds the list of diatonic NoteTypes for this IntervalSet, based on the root NoteType and NashvilleNumbers.
+     * Each NoteType is read from the precomputed SpellingTable.
      * This function operates in Θ(n) time.
      * @param nashvilleNumbers the list of NashvilleNumber elements, which will be used for deducing NoteTypes
      * @return a list of NoteTypes that are diatonic to this IntervalSet
@@ -52,106 +77,19 @@ abstract class IntervalSet {
 
         returnedNoteTypes[0] = rootNoteType;
 
-        Accidental rootAccidental = rootNoteType.accidental;
         for (int i = 1; i < numNotes; i++) {
-            char nextNoteLetter = Theory.getNoteLetterForNashvilleNumber(rootNoteType, nashvilleNumbers[i]);
-            NoteType candidate;
-
-            if (!rootNoteType.isNatural()) candidate = getNoteType(nextNoteLetter, rootAccidental);
-            else candidate = Theory.applyAccidentalTo(getNoteType(nextNoteLetter, rootAccidental), nashvilleNumbers[i].accidental);
+            NoteType candidate = SpellingTable.spell(rootNoteType, nashvilleNumbers[i]);
 
-            int candidateRelativePitch = candidate.relativePitch;
-            int comparisonRelativePitch = (rootNoteType.relativePitch + nashvilleNumbers[i].relativePitchDistance) % 12;
-            int offset = comparisonRelativePitch - candidateRelativePitch;
-
-            if (offset == 0) {
-                returnedNoteTypes[i] = candidate; // they match, so we're done
+            if (candidate == null) {
+                throw new Exception("no spelling for " + nashvilleNumbers[i] + " above " + rootNoteType);
             }
-            else {
-                Accidental newAccidental;
-                switch (offset) {
-                    case -2: newAccidental = DOUBLE_FLAT; break;
-                    case -1: newAccidental = FLAT; break;
-                    case 1: newAccidental = SHARP; break;
-                    case 2: newAccidental = DOUBLE_SHARP; break;
-                    default: newAccidental = NONE;
-                }
-
-                candidate = Theory.applyAccidentalTo(candidate, newAccidental);
-                if (candidate.isNatural() && Theory.noteLettersFollow(returnedNoteTypes[i-1], candidate)) {
-                    candidate = getNoteType(candidate.letter, NONE);
-                }
 
-                if (candidate.relativePitch == comparisonRelativePitch) {
-                    returnedNoteTypes[i] = candidate; // match on second attempt (done)
-                }
-                else {
-                    candidate = getNoteType(candidate.letter, newAccidental);
-
-                    if (candidate.relativePitch == comparisonRelativePitch) {
-                        returnedNoteTypes[i] = candidate; // match on third attempt (done)
-                    }
-                    else {
-                        candidateRelativePitch = candidate.relativePitch;
-                        offset = comparisonRelativePitch - candidateRelativePitch;
-
-                        if (rootNoteType.accidental.equals(DOUBLE_FLAT)) {
-                            switch (offset) {
-                                case 9: {
-                                    newAccidental = FLAT;
-                                    candidate = getNoteType(Theory.getPreviousNoteLetter(candidate), newAccidental);
-                                    break;
-                                }
-                                case -1: {
-                                    newAccidental = DOUBLE_FLAT;
-                                    nextNoteLetter = Theory.getNoteLetterForNashvilleNumber(rootNoteType, nashvilleNumbers[i]);
-                                    candidate = getNoteType(nextNoteLetter, newAccidental);
-                                    break;
-                                }
-                                default: throw new Exception("uncaught value of " + offset + " on " + nashvilleNumbers[i]);
-                            }
-                        }
-                        else if (rootNoteType.accidental.equals(FLAT)) {
-                            switch (offset) {
-                                case -1: newAccidental = SHARP; break;
-                                case 1: newAccidental = SHARP; break;
-                                default: throw new Exception("uncaught value of " + offset + " on " + nashvilleNumbers[i]);
-                            }
-
-                            candidate = getNoteType(candidate.letter, newAccidental);
-                        }
-                        else if (rootNoteType.accidental.equals(SHARP)) {
-                            switch (offset) {
-                                case -1: newAccidental = FLAT; break;
-                                case 1: newAccidental = FLAT; break;
-                                default: throw new Exception("uncaught value of " + offset + " on " + nashvilleNumbers[i]);
-                            }
-
-                            candidate = getNoteType(candidate.letter, newAccidental);
-                        }
-                        else if (rootNoteType.accidental.equals(DOUBLE_SHARP)) {
-                            switch (offset) {
-                                case -9: newAccidental = SHARP; break;
-                                default: throw new Exception("uncaught value of " + offset + " on " + nashvilleNumbers[i]);
-                            }
-
-                            candidate = getNoteType(Theory.getNextNoteLetter(candidate), newAccidental);
-                        }
-                        else if (rootNoteType.accidental.equals(NONE)) {
-                            switch (offset) {
-                                case -11: newAccidental = SHARP; break;
-                                case 11: newAccidental = FLAT; break;
-                                default: throw new Exception("uncaught value of " + offset + " on " + nashvilleNumbers[i]);
-                            }
-
-                            candidate = getNoteType(candidate.letter, newAccidental);
-                        }
-
-                        returnedNoteTypes[i] = candidate;
-
-                    }
-                }
+            // A natural sign is redundant when the letter directly follows the previous Note's letter
+            if (candidate.isNatural() && Theory.noteLettersFollow(returnedNoteTypes[i-1], candidate)) {
+                candidate = getNoteType(candidate.letter, NONE);
             }
+
+            returnedNoteTypes[i] = candidate;
         }
         return returnedNoteTypes;
     }
@@ -170,12 +108,40 @@ abstract class IntervalSet {
      * @param octave the octave to set the IntervalSet at
      */
     public void setOctave(Octave octave) {
+        checkMutable();
 
         this.octave = octave;
 
         setNoteOctaves(octave);
     }
 
+    /**
+     * Freezes this IntervalSet so that it can be safely shared between callers and threads.
+     * This is called exactly once, before the IntervalSet is published to an IntervalSetCache.
+     */
+    void makeImmutable() {
+        this.immutable = true;
+    }
+
+    /**
+     * Immutable IntervalSets are handed out by Scale.of and Chord.of.
+     * Use the copy constructor to get a mutable IntervalSet with the same structure.
+     * @return whether this IntervalSet rejects octave changes and inversions
+     */
+    public boolean isImmutable() {
+        return immutable;
+    }
+
+    /**
+     * Guards every method that changes the octaves, inversion or name of this IntervalSet.
+     * @throws UnsupportedOperationException if this IntervalSet is immutable
+     */
+    protected void checkMutable() {
+        if (immutable) {
+            throw new UnsupportedOperationException(getName() + " is a shared, immutable instance; copy it before modifying it");
+        }
+    }
+
     /**
      * A private method designed for setting the private IntervalSet member notes.
      * This is called exactly one time, in the constructor method.
@@ -256,6 +222,23 @@ abstract class IntervalSet {
         return rootNoteType;
     }
 
+    /**
+     *
+     * @return the 12-bit mask of relative pitches in this IntervalSet (see PitchClassSet)
+     */
+    int getPitchClassMask() {
+        return pitchClassMask;
+    }
+
+    /**
+     * Checks enharmonic containment, irrespective of octave or spelling.
+     * @param other the IntervalSet to compare against
+     * @return whether every relative pitch in other is also in this IntervalSet
+     */
+    boolean containsAllPitchClassesOf(IntervalSet other) {
+        return PitchClassSet.isSubsetOf(other.pitchClassMask, this.pitchClassMask);
+    }
+
     /**
      *
      * @return the list of Notes in this IntervalSet
@@ -269,7 +252,8 @@ abstract class IntervalSet {
      * @return the Note designated as the root for this IntervalSet
      */
     public Note getRootNote() {
-        return notes[0];
+        // Notes are mutable, so shared IntervalSets only give out copies
+        return immutable ? new Note(notes[0]) : notes[0];
     }
 
     /**
@@ -277,6 +261,13 @@ abstract class IntervalSet {
      * @return the name of this IntervalSet
      */
     public String getName() {
-        return name;
+        return getName(AccidentalStyle.UNICODE);
     }
+
+    /**
+     * Names are rendered on demand and shared between IntervalSets with the same structure (see NameTable).
+     * @param style the glyphs to use for accidentals
+     * @return the name of this IntervalSet in the given style
+     */
+    public abstract String getName(AccidentalStyle style);
 }
@@ -0,0 +1,129 @@
+package musictheory;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, thread-safe interning cache for immutable IntervalSets (see Scale.of and Chord.of).
+ *
+ * Keys are packed ints built from the ordinals of the root NoteType, the type and the Octave.
+ * The pool of possible keys is finite, and Scale and Chord size their caches to all of it, so every
+ * IntervalSet they hand out for a key is the same instance. A smaller maxSize (see setMaxSize) trades
+ * that guarantee for memory: once the cache is full, new IntervalSets are still handed out but are
+ * no longer retained, so callers must not compare them by identity.
+ */
+public final class IntervalSetCache<T extends IntervalSet> {
+    private final ConcurrentHashMap<Integer, T> cache;
+    private final AtomicInteger reserved = new AtomicInteger();    // Entries in the cache, plus inserts in flight
+    private volatile int maxSize;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    IntervalSetCache(int maxSize) {
+        if (maxSize < 0) throw new IllegalArgumentException("maxSize must not be negative: " + maxSize);
+        this.cache = new ConcurrentHashMap<>();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Looks up a cached IntervalSet, recording a hit or a miss.
+     * @param key the packed key of the IntervalSet
+     * @return the cached IntervalSet, or null if there is none
+     */
+    T get(int key) {
+        T value = cache.get(key);
+        if (value != null) hits.incrementAndGet();
+        else misses.incrementAndGet();
+        return value;
+    }
+
+    /**
+     * Caches an immutable IntervalSet, unless another thread got there first or the cache is full.
+     * @param key the packed key of the IntervalSet
+     * @param value the immutable IntervalSet to cache
+     * @return the IntervalSet that callers should use for this key
+     */
+    T putIfAbsent(int key, T value) {
+        T existing = cache.get(key);
+        if (existing != null) return existing;
+
+        // Reserve a slot before inserting, so that concurrent callers can never take the cache past maxSize
+        int n;
+        do {
+            n = reserved.get();
+            if (n >= maxSize) return value;
+        } while (!reserved.compareAndSet(n, n + 1));
+
+        existing = cache.putIfAbsent(key, value);
+        if (existing != null) {
+            reserved.decrementAndGet();
+            return existing;
+        }
+        return value;
+    }
+
+    /**
+     *
+     * @return the number of lookups that were answered from the cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     *
+     * @return the number of lookups that had to construct a new IntervalSet
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     *
+     * @return the number of IntervalSets currently retained by the cache
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     *
+     * @return the maximum number of IntervalSets the cache will retain
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Changes the maximum number of IntervalSets the cache will retain. If the cache holds more than that,
+     * arbitrary entries are dropped until it fits. IntervalSets already handed out are not affected, but a dropped
+     * key gets a new instance on its next lookup, so anything below the size of the key space breaks interning.
+     * @param maxSize the maximum number of IntervalSets to retain (0 turns interning off)
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        if (maxSize < 0) throw new IllegalArgumentException("maxSize must not be negative: " + maxSize);
+        this.maxSize = maxSize;
+
+        Iterator<Integer> keys = cache.keySet().iterator();
+        while (reserved.get() > maxSize && keys.hasNext()) {
+            remove(keys.next());
+        }
+    }
+
+    /**
+     * Drops every cached IntervalSet and resets the hit / miss statistics.
+     */
+    public void clear() {
+        for (Integer key : cache.keySet()) {
+            remove(key);
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+
+    private void remove(Integer key) {
+        if (cache.remove(key) != null) reserved.decrementAndGet();
+    }
+}
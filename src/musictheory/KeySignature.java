@@ -89,47 +89,144 @@ public enum KeySignature {
         return this.notes[0].equals(F_SHARP);
     }
 
+    /*
+     * Everything below is derived arithmetically from the circle of fifths.
+     *
+     * A key's position on the circle is its number of sharps (positive) or flats (negative):
+     * C major is 0, G major is 1, F major is -1, and so on. Each letter has a fixed position (F = -1 through B = 5),
+     * and every sharp on the root moves it 7 positions clockwise (every flat, 7 positions counter-clockwise).
+     * Minor keys sit 3 positions counter-clockwise of their parallel major, and each mode sits at the position of
+     * its parent major key (e.g., D Dorian has the key signature of C major).
+     *
+     * Reference: https://en.wikipedia.org/wiki/Circle_of_fifths
+     *            https://en.wikipedia.org/wiki/Theoretical_key
+     */
+
+    // Returned for Scales that have no key signature (e.g., non-diatonic ScaleTypes without a tonality)
+    static final int NO_FIFTHS = Integer.MIN_VALUE;
+
+    // Beyond 14 sharps or flats, a key signature would need triple sharps or flats
+    static final int MAX_FIFTHS = 14;
+
+    private static final char[] ORDER_OF_SHARPS = {'F', 'C', 'G', 'D', 'A', 'E', 'B'};
+    private static final int[] LETTER_FIFTHS = {3, 5, 0, 2, 4, -1, 1};    // Indexed by letter - 'A'
+
+    // Indexed by fifths + 7
+    private static final KeySignature[] MAJOR_KEY_SIGNATURES = {
+            C_FLAT_MAJOR, G_FLAT_MAJOR, D_FLAT_MAJOR, A_FLAT_MAJOR, E_FLAT_MAJOR, B_FLAT_MAJOR, F_MAJOR,
+            C_MAJOR,
+            G_MAJOR, D_MAJOR, A_MAJOR, E_MAJOR, B_MAJOR, F_SHARP_MAJOR, C_SHARP_MAJOR};
+    private static final KeySignature[] MINOR_KEY_SIGNATURES = {
+            A_FLAT_MINOR, E_FLAT_MINOR, B_FLAT_MINOR, F_MINOR, C_MINOR, G_MINOR, D_MINOR,
+            A_MINOR,
+            E_MINOR, B_MINOR, F_SHARP_MINOR, C_SHARP_MINOR, G_SHARP_MINOR, D_SHARP_MINOR, A_SHARP_MINOR};
+
+    // Indexed by fifths + MAX_FIFTHS
+    private static final NoteType[][] ACCIDENTALS = new NoteType[2 * MAX_FIFTHS + 1][];
+
+    // Indexed by [ScaleType ordinal][root NoteType ordinal]
+    private static final int[][] SCALE_FIFTHS = new int[ScaleType.values().length][NoteType.values().length];
+
+    static {
+        for (int fifths = -MAX_FIFTHS; fifths <= MAX_FIFTHS; fifths++) {
+            // Sharps are added in the order F C G D A E B, and flats in the reverse order.
+            // Past 7, each further step turns the next sharp (flat) into a double sharp (double flat).
+            int numDoubled = Math.max(Math.abs(fifths) - 7, 0);
+            NoteType[] accidentals = new NoteType[Math.min(Math.abs(fifths), 7)];
+            for (int i = 0; i < accidentals.length; i++) {
+                char letter = fifths > 0 ? ORDER_OF_SHARPS[i] : ORDER_OF_SHARPS[6 - i];
+                Accidental accidental = fifths > 0
+                        ? (i < numDoubled ? Accidental.DOUBLE_SHARP : Accidental.SHARP)
+                        : (i < numDoubled ? Accidental.DOUBLE_FLAT : Accidental.FLAT);
+                accidentals[i] = getNoteType(letter, accidental);
+            }
+            ACCIDENTALS[fifths + MAX_FIFTHS] = accidentals;
+        }
+
+        for (ScaleType st : ScaleType.values()) {
+            int modeOffset = getModeOffset(st);
+            for (NoteType root : NoteType.values()) {
+                int fifths;
+                switch (st.tonality) {
+                    case MAJOR_TONALITY: fifths = getFifths(root); break;
+                    case MINOR_TONALITY: fifths = getFifths(root) - 3; break;
+                    default: fifths = (modeOffset == NO_FIFTHS) ? NO_FIFTHS : getFifths(root) + modeOffset; break;
+                }
+                SCALE_FIFTHS[st.ordinal()][root.ordinal()] = fifths;
+            }
+        }
+    }
+
+    /**
+     *
+     * @param scaleType a ScaleType
+     * @return how far the key signature of scaleType sits from that of the major key on the same root,
+     * or NO_FIFTHS if scaleType is not a mode of the major scale
+     */
+    private static int getModeOffset(ScaleType scaleType) {
+        for (int parentTonic = 0; parentTonic < 12; parentTonic++) {
+            if (PitchClassSet.rotate(ScaleType.MAJOR.pitchClassMask, parentTonic) == scaleType.pitchClassMask) {
+                // The root (relative pitch 0) is this many semitones above the parent tonic...
+                int degree = Math.floorMod(-parentTonic, 12);
+
+                // ...which is this many fifths clockwise of the parent tonic (e.g., 2 for the Dorian degree)
+                int fifths = (7 * degree) % 12;
+                return -(fifths > 6 ? fifths - 12 : fifths);
+            }
+        }
+        return NO_FIFTHS;
+    }
+
+    /**
+     *
+     * @param root a NoteType
+     * @return the position of the major key on root on the circle of fifths (e.g., 0 for C, 8 for G♯, -8 for F♭)
+     */
+    static int getFifths(NoteType root) {
+        return LETTER_FIFTHS[root.letter - 'A'] + 7 * root.accidental.semitones;
+    }
+
+    /**
+     * This function operates in Θ(1) time.
+     * @param scaleType the ScaleType of the Scale
+     * @param root the root NoteType of the Scale
+     * @return the position of the Scale's key signature on the circle of fifths, or NO_FIFTHS if it has none
+     */
+    static int getFifths(ScaleType scaleType, NoteType root) {
+        return SCALE_FIFTHS[scaleType.ordinal()][root.ordinal()];
+    }
+
+    /**
+     * Lists the accidentals of any key signature, including theoretical ones (e.g., G♯ major: Fx C♯ G♯ D♯ A♯ E♯ B♯).
+     * The returned array is shared and must not be modified.
+     * @param fifths a position on the circle of fifths
+     * @return the accidentals of the key signature, one per letter in the order of sharps (flats), or null if it would need triple sharps or flats
+     */
+    static NoteType[] getAccidentals(int fifths) {
+        if (fifths == NO_FIFTHS || Math.abs(fifths) > MAX_FIFTHS) return null;
+        return ACCIDENTALS[fifths + MAX_FIFTHS];
+    }
+
+    /**
+     *
+     * @param fifths a position on the circle of fifths
+     * @param minor whether to name the key signature after its minor key
+     * @return the KeySignature at fifths, THEORETICAL_KEY_SIGNATURE if it needs more than 7 sharps or flats,
+     * or NO_KEY_SIGNATURE if fifths is NO_FIFTHS
+     */
+    static KeySignature getKeySignatureWithFifths(int fifths, boolean minor) {
+        if (fifths == NO_FIFTHS) return NO_KEY_SIGNATURE;
+        if (Math.abs(fifths) > 7) return THEORETICAL_KEY_SIGNATURE;
+        return minor ? MINOR_KEY_SIGNATURES[fifths + 7] : MAJOR_KEY_SIGNATURES[fifths + 7];
+    }
+
     /**
      *
      * @param root
      * @return
      */
     static final KeySignature getMajorKeySignatureWithRoot(NoteType root) {
-        switch(root) {
-            // Flat key signatures
-            case C_FLAT: return C_FLAT_MAJOR;
-            case G_FLAT: return G_FLAT_MAJOR;
-            case D_FLAT: return D_FLAT_MAJOR;
-            case A_FLAT: return A_FLAT_MAJOR;
-            case E_FLAT: return E_FLAT_MAJOR;
-            case B_FLAT: return B_FLAT_MAJOR;
-            case F: return F_MAJOR;
-
-            // Non-accidental key signatures
-            case C: return C_MAJOR;
-
-            // Sharp key signatures
-            case G: return G_MAJOR;
-            case D: return D_MAJOR;
-            case A: return A_MAJOR;
-            case E: return E_MAJOR;
-            case B: return B_MAJOR;
-            case F_SHARP: return F_SHARP_MAJOR;
-            case C_SHARP: return C_SHARP_MAJOR;
-
-            // TODO weird cases
-            // Reference: https://en.wikipedia.org/wiki/Theoretical_key
-            case G_SHARP: return THEORETICAL_KEY_SIGNATURE; /*A_FLAT_MAJOR;*/
-            case D_SHARP: return THEORETICAL_KEY_SIGNATURE; /*E_FLAT_MAJOR;*/
-            case A_SHARP: return THEORETICAL_KEY_SIGNATURE; /*B_FLAT_MAJOR;*/
-            case E_SHARP: return THEORETICAL_KEY_SIGNATURE; /*F_MAJOR;*/
-
-            case B_SHARP: return THEORETICAL_KEY_SIGNATURE; /*C_MAJOR;*/
-
-            case F_FLAT: return THEORETICAL_KEY_SIGNATURE; /*E_MAJOR;*/
-
-            default: return NO_KEY_SIGNATURE;
-        }
+        return getKeySignatureWithFifths(getFifths(ScaleType.MAJOR, root), false);
     }
 
     /**
@@ -138,40 +235,6 @@ public enum KeySignature {
      * @return
      */
     static final KeySignature getMinorKeySignatureWithRoot(NoteType root) {
-        switch(root) {
-            // Flat key signatures
-            case A_FLAT: return A_FLAT_MINOR;
-            case E_FLAT: return E_FLAT_MINOR;
-            case B_FLAT: return B_FLAT_MINOR;
-            case F: return F_MINOR;
-            case C: return C_MINOR;
-            case G: return G_MINOR;
-            case D: return D_MINOR;
-
-            // Non-accidental key signatures
-            case A: return A_MINOR;
-
-            // Sharp key signatures
-            case E: return E_MINOR;
-            case B: return B_MINOR;
-            case F_SHARP: return F_SHARP_MINOR;
-            case C_SHARP: return C_SHARP_MINOR;
-            case G_SHARP: return G_SHARP_MINOR;
-            case D_SHARP: return D_SHARP_MINOR;
-            case A_SHARP: return A_SHARP_MINOR;
-
-            // TODO weird cases
-            // Reference: https://en.wikipedia.org/wiki/Theoretical_key
-            case E_SHARP: return THEORETICAL_KEY_SIGNATURE; /*F_MINOR;*/
-
-            case B_SHARP: return THEORETICAL_KEY_SIGNATURE; /*C_MINOR;*/
-
-            case F_FLAT: return THEORETICAL_KEY_SIGNATURE; /*E_MINOR;*/
-            case C_FLAT: return THEORETICAL_KEY_SIGNATURE; /*B_MINOR;*/
-            case G_FLAT: return THEORETICAL_KEY_SIGNATURE; /*A_FLAT_MINOR;*/
-            case D_FLAT: return THEORETICAL_KEY_SIGNATURE; /*C_SHARP_MINOR;*/
-
-            default: return NO_KEY_SIGNATURE;
-        }
+        return getKeySignatureWithFifths(getFifths(ScaleType.AEOLIAN, root), true);
     }
 }
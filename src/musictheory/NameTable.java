@@ -0,0 +1,77 @@
+package musictheory;
+
+/**
+ * Interned names for every Chord (root x ChordType x inversion) and Scale (root x ScaleType), in each AccidentalStyle.
+ *
+ * Names are only rendered the first time they are asked for, so the many Chords and Scales that are built
+ * for analysis and never displayed cost nothing. After that, every IntervalSet with the same structure
+ * shares the same String.
+ *
+ * Each entry is written at most once per style with an immutable String, so racing threads can only
+ * duplicate work, never observe a partially built name.
+ */
+final class NameTable {
+    private static final NoteType[] NOTE_TYPES = NoteType.values();
+    private static final ChordType[] CHORD_TYPES = ChordType.values();
+    private static final ScaleType[] SCALE_TYPES = ScaleType.values();
+    private static final AccidentalStyle[] STYLES = AccidentalStyle.values();
+
+    // [style][root][chordType][inversion]
+    private static final String[][][][] CHORD_NAMES = new String[STYLES.length][NOTE_TYPES.length][CHORD_TYPES.length][];
+
+    // [style][root][scaleType]
+    private static final String[][][] SCALE_NAMES = new String[STYLES.length][NOTE_TYPES.length][SCALE_TYPES.length];
+
+    static {
+        for (String[][][] byRoot : CHORD_NAMES) {
+            for (String[][] byChordType : byRoot) {
+                for (ChordType ct : CHORD_TYPES) {
+                    byChordType[ct.ordinal()] = new String[ct.nashvilleNumbers.length];
+                }
+            }
+        }
+    }
+
+    private NameTable() {}
+
+    /**
+     * Inverted Chords are named as slash chords, with the bass Note tacked to the end of the name.
+     * @param root the root NoteType of the Chord
+     * @param chordType the ChordType of the Chord
+     * @param inversion the inversion number of the Chord
+     * @param bass the NoteType of the lowest Note in that inversion
+     * @param style the glyphs to use for accidentals
+     * @return the name of the Chord (e.g., "Cmaj/E")
+     */
+    static String getChordName(NoteType root, ChordType chordType, int inversion, NoteType bass, AccidentalStyle style) {
+        String[] names = CHORD_NAMES[style.ordinal()][root.ordinal()][chordType.ordinal()];
+
+        String name = names[inversion];
+        if (name == null) {
+            name = root.getName(style) + chordType.getChordSymbol(style);
+            if (inversion != 0) {
+                name += "/" + bass.getName(style);
+            }
+            names[inversion] = name;
+        }
+        return name;
+    }
+
+    /**
+     *
+     * @param root the root NoteType of the Scale
+     * @param scaleType the ScaleType of the Scale
+     * @param style the glyphs to use for accidentals
+     * @return the name of the Scale (e.g., "C Major")
+     */
+    static String getScaleName(NoteType root, ScaleType scaleType, AccidentalStyle style) {
+        String[] names = SCALE_NAMES[style.ordinal()][root.ordinal()];
+
+        String name = names[scaleType.ordinal()];
+        if (name == null) {
+            name = root.getName(style) + " " + scaleType.name;
+            names[scaleType.ordinal()] = name;
+        }
+        return name;
+    }
+}
@@ -74,6 +74,15 @@ public class Note implements Comparable<Note> {
         return noteType.name;
     }
 
+    /**
+     *
+     * @param style the glyphs to use for the accidental
+     * @return the name of this Note's NoteType in the given style
+     */
+    public String getName(AccidentalStyle style) {
+        return noteType.getName(style);
+    }
+
     /**
      *
      * @return
@@ -65,13 +65,24 @@ public enum NoteType {
     final char letter;
     final Accidental accidental;
     final String name;
+    final String asciiName;
     final int relativePitch;
     Octave minOctave, maxOctave;
 
+    // Every NoteType, indexed by [letter - 'A'][accidental ordinal]
+    private static final NoteType[][] BY_LETTER_AND_ACCIDENTAL = new NoteType[7][Accidental.values().length];
+
+    static {
+        for (NoteType nt : NoteType.values()) {
+            BY_LETTER_AND_ACCIDENTAL[nt.letter - 'A'][nt.accidental.ordinal()] = nt;
+        }
+    }
+
     NoteType(char letter, Accidental accidental, int relativePitch) {
         this.letter = letter;
         this.accidental = accidental;
         this.name = letter + accidental.indicator;
+        this.asciiName = letter + accidental.asciiIndicator;
         this.relativePitch = relativePitch;
         this.minOctave = Octave.OCTAVE_MIN;
 
@@ -84,6 +95,15 @@ public enum NoteType {
         this.maxOctave = (relativePitch >= 8) ? Octave.OCTAVE_MAX.lowerBy(1) : Octave.OCTAVE_MAX;
     }
 
+    /**
+     *
+     * @param style the glyphs to use for the accidental
+     * @return the name of this NoteType in the given style (e.g., "B♭" or "Bb")
+     */
+    String getName(AccidentalStyle style) {
+        return style == AccidentalStyle.ASCII ? asciiName : name;
+    }
+
     /**
      *
      * @return
@@ -158,20 +178,19 @@ public enum NoteType {
     }
 
     /**
-     *
-     * @param c
-     * @param accidental
-     * @return
+     * Looks up a NoteType by letter and Accidental without allocating.
+     * This function operates in Θ(1) time.
+     * @param c the (uppercase) letter of the NoteType
+     * @param accidental the Accidental of the NoteType
+     * @return the NoteType with the specified letter and Accidental
+     * @throws IllegalArgumentException if there is no NoteType with the specified letter
      */
     static NoteType getNoteType(char c, Accidental accidental) {
-        switch (accidental) {
-            case DOUBLE_FLAT:
-            case FLAT:
-            case SHARP:
-            case DOUBLE_SHARP:
-            case NATURAL: return Enum.valueOf(NoteType.class, c + "_" + accidental);
-            case NONE: return Enum.valueOf(NoteType.class, c + "");
-            default: return null;
+        int index = c - 'A';
+        if (index < 0 || index >= BY_LETTER_AND_ACCIDENTAL.length) {
+            throw new IllegalArgumentException("No NoteType with letter " + c);
         }
+
+        return BY_LETTER_AND_ACCIDENTAL[index][accidental.ordinal()];
     }
 }
@@ -0,0 +1,107 @@
+package musictheory;
+
+/**
+ * An immutable pitch, packed into a single int: the MIDI pitch in the low byte
+ * and the NoteType ordinal in the byte above it.
+ *
+ * Packed pitches carry the same information as a Note (spelling + pitch), without an object per Note.
+ * They can be stored in plain int[]s or in a PitchArray, and converted back to a Note when needed.
+ */
+public final class PackedPitch {
+    private static final int PITCH_BITS = 8;
+    private static final int PITCH_MASK = (1 << PITCH_BITS) - 1;
+    private static final NoteType[] NOTE_TYPES = NoteType.values();
+
+    static final int MAX_MIDI_PITCH = 127;
+
+    private PackedPitch() {}
+
+    /**
+     *
+     * @param noteType the spelling of the pitch
+     * @param midiPitch the MIDI pitch (0 - 127), which must be a C-based octave height plus noteType.relativePitch
+     * @return the packed pitch
+     * @throws IllegalArgumentException if midiPitch is out of range or does not match noteType
+     */
+    public static int of(NoteType noteType, int midiPitch) {
+        if (midiPitch < 0 || midiPitch > MAX_MIDI_PITCH || Math.floorMod(midiPitch, 12) != noteType.relativePitch) {
+            throw new IllegalArgumentException(noteType.name + " cannot have a MIDI pitch of " + midiPitch);
+        }
+        return (noteType.ordinal() << PITCH_BITS) | midiPitch;
+    }
+
+    /**
+     *
+     * @param noteType the spelling of the pitch
+     * @param octave the Octave of the pitch
+     * @return the packed pitch, with the same octave clamping as a Note
+     */
+    public static int of(NoteType noteType, Octave octave) {
+        return of(new Note(noteType, octave));
+    }
+
+    /**
+     *
+     * @param note the Note to pack
+     * @return the packed pitch holding note's NoteType and MIDI pitch
+     */
+    public static int of(Note note) {
+        return (note.getNoteType().ordinal() << PITCH_BITS) | note.getPitch();
+    }
+
+    /**
+     *
+     * @param packedPitch a packed pitch
+     * @return the NoteType of the packed pitch
+     */
+    public static NoteType getNoteType(int packedPitch) {
+        return NOTE_TYPES[packedPitch >>> PITCH_BITS];
+    }
+
+    /**
+     *
+     * @param packedPitch a packed pitch
+     * @return the MIDI pitch of the packed pitch
+     */
+    public static int getMidiPitch(int packedPitch) {
+        return packedPitch & PITCH_MASK;
+    }
+
+    /**
+     *
+     * @param packedPitch a packed pitch
+     * @return the Octave of the packed pitch
+     */
+    public static Octave getOctave(int packedPitch) {
+        return Octave.getFromIndex((getMidiPitch(packedPitch) - getNoteType(packedPitch).relativePitch) / 12);
+    }
+
+    /**
+     *
+     * @param packedPitch a packed pitch
+     * @return a new (mutable) Note with the NoteType and pitch of the packed pitch
+     */
+    public static Note toNote(int packedPitch) {
+        return new Note(getNoteType(packedPitch), getOctave(packedPitch));
+    }
+
+    /**
+     * Transposes a packed pitch by whole octaves, keeping its spelling.
+     * @param packedPitch a packed pitch
+     * @param numOctaves the number of octaves to move by (negative values move down)
+     * @return the transposed packed pitch
+     * @throws IllegalArgumentException if the result is outside of the MIDI range
+     */
+    public static int shiftOctaves(int packedPitch, int numOctaves) {
+        return of(getNoteType(packedPitch), getMidiPitch(packedPitch) + 12 * numOctaves);
+    }
+
+    /**
+     *
+     * @param packedPitch a packed pitch
+     * @return the name of the NoteType followed by the Octave number (e.g., "C♯4")
+     */
+    public static String toString(int packedPitch) {
+        return getNoteType(packedPitch).name + getOctave(packedPitch).number;
+    }
+}
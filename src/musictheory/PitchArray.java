@@ -0,0 +1,203 @@
+package musictheory;
+
+import java.util.Arrays;
+
+/**
+ * A growable array of packed pitches (see PackedPitch), backed by a single int[].
+ *
+ * This is the primitive counterpart to Note[]: one int per pitch instead of one object per Note,
+ * and no shared mutable Notes.
+ */
+public final class PitchArray {
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private int[] pitches;
+    private int size;
+
+    public PitchArray() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PitchArray(int initialCapacity) {
+        this.pitches = new int[Math.max(initialCapacity, 1)];
+        this.size = 0;
+    }
+
+    public PitchArray(PitchArray other) {
+        this.pitches = Arrays.copyOf(other.pitches, Math.max(other.size, 1));
+        this.size = other.size;
+    }
+
+    /**
+     *
+     * @param notes the Notes to pack
+     * @return a new PitchArray holding the NoteType and pitch of each Note, in order
+     */
+    public static PitchArray of(Note... notes) {
+        PitchArray array = new PitchArray(notes.length);
+        for (Note n : notes) {
+            array.add(n);
+        }
+        return array;
+    }
+
+    /**
+     *
+     * @param intervalSet the Scale or Chord to pack
+     * @return a new PitchArray holding the current Notes of the IntervalSet, in order
+     */
+    public static PitchArray of(IntervalSet intervalSet) {
+        return of(intervalSet.getNotes());
+    }
+
+    /**
+     *
+     * @param packedPitch the packed pitch to append
+     */
+    public void add(int packedPitch) {
+        if (size == pitches.length) {
+            pitches = Arrays.copyOf(pitches, size * 2);
+        }
+        pitches[size++] = packedPitch;
+    }
+
+    /**
+     *
+     * @param note the Note to pack and append
+     */
+    public void add(Note note) {
+        add(PackedPitch.of(note));
+    }
+
+    /**
+     *
+     * @param noteType the spelling of the pitch to append
+     * @param midiPitch the MIDI pitch to append
+     */
+    public void add(NoteType noteType, int midiPitch) {
+        add(PackedPitch.of(noteType, midiPitch));
+    }
+
+    /**
+     *
+     * @param index the index of the pitch
+     * @return the packed pitch at index
+     */
+    public int get(int index) {
+        checkIndex(index);
+        return pitches[index];
+    }
+
+    /**
+     *
+     * @param index the index of the pitch
+     * @param packedPitch the packed pitch to store at index
+     */
+    public void set(int index, int packedPitch) {
+        checkIndex(index);
+        pitches[index] = packedPitch;
+    }
+
+    /**
+     *
+     * @param index the index of the pitch
+     * @return the MIDI pitch at index
+     */
+    public int getMidiPitch(int index) {
+        return PackedPitch.getMidiPitch(get(index));
+    }
+
+    /**
+     *
+     * @param index the index of the pitch
+     * @return the NoteType at index
+     */
+    public NoteType getNoteType(int index) {
+        return PackedPitch.getNoteType(get(index));
+    }
+
+    /**
+     *
+     * @return the number of pitches in this PitchArray
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every pitch, keeping the allocated capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     *
+     * @return a copy of the packed pitches
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(pitches, size);
+    }
+
+    /**
+     *
+     * @return a new Note for each pitch, in order
+     */
+    public Note[] toNotes() {
+        Note[] notes = new Note[size];
+        for (int i = 0; i < size; i++) {
+            notes[i] = PackedPitch.toNote(pitches[i]);
+        }
+        return notes;
+    }
+
+    /**
+     *
+     * @return the 12-bit mask of relative pitches in this PitchArray (see PitchClassSet)
+     */
+    int getPitchClassMask() {
+        int mask = PitchClassSet.EMPTY;
+        for (int i = 0; i < size; i++) {
+            mask |= 1 << PackedPitch.getNoteType(pitches[i]).relativePitch;
+        }
+        return mask;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PitchArray)) return false;
+
+        PitchArray other = (PitchArray) o;
+        if (size != other.size) return false;
+        for (int i = 0; i < size; i++) {
+            if (pitches[i] != other.pitches[i]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + pitches[i];
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(PackedPitch.toString(pitches[i]));
+        }
+        return sb.append("]").toString();
+    }
+}
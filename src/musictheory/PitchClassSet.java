@@ -0,0 +1,100 @@
+package musictheory;
+
+/**
+ * Operations on 12-bit pitch-class masks.
+ *
+ * Bit n of a mask is set when the relative pitch n (0 = C, 1 = C#/Db, ..., 11 = B)
+ * is a member of the set. Every ScaleType, ChordType and IntervalSet carries one of these,
+ * so that membership, subset and intersection questions cost a single bitwise operation.
+ *
+ * Reference: https://en.wikipedia.org/wiki/Set_theory_(music)
+ */
+final class PitchClassSet {
+    static final int EMPTY = 0;
+    static final int CHROMATIC = 0xFFF;
+
+    private PitchClassSet() {}
+
+    /**
+     *
+     * @param nashvilleNumbers the NashvilleNumbers to fold into a mask, relative to a root of C
+     * @return the pitch-class mask containing each NashvilleNumber's relative pitch distance (mod 12)
+     */
+    static int of(NashvilleNumber[] nashvilleNumbers) {
+        int mask = EMPTY;
+        for (NashvilleNumber nn : nashvilleNumbers) {
+            mask |= 1 << (nn.relativePitchDistance % 12);
+        }
+        return mask;
+    }
+
+    /**
+     *
+     * @param noteTypes the NoteTypes to fold into a mask
+     * @return the pitch-class mask containing each NoteType's relative pitch
+     */
+    static int of(NoteType[] noteTypes) {
+        int mask = EMPTY;
+        for (NoteType nt : noteTypes) {
+            mask |= 1 << nt.relativePitch;
+        }
+        return mask;
+    }
+
+    /**
+     * Transposes every pitch class in the mask up by the specified number of semitones.
+     * Negative values transpose down.
+     * @param mask the pitch-class mask to rotate
+     * @param semitones the number of semitones to rotate by
+     * @return the rotated pitch-class mask
+     */
+    static int rotate(int mask, int semitones) {
+        int n = Math.floorMod(semitones, 12);
+        return ((mask << n) | (mask >>> (12 - n))) & CHROMATIC;
+    }
+
+    /**
+     *
+     * @param subset the candidate subset
+     * @param superset the candidate superset
+     * @return whether every pitch class in subset is also in superset
+     */
+    static boolean isSubsetOf(int subset, int superset) {
+        return (subset & ~superset) == 0;
+    }
+
+    /**
+     *
+     * @param mask the pitch-class mask in question
+     * @param relativePitch the relative pitch (0 - 11) to look for
+     * @return whether the mask contains the relative pitch
+     */
+    static boolean contains(int mask, int relativePitch) {
+        return (mask & (1 << relativePitch)) != 0;
+    }
+
+    /**
+     *
+     * @return the pitch classes that appear in both masks
+     */
+    static int intersection(int a, int b) {
+        return a & b;
+    }
+
+    /**
+     *
+     * @return the pitch classes that appear in either mask
+     */
+    static int union(int a, int b) {
+        return a | b;
+    }
+
+    /**
+     *
+     * @param mask the pitch-class mask in question
+     * @return the number of distinct pitch classes in the mask
+     */
+    static int size(int mask) {
+        return Integer.bitCount(mask);
+    }
+}
@@ -43,32 +43,36 @@ public class Scale extends IntervalSet {
      * The HashMap structure will provide faster lookups for chord progression generation,
      * in the event that we want to choose a diatonic chord for C, D, E, etc.
      *
+     * Both are built lazily from the shared DiatonicChordTable the first time they are requested,
+     * so Scales that are only used for their notes never pay for the chord analysis.
+     *
      */
-    private final Set<Chord> diatonicChordTypes;
-    private final HashMap<Integer, ArrayList<ChordType>> diatonicChordTypesByRelativePitch;
+    private volatile Set<Chord> diatonicChordTypes;
+    private volatile Map<Integer, List<ChordType>> diatonicChordTypesByRelativePitch;
+
+    // Keys pack (root, ScaleType, Octave); the cache holds every key, so each Scale.of result is interned
+    private static final int NUM_TYPES = ScaleType.values().length, NUM_OCTAVES = Octave.values().length;
+    private static final IntervalSetCache<Scale> CACHE = new IntervalSetCache<>(NoteType.values().length * NUM_TYPES * NUM_OCTAVES);
 
     public Scale(NoteType root, ScaleType scaleType) throws Exception {
-        super(root, scaleType.nashvilleNumbers, Octave.OCTAVE_MIN, root.name + " " + scaleType.name);
+        super(root, scaleType.nashvilleNumbers, Octave.OCTAVE_MIN);
         this.scaleType = scaleType;
         this.keySignature = setKeySignature(this.rootNoteType);
         this.steps = setSteps();
-        this.diatonicChordTypes = setDiatonicChordTypes();
-        this.diatonicChordTypesByRelativePitch = setDiatonicHashMap();
     }
 
     public Scale(NoteType root, ScaleType scaleType, Octave octave) throws Exception {
-        super(root, scaleType.nashvilleNumbers, Octave.OCTAVE_MIN, root.name + " " + scaleType.name);
+        super(root, scaleType.nashvilleNumbers, Octave.OCTAVE_MIN);
         super.setOctave(octave);
         this.scaleType = scaleType;
         this.keySignature = setKeySignature(this.rootNoteType);
         this.steps = setSteps();
-        this.diatonicChordTypes = setDiatonicChordTypes();
-        this.diatonicChordTypesByRelativePitch = setDiatonicHashMap();
     }
 
     public Scale(Scale other) throws Exception {
-        super(other.rootNoteType, other.scaleType.nashvilleNumbers, other.octave,
-                other.rootNoteType.name + " " + other.scaleType.name);
+        // Built at the lowest Octave and then raised, like the other constructors, so that the copy lands on the same pitches
+        super(other.namedRootNoteType, other.scaleType.nashvilleNumbers, Octave.OCTAVE_MIN);
+        super.setOctave(other.octave);
         this.scaleType = other.scaleType;
         this.keySignature = other.keySignature;
         this.steps = other.steps;
@@ -76,6 +80,60 @@ public class Scale extends IntervalSet {
         this.diatonicChordTypesByRelativePitch = other.diatonicChordTypesByRelativePitch;
     }
 
+    /**
+     * Transposes a Scale to a new root, at the same Octave.
+     * Only the spelling and the key signature are worked out again; the steps and the diatonic ChordTypes by
+     * relative pitch (which are measured from the root) are shared with other.
+     * @param other the Scale to transpose
+     * @param root the root NoteType of the transposed Scale
+     */
+    Scale(Scale other, NoteType root) throws Exception {
+        super(root, other.scaleType.nashvilleNumbers, Octave.OCTAVE_MIN);
+        super.setOctave(other.octave);
+        this.scaleType = other.scaleType;
+        this.keySignature = setKeySignature(this.rootNoteType);
+        this.steps = other.steps;
+        this.diatonicChordTypesByRelativePitch = other.diatonicChordTypesByRelativePitch;
+    }
+
+    /**
+     * Returns a shared, immutable Scale from the interning cache, constructing it on the first request.
+     * Use the copy constructor to get a mutable Scale.
+     * @param root the root NoteType of the Scale
+     * @param scaleType the ScaleType of the Scale
+     * @param octave the Octave of the Scale
+     * @return the immutable Scale for root, scaleType and octave
+     */
+    public static Scale of(NoteType root, ScaleType scaleType, Octave octave) throws Exception {
+        int key = (root.ordinal() * NUM_TYPES + scaleType.ordinal()) * NUM_OCTAVES + octave.ordinal();
+
+        Scale scale = CACHE.get(key);
+        if (scale == null) {
+            scale = new Scale(root, scaleType, octave);
+            scale.makeImmutable();
+            scale = CACHE.putIfAbsent(key, scale);
+        }
+        return scale;
+    }
+
+    /**
+     *
+     * @param root the root NoteType of the Scale
+     * @param scaleType the ScaleType of the Scale
+     * @return the immutable Scale for root and scaleType, at the lowest Octave
+     */
+    public static Scale of(NoteType root, ScaleType scaleType) throws Exception {
+        return of(root, scaleType, Octave.OCTAVE_MIN);
+    }
+
+    /**
+     *
+     * @return the interning cache behind Scale.of, including its hit / miss statistics
+     */
+    public static IntervalSetCache<Scale> getCache() {
+        return CACHE;
+    }
+
     /**
      * Raises or lowers all Notes in the Scale to a specified octave, if it is within the octave range of the Scale.
      * If the desired octave is above the octave range of the Scale, then the Scale will be raised to its highest octave.
@@ -83,6 +141,8 @@ public class Scale extends IntervalSet {
      * @param octave the octave number to set the Scale at
      */
     protected void setNoteOctaves(Octave octave) {
+        checkMutable();
+
         int numNotes = super.notes.length;
         super.notes[0].setOctave(octave);
 
@@ -117,19 +177,13 @@ public class Scale extends IntervalSet {
     }
 
     /**
-     *
+     * Modes take the key signature of their parent major key (e.g., D Dorian takes C major's).
+     * Keys with more than 7 sharps or flats are THEORETICAL_KEY_SIGNATURE (see getKeySignatureAccidentals).
      * @param note
      * @return
      */
     private KeySignature setKeySignature(NoteType note) {
-        KeySignature keySignature;
-        switch (scaleType.tonality) {
-            case MAJOR_TONALITY: keySignature = getMajorKeySignatureWithRoot(note); break;
-            case MINOR_TONALITY: keySignature = getMinorKeySignatureWithRoot(note); break;
-            default: keySignature = NO_KEY_SIGNATURE; break;
-        }
-
-        return keySignature;
+        return getKeySignatureWithFifths(getFifths(scaleType, note), scaleType.tonality == Tonality.MINOR_TONALITY);
     }
 
     /**
@@ -157,90 +211,58 @@ public class Scale extends IntervalSet {
     }
 
     /**
-     *
-     * @return
+     * Materializes the diatonic ChordTypes of the shared DiatonicChordTable as Chords rooted on this Scale's notes.
+     * @return the set of Chords that are diatonic to this Scale
      */
-    private Set setDiatonicChordTypes() {
-        Map<Integer, NoteType> relativePitchToNote = new HashMap<>(scaleType.nashvilleNumbers.length);
+    private Set<Chord> setDiatonicChordTypes() {
+        Set<Chord> allDiatonicChords = new HashSet<>();
         for (int i = 0; i < super.noteTypes.length; i++) {
-            relativePitchToNote.put(super.noteTypes[i].relativePitch, super.noteTypes[i]);
-        }
-
-        ChordType[] allChordTypes = ChordType.values();
-        Set<Chord> allDiatonicChords = new HashSet<>(allChordTypes.length);
-        for (ChordType ct : allChordTypes) {
-            Map<Integer, ChordType> m = getChordTypeDiatonicsForScale(ct);
-            for (Integer i : m.keySet()) {
-                try {
-                    Chord c = new Chord(relativePitchToNote.get((i+super.noteTypes[0].relativePitch)%12), ct);
-                    allDiatonicChords.add(c);
-                } catch (Exception e) {}
-            }
+            allDiatonicChords.addAll(getDiatonicChordsAtDegree(i));
         }
         return Collections.unmodifiableSet(allDiatonicChords);
     }
 
     /**
      *
-     * @param chordType
-     * @return
+     * @return the diatonic ChordTypes of each scale degree, keyed by the degree's relative pitch distance from the root;
+     *         the map and its lists are unmodifiable, since they are shared by copies and by cached Scales
      */
-    private Map getChordTypeDiatonicsForScale(ChordType chordType) {
-        Map<Integer, ChordType> diatonicChordTypes = new HashMap<>(scaleType.nashvilleNumbers.length);
-
-        // Get a Set representation of the scale's relative pitches (used for checking subsets later)
-        int scaleLength = scaleType.nashvilleNumbers.length;
-        Set<Integer> scaleSet = new HashSet<>(scaleLength);
-        for (int i = 0; i < scaleLength; i++) {
-            scaleSet.add(scaleType.nashvilleNumbers[i].relativePitchDistance);
-        }
-
-        int numPitchesInChord = chordType.nashvilleNumbers.length;
-        for (int i = 0; i < scaleLength; i++) {
-            Set<Integer> candidateChordSet = new HashSet<>(numPitchesInChord);
+    private Map<Integer, List<ChordType>> setDiatonicHashMap() {
+        HashMap<Integer, List<ChordType>> hashMap = new HashMap<>();
 
-            int intervalRelativePitch = scaleType.nashvilleNumbers[i].relativePitchDistance;
-
-            // Get the set of pitches that would be made from the ChordType at scale degree i
-            for (int j = 0; j < numPitchesInChord; j++) {
-                int value = (intervalRelativePitch + chordType.nashvilleNumbers[j].relativePitchDistance) % 12;
-                candidateChordSet.add(value);
-            }
-
-            // If all pitches in the above set are also in the scale,
-            // then the chord is diatonic for scale degree i.
-            if (scaleSet.containsAll(candidateChordSet)) {
-                diatonicChordTypes.put(intervalRelativePitch, chordType);
-            }
+        for (int i = 0; i < scaleType.nashvilleNumbers.length; i++) {
+            hashMap.put((scaleType.nashvilleNumbers[i].relativePitchDistance)%12,
+                    DiatonicChordTable.getChordTypes(scaleType, i));
         }
 
-        return diatonicChordTypes;
+        return Collections.unmodifiableMap(hashMap);
     }
 
     /**
-     *
-     * @return
+     * Builds the Chords that are diatonic to a single scale degree, rooted on that degree's NoteType.
+     * Nothing is cached; each call creates new Chords.
+     * @param degree the zero-based index of the scale degree
+     * @return the list of Chords that are diatonic to the scale degree
      */
-    private HashMap setDiatonicHashMap() {
-        HashMap hashMap = new HashMap<>();
-
-        // Operate on a copy of the set (so as not to remove items from the class member set)
-        HashSet<Chord> s = new HashSet<>(diatonicChordTypes);
-
-        for (int i = 0; i < scaleType.nashvilleNumbers.length; i++) {
-            ArrayList<ChordType> arrayList = new ArrayList<>();
-            for (Iterator<Chord> it = s.iterator(); it.hasNext(); ) {
-                Chord c = it.next();
-                if (super.noteTypes[i].letter == c.getRootNoteType().letter &&
-                        super.noteTypes[i].relativePitch == c.getRootNoteType().relativePitch) {
-                    arrayList.add(c.getChordType());
-                    it.remove();
-                }
-            }
-            hashMap.put((scaleType.nashvilleNumbers[i].relativePitchDistance)%12, arrayList);
+    List<Chord> getDiatonicChordsAtDegree(int degree) {
+        List<ChordType> chordTypes = DiatonicChordTable.getChordTypes(scaleType, degree);
+        List<Chord> chords = new ArrayList<>(chordTypes.size());
+        for (ChordType ct : chordTypes) {
+            try {
+                chords.add(new Chord(super.noteTypes[degree], ct));
+            } catch (Exception e) {}
         }
+        return chords;
+    }
 
-        return hashMap;
+    /**
+     *
+     * @param style the glyphs to use for accidentals
+     * @return the name of this Scale (e.g., "C Major")
+     */
+    @Override
+    public String getName(AccidentalStyle style) {
+        return NameTable.getScaleName(super.namedRootNoteType, scaleType, style);
     }
 
     /**
@@ -259,6 +281,14 @@ public class Scale extends IntervalSet {
         return keySignature;
     }
 
+    /**
+     * Unlike getKeySignature, this also covers theoretical keys (e.g., G♯ major, with an F double sharp).
+     * @return the sharps or flats of this Scale's key signature, in order, or null if it has none
+     */
+    NoteType[] getKeySignatureAccidentals() {
+        return KeySignature.getAccidentals(getFifths(scaleType, rootNoteType));
+    }
+
     /**
      *
      * @return
@@ -300,15 +330,23 @@ public class Scale extends IntervalSet {
      * @return
      */
     Set<Chord> getDiatonicChordTypes() {
-        return diatonicChordTypes;
+        Set<Chord> result = diatonicChordTypes;
+        if (result == null) {
+            result = diatonicChordTypes = setDiatonicChordTypes();
+        }
+        return result;
     }
 
     /**
      *
      * @return
      */
-    HashMap<Integer, ArrayList<ChordType>> getDiatonicChordTypesByRelativePitch() {
-        return diatonicChordTypesByRelativePitch;
+    Map<Integer, List<ChordType>> getDiatonicChordTypesByRelativePitch() {
+        Map<Integer, List<ChordType>> result = diatonicChordTypesByRelativePitch;
+        if (result == null) {
+            result = diatonicChordTypesByRelativePitch = setDiatonicHashMap();
+        }
+        return result;
     }
 
     /**
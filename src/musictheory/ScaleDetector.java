@@ -0,0 +1,166 @@
+package musictheory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ranks every (root, ScaleType) candidate by how well it explains a stream of Notes.
+ *
+ * The detector keeps a pitch-class histogram of everything it has been given, weighted by the caller
+ * (e.g., by count or by duration). Each candidate is scored by the correlation between that histogram and
+ * the candidate's binary pitch-class profile (1 for scale tones, 0 otherwise), so a scale is rewarded for
+ * covering the heard notes and penalized for the scale tones that were not heard.
+ *
+ * The profiles are precomputed for every ScaleType in all 12 transpositions. Adding or removing a Note only
+ * touches the candidates that contain its pitch class, so the history is never rescanned and no Scales are built
+ * until the ranked results are requested.
+ *
+ * Reference: https://en.wikipedia.org/wiki/Key_finding (Krumhansl-Schmuckler key-finding algorithm)
+ */
+public final class ScaleDetector {
+    private static final int NUM_CANDIDATES = ScaleIndex.NUM_CANDIDATES;
+
+    // The candidates (see ScaleIndex) whose profile contains each relative pitch
+    private static final int[][] CANDIDATES_BY_PITCH_CLASS = new int[12][];
+
+    static {
+        int[][] byPitchClass = new int[12][NUM_CANDIDATES];
+        int[] counts = new int[12];
+
+        for (int k = 0; k < NUM_CANDIDATES; k++) {
+            int mask = ScaleIndex.getPitchClassMask(k);
+            for (int pc = 0; pc < 12; pc++) {
+                if (PitchClassSet.contains(mask, pc)) byPitchClass[pc][counts[pc]++] = k;
+            }
+        }
+
+        for (int pc = 0; pc < 12; pc++) {
+            CANDIDATES_BY_PITCH_CLASS[pc] = Arrays.copyOf(byPitchClass[pc], counts[pc]);
+        }
+    }
+
+    private final long[] histogram = new long[12];
+    private final long[] weightInCandidate = new long[NUM_CANDIDATES];  // Histogram weight covered by each candidate
+    private long totalWeight = 0;
+    private long sumOfSquares = 0;
+
+    public ScaleDetector() {}
+
+    /**
+     *
+     * @param note the Note to count once
+     */
+    public void addNote(Note note) {
+        addPitch(note.getPitch(), 1);
+    }
+
+    /**
+     *
+     * @param midiPitch the MIDI pitch to count
+     * @param weight how much the pitch counts for (e.g., 1, or its duration in ticks)
+     */
+    public void addPitch(int midiPitch, int weight) {
+        int pc = midiPitch % 12;
+        long before = histogram[pc];
+
+        histogram[pc] = before + weight;
+        totalWeight += weight;
+        sumOfSquares += 2 * before * weight + (long) weight * weight;
+
+        for (int k : CANDIDATES_BY_PITCH_CLASS[pc]) {
+            weightInCandidate[k] += weight;
+        }
+    }
+
+    /**
+     * Takes a previously added pitch back out, e.g. when it falls out of a sliding window.
+     * @param midiPitch the MIDI pitch to remove
+     * @param weight the weight it was added with
+     */
+    public void removePitch(int midiPitch, int weight) {
+        addPitch(midiPitch, -weight);
+    }
+
+    /**
+     * Forgets every Note added so far.
+     */
+    public void reset() {
+        Arrays.fill(histogram, 0);
+        Arrays.fill(weightInCandidate, 0);
+        totalWeight = 0;
+        sumOfSquares = 0;
+    }
+
+    /**
+     *
+     * @return the sum of the weights of every Note added so far
+     */
+    public long getTotalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     *
+     * @param root the root NoteType of the candidate (only its relative pitch matters)
+     * @param scaleType the ScaleType of the candidate
+     * @return the correlation (-1 to 1) between the heard pitch classes and the candidate's scale tones
+     */
+    public double getScore(NoteType root, ScaleType scaleType) {
+        return score(scaleType.ordinal() * 12 + root.relativePitch);
+    }
+
+    private double score(int k) {
+        int size = PitchClassSet.size(ScaleIndex.getPitchClassMask(k));
+        double histogramVariance = sumOfSquares - (double) totalWeight * totalWeight / 12;
+        double profileVariance = size * (12 - size) / 12.0;
+
+        // Scales that use every pitch class (or none) cannot tell anything apart
+        if (histogramVariance <= 0 || profileVariance == 0) return 0;
+
+        return (weightInCandidate[k] - (double) totalWeight * size / 12) / Math.sqrt(histogramVariance * profileVariance);
+    }
+
+    /**
+     * Ranks the candidates by score. Ties go to the candidate whose root was heard the most,
+     * and then to the ScaleType declared first (e.g., Major over Ionian).
+     * @param limit the maximum number of Scales to return (0 or more)
+     * @return the best candidates, best first, as shared immutable Scales (see Scale.of)
+     * @throws IllegalArgumentException if limit is negative
+     */
+    public List<Scale> getRankedScales(int limit) throws Exception {
+        if (limit < 0) throw new IllegalArgumentException("limit must not be negative: " + limit);
+
+        int[] best = new int[Math.min(limit, NUM_CANDIDATES)];
+        double[] bestScores = new double[best.length];
+        int found = 0;
+
+        // Keep the top candidates sorted with an insertion pass; limit is small compared to the candidate count
+        for (int k = 0; k < NUM_CANDIDATES; k++) {
+            if (ScaleIndex.getRoot(k) == null) continue;
+
+            double s = score(k);
+            int i = found;
+            while (i > 0 && isBetter(k, s, best[i - 1], bestScores[i - 1])) i--;
+            if (i == best.length) continue;
+
+            int last = Math.min(found, best.length - 1);
+            System.arraycopy(best, i, best, i + 1, last - i);
+            System.arraycopy(bestScores, i, bestScores, i + 1, last - i);
+            best[i] = k;
+            bestScores[i] = s;
+            if (found < best.length) found++;
+        }
+
+        List<Scale> scales = new ArrayList<Scale>(found);
+        for (int i = 0; i < found; i++) {
+            scales.add(Scale.of(ScaleIndex.getRoot(best[i]), ScaleIndex.getScaleType(best[i])));
+        }
+        return scales;
+    }
+
+    private boolean isBetter(int k, double score, int other, double otherScore) {
+        if (score != otherScore) return score > otherScore;
+        return histogram[k % 12] > histogram[other % 12];   // Candidates are visited in order, so k > other
+    }
+}
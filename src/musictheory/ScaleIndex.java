@@ -0,0 +1,152 @@
+package musictheory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A reverse index from every pitch-class set (see PitchClassSet) to the Scales that contain it.
+ *
+ * Candidate k is the ScaleType SCALE_TYPES[k / 12] with a root at relative pitch k % 12, spelled with
+ * the fewest accidentals (see SpellingTable.getPreferredRoot). The index holds, for each of the 4096 masks,
+ * the candidates whose pitch classes are a superset of the mask, in candidate order. It is stored as one
+ * char[] of candidate numbers plus an offset per mask, so that a query is a single range lookup.
+ *
+ * The index is built on first use by enumerating the subsets of each candidate's mask.
+ */
+public final class ScaleIndex {
+    private static final ScaleType[] SCALE_TYPES = ScaleType.values();
+    static final int NUM_CANDIDATES = SCALE_TYPES.length * 12;
+
+    private static final NoteType[] ROOTS = new NoteType[NUM_CANDIDATES];
+    private static final int[] MASKS = new int[NUM_CANDIDATES];
+
+    static {
+        for (ScaleType st : SCALE_TYPES) {
+            for (int rootPitch = 0; rootPitch < 12; rootPitch++) {
+                int k = st.ordinal() * 12 + rootPitch;
+                ROOTS[k] = SpellingTable.getPreferredRoot(st.nashvilleNumbers, rootPitch);
+                MASKS[k] = PitchClassSet.rotate(st.pitchClassMask, rootPitch);
+            }
+        }
+    }
+
+    private ScaleIndex() {}
+
+    /*
+     * Holder idiom: the reverse index is only built the first time it is queried.
+     * The candidates containing mask m are CANDIDATES[OFFSETS[m]] up to (but not including) CANDIDATES[OFFSETS[m + 1]].
+     */
+    private static final class Holder {
+        static final int[] OFFSETS = new int[PitchClassSet.CHROMATIC + 2];
+        static final char[] CANDIDATES;
+
+        static {
+            // First pass: count the candidates for each mask
+            for (int k = 0; k < NUM_CANDIDATES; k++) {
+                if (ROOTS[k] == null) continue;
+
+                int mask = MASKS[k];
+                for (int subset = mask; ; subset = (subset - 1) & mask) {
+                    OFFSETS[subset + 1]++;
+                    if (subset == 0) break;
+                }
+            }
+            for (int m = 1; m < OFFSETS.length; m++) {
+                OFFSETS[m] += OFFSETS[m - 1];
+            }
+
+            // Second pass: fill in the candidates, in candidate order
+            CANDIDATES = new char[OFFSETS[OFFSETS.length - 1]];
+            int[] next = Arrays.copyOf(OFFSETS, OFFSETS.length - 1);
+            for (int k = 0; k < NUM_CANDIDATES; k++) {
+                if (ROOTS[k] == null) continue;
+
+                int mask = MASKS[k];
+                for (int subset = mask; ; subset = (subset - 1) & mask) {
+                    CANDIDATES[next[subset]++] = (char) k;
+                    if (subset == 0) break;
+                }
+            }
+        }
+    }
+
+    /**
+     *
+     * @param candidate a candidate number
+     * @return the root NoteType of the candidate, or null if its ScaleType cannot be spelled at that root
+     */
+    static NoteType getRoot(int candidate) {
+        return ROOTS[candidate];
+    }
+
+    /**
+     *
+     * @param candidate a candidate number
+     * @return the ScaleType of the candidate
+     */
+    static ScaleType getScaleType(int candidate) {
+        return SCALE_TYPES[candidate / 12];
+    }
+
+    /**
+     *
+     * @param candidate a candidate number
+     * @return the pitch-class mask of the candidate
+     */
+    static int getPitchClassMask(int candidate) {
+        return MASKS[candidate];
+    }
+
+    /**
+     * This function operates in Θ(1) time.
+     * @param pitchClassMask a pitch-class mask
+     * @return the number of candidates whose pitch classes contain pitchClassMask
+     */
+    static int getCandidateCount(int pitchClassMask) {
+        return Holder.OFFSETS[pitchClassMask + 1] - Holder.OFFSETS[pitchClassMask];
+    }
+
+    /**
+     *
+     * @param pitchClassMask a pitch-class mask
+     * @param i the position of the candidate, from 0 to getCandidateCount(pitchClassMask) - 1
+     * @return the i-th candidate whose pitch classes contain pitchClassMask
+     */
+    static int getCandidate(int pitchClassMask, int i) {
+        return Holder.CANDIDATES[Holder.OFFSETS[pitchClassMask] + i];
+    }
+
+    /**
+     * Finds every Scale that contains the given NoteTypes, irrespective of spelling (e.g., C, E♭ and B).
+     * @param noteTypes the NoteTypes that must be in the Scale
+     * @return the matching Scales, as shared immutable Scales (see Scale.of), ordered by ScaleType and then root
+     */
+    public static List<Scale> getScalesContaining(NoteType... noteTypes) throws Exception {
+        return getScalesContaining(PitchClassSet.of(noteTypes));
+    }
+
+    /**
+     *
+     * @param notes the Notes that must be in the Scale (their octaves do not matter)
+     * @return the matching Scales, as shared immutable Scales (see Scale.of), ordered by ScaleType and then root
+     */
+    public static List<Scale> getScalesContaining(Note... notes) throws Exception {
+        int mask = PitchClassSet.EMPTY;
+        for (Note n : notes) {
+            mask |= 1 << n.getNoteType().relativePitch;
+        }
+        return getScalesContaining(mask);
+    }
+
+    static List<Scale> getScalesContaining(int pitchClassMask) throws Exception {
+        int count = getCandidateCount(pitchClassMask);
+
+        List<Scale> scales = new ArrayList<Scale>(count);
+        for (int i = 0; i < count; i++) {
+            int k = getCandidate(pitchClassMask, i);
+            scales.add(Scale.of(ROOTS[k], getScaleType(k)));
+        }
+        return scales;
+    }
+}
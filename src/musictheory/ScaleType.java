@@ -538,10 +538,12 @@ public enum ScaleType {
     final String name;
     final NashvilleNumber[] nashvilleNumbers;
     final Tonality tonality;
+    final int pitchClassMask;   // Relative pitches of the ScaleType with a root of C (see PitchClassSet)
 
     ScaleType(String name, NashvilleNumber[] nashvilleNumbers, Tonality tonality) {
         this.name = name;
         this.nashvilleNumbers = nashvilleNumbers;
         this.tonality = tonality;
+        this.pitchClassMask = PitchClassSet.of(nashvilleNumbers);
     }
 }
@@ -0,0 +1,239 @@
+package musictheory;
+
+import static musictheory.Accidental.*;
+import static musictheory.NoteType.*;
+
+/**
+ * A precomputed table of spelled NoteTypes, indexed by (root NoteType ordinal, NashvilleNumber ordinal).
+ *
+ * The table is generated once, at class load, by running the spelling rules in spellByRules
+ * for every root and every NashvilleNumber. Combinations that the rules cannot spell are stored as null.
+ * Roots with a natural accidental share the row of their non-accidental equivalent.
+ *
+ * A second table holds every NoteType moved by every (letter steps, semitones) pair, which is all that
+ * transposition needs to respell a root: the structure above the root is spelled by the first table.
+ */
+final class SpellingTable {
+    private static final NoteType[][] TABLE = build();
+
+    // [NoteType ordinal][letter steps (0 - 6)][semitones (0 - 11)] -> transposed NoteType, or null
+    private static final NoteType[][][] TRANSPOSED = buildTransposed();
+
+    private SpellingTable() {}
+
+    private static NoteType[][] build() {
+        NoteType[] roots = NoteType.values();
+        NashvilleNumber[] nashvilleNumbers = NashvilleNumber.values();
+        NoteType[][] table = new NoteType[roots.length][nashvilleNumbers.length];
+
+        for (NoteType root : roots) {
+            for (NashvilleNumber nn : nashvilleNumbers) {
+                try {
+                    table[root.ordinal()][nn.ordinal()] = spellByRules(root, nn);
+                } catch (Exception e) {
+                    table[root.ordinal()][nn.ordinal()] = null;
+                }
+            }
+        }
+
+        return table;
+    }
+
+    private static NoteType[][][] buildTransposed() {
+        NoteType[] noteTypes = NoteType.values();
+        NoteType[][][] table = new NoteType[noteTypes.length][7][12];
+
+        for (NoteType nt : noteTypes) {
+            for (int letterSteps = 0; letterSteps < 7; letterSteps++) {
+                char letter = (char) ('A' + (nt.letter - 'A' + letterSteps) % 7);
+                int letterPitch = getNoteType(letter, NONE).relativePitch;
+
+                for (int semitones = 0; semitones < 12; semitones++) {
+                    // How far the target pitch is from the bare letter, from -6 to 5
+                    int offset = Math.floorMod(nt.relativePitch + semitones - letterPitch + 6, 12) - 6;
+
+                    for (Accidental a : Accidental.values()) {
+                        if (a.semitones == offset && a != NATURAL) {
+                            table[nt.ordinal()][letterSteps][semitones] = getNoteType(letter, a);
+                        }
+                    }
+                }
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     * This function operates in Θ(1) time.
+     * @param root the root NoteType to count up from
+     * @param nashvilleNumber the desired interval above root
+     * @return the spelled NoteType at nashvilleNumber above root, or null if it cannot be spelled
+     */
+    static NoteType spell(NoteType root, NashvilleNumber nashvilleNumber) {
+        return TABLE[root.ordinal()][nashvilleNumber.ordinal()];
+    }
+
+    /**
+     * Picks the spelling of a root pitch that gives an IntervalSet the fewest accidentals (e.g., D♭maj over C♯maj).
+     * Only roots without a natural or double accidental are considered, and ties go to the NoteType declared first.
+     * @param nashvilleNumbers the NashvilleNumbers of the ChordType or ScaleType to spell
+     * @param rootPitch the relative pitch of the root
+     * @return the best root NoteType, or null if no spelling of rootPitch can spell every NashvilleNumber
+     */
+    static NoteType getPreferredRoot(NashvilleNumber[] nashvilleNumbers, int rootPitch) {
+        NoteType best = null;
+        int bestCount = Integer.MAX_VALUE;
+
+        for (NoteType candidate : NoteType.values()) {
+            if (candidate.relativePitch != rootPitch || candidate.isNatural() || candidate.isDoubleAccidental()) continue;
+
+            int count = countAccidentals(candidate);
+            for (int i = 1; i < nashvilleNumbers.length && count < bestCount; i++) {
+                NoteType nt = spell(candidate, nashvilleNumbers[i]);
+                count = (nt == null) ? Integer.MAX_VALUE : count + countAccidentals(nt);
+            }
+
+            if (count < bestCount) {
+                best = candidate;
+                bestCount = count;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Moves a NoteType by an interval given as a number of letters and a number of semitones
+     * (e.g., C♯ moved by 1 letter and 1 semitone is D, while D♭ moved the same way is E♭♭).
+     * This function operates in Θ(1) time.
+     * @param noteType the NoteType to move (a natural sign is dropped)
+     * @param letterSteps the number of letters to move up by (taken modulo 7)
+     * @param semitones the number of semitones to move up by (taken modulo 12)
+     * @return the moved NoteType, or null if it would need more than a double accidental
+     */
+    static NoteType transpose(NoteType noteType, int letterSteps, int semitones) {
+        return TRANSPOSED[noteType.ordinal()][Math.floorMod(letterSteps, 7)][Math.floorMod(semitones, 12)];
+    }
+
+    /**
+     * Moves a NoteType by the interval between two other NoteTypes, keeping the letter distance
+     * (e.g., moving from C to E♭ takes A to C, not to B♯).
+     * @param noteType the NoteType to move
+     * @param from the NoteType that the interval starts at
+     * @param to the NoteType that the interval ends at
+     * @return the moved NoteType, or null if it would need more than a double accidental
+     */
+    static NoteType transpose(NoteType noteType, NoteType from, NoteType to) {
+        return transpose(noteType, to.letter - from.letter, to.relativePitch - from.relativePitch);
+    }
+
+    private static int countAccidentals(NoteType nt) {
+        if (nt.isDoubleAccidental()) return 2;
+        return (nt.accidental == NONE || nt.accidental == NATURAL) ? 0 : 1;
+    }
+
+    /**
+     * Spells the NoteType at the specified NashvilleNumber above a root, by first trying the root's accidental
+     * on the target letter and then correcting it by the remaining semitone offset.
+     * This is the rule set that the table is generated from.
+     *
+     * The result may carry a natural accidental; IntervalSet drops it when the letter directly follows
+     * the previous NoteType in the set, since that depends on more than the root and the NashvilleNumber.
+     * @param root the root NoteType to count up from
+     * @param nashvilleNumber the desired interval above root
+     * @return the spelled NoteType at nashvilleNumber above root
+     * @throws Exception if the rules cannot spell the combination
+     */
+    static NoteType spellByRules(NoteType root, NashvilleNumber nashvilleNumber) throws Exception {
+
+        // A root with a natural accidental is spelled the same as its non-accidental equivalent
+        if (root.isNatural()) root = getNoteType(root.letter, NONE);
+
+        char nextNoteLetter = Theory.getNoteLetterForNashvilleNumber(root, nashvilleNumber);
+        NoteType candidate = getNoteType(nextNoteLetter, root.accidental);
+
+        int candidateRelativePitch = candidate.relativePitch;
+        int comparisonRelativePitch = (root.relativePitch + nashvilleNumber.relativePitchDistance) % 12;
+        int offset = comparisonRelativePitch - candidateRelativePitch;
+
+        if (offset == 0) {
+            return candidate; // they match, so we're done
+        }
+
+        Accidental newAccidental;
+        switch (offset) {
+            case -2: newAccidental = DOUBLE_FLAT; break;
+            case -1: newAccidental = FLAT; break;
+            case 1: newAccidental = SHARP; break;
+            case 2: newAccidental = DOUBLE_SHARP; break;
+            default: newAccidental = NONE;
+        }
+
+        candidate = Theory.applyAccidentalTo(candidate, newAccidental);
+        if (candidate.relativePitch == comparisonRelativePitch) {
+            return candidate; // match on second attempt (done)
+        }
+
+        candidate = getNoteType(candidate.letter, newAccidental);
+        if (candidate.relativePitch == comparisonRelativePitch) {
+            return candidate; // match on third attempt (done)
+        }
+
+        candidateRelativePitch = candidate.relativePitch;
+        offset = comparisonRelativePitch - candidateRelativePitch;
+
+        if (root.accidental.equals(DOUBLE_FLAT)) {
+            switch (offset) {
+                case 9: {
+                    newAccidental = FLAT;
+                    candidate = getNoteType(Theory.getPreviousNoteLetter(candidate), newAccidental);
+                    break;
+                }
+                case -1: {
+                    newAccidental = DOUBLE_FLAT;
+                    candidate = getNoteType(nextNoteLetter, newAccidental);
+                    break;
+                }
+                default: throw new Exception("uncaught value of " + offset + " on " + nashvilleNumber);
+            }
+        }
+        else if (root.accidental.equals(FLAT)) {
+            switch (offset) {
+                case -1: newAccidental = SHARP; break;
+                case 1: newAccidental = SHARP; break;
+                default: throw new Exception("uncaught value of " + offset + " on " + nashvilleNumber);
+            }
+
+            candidate = getNoteType(candidate.letter, newAccidental);
+        }
+        else if (root.accidental.equals(SHARP)) {
+            switch (offset) {
+                case -1: newAccidental = FLAT; break;
+                case 1: newAccidental = FLAT; break;
+                default: throw new Exception("uncaught value of " + offset + " on " + nashvilleNumber);
+            }
+
+            candidate = getNoteType(candidate.letter, newAccidental);
+        }
+        else if (root.accidental.equals(DOUBLE_SHARP)) {
+            switch (offset) {
+                case -9: newAccidental = SHARP; break;
+                default: throw new Exception("uncaught value of " + offset + " on " + nashvilleNumber);
+            }
+
+            candidate = getNoteType(Theory.getNextNoteLetter(candidate), newAccidental);
+        }
+        else if (root.accidental.equals(NONE)) {
+            switch (offset) {
+                case -11: newAccidental = SHARP; break;
+                case 11: newAccidental = FLAT; break;
+                default: throw new Exception("uncaught value of " + offset + " on " + nashvilleNumber);
+            }
+
+            candidate = getNoteType(candidate.letter, newAccidental);
+        }
+
+        return candidate;
+    }
+}
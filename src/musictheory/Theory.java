@@ -1,5 +1,10 @@
 package musictheory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import static musictheory.NoteType.*;
 import static musictheory.Accidental.*;
 
@@ -8,24 +13,110 @@ import static musictheory.Accidental.*;
  */
 class Theory {
 
+    /*
+     * Enharmonic equivalents for every combination of the (wantNatural, wantDoubleAccidentals) flags,
+     * indexed by [flags][relativePitch], where flags = (wantNatural ? 1 : 0) | (wantDoubleAccidentals ? 2 : 0).
+     * The lists are unmodifiable and the masks have bit n set for the NoteType with ordinal n,
+     * so neither needs to be copied before it is handed out.
+     */
+    private static final List<NoteType>[][] ENHARMONIC_EQUIVALENTS = buildEnharmonicEquivalents();
+    private static final long[][] ENHARMONIC_EQUIVALENT_MASKS = buildEnharmonicEquivalentMasks();
+
+    // The result of applyAccidentalTo, indexed by [NoteType ordinal][Accidental ordinal]
+    private static final NoteType[][] APPLIED_ACCIDENTALS = buildAppliedAccidentals();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<NoteType>[][] buildEnharmonicEquivalents() {
+        List<NoteType>[][] table = new List[4][12];
+        for (int flags = 0; flags < 4; flags++) {
+            for (int relativePitch = 0; relativePitch < 12; relativePitch++) {
+                NoteType[] equivalents = enharmonicEquivalentsOf(relativePitch, (flags & 1) != 0, (flags & 2) != 0);
+                table[flags][relativePitch] = Collections.unmodifiableList(Arrays.asList(equivalents));
+            }
+        }
+        return table;
+    }
+
+    private static long[][] buildEnharmonicEquivalentMasks() {
+        long[][] masks = new long[4][12];
+        for (int flags = 0; flags < 4; flags++) {
+            for (int relativePitch = 0; relativePitch < 12; relativePitch++) {
+                for (NoteType nt : ENHARMONIC_EQUIVALENTS[flags][relativePitch]) {
+                    masks[flags][relativePitch] |= 1L << nt.ordinal();
+                }
+            }
+        }
+        return masks;
+    }
+
+    private static int enharmonicFlags(boolean wantNatural, boolean wantDoubleAccidentals) {
+        return (wantNatural ? 1 : 0) | (wantDoubleAccidentals ? 2 : 0);
+    }
+
     /**
      * Gets all NoteTypes that are enharmonically equivalent to the specified NoteType.
+     * The returned array is a copy, so callers may modify it; use getEnharmonicEquivalentsView()
+     * or getEnharmonicEquivalentsMask() to avoid the copy.
      * @param noteType the NoteType to receive enharmonic equivalents for
      * @param wantNatural whether to include natural accidentals in the returned list
      * @param wantDoubleAccidentals whether to include double accidentals in the returned list
      * @return a list of enharmonic equivalents for the given NoteType
      */
     static final NoteType[] getEnharmonicEquivalents(NoteType noteType, boolean wantNatural, boolean wantDoubleAccidentals) {
+        List<NoteType> equivalents = getEnharmonicEquivalentsView(noteType, wantNatural, wantDoubleAccidentals);
+        return equivalents.toArray(new NoteType[equivalents.size()]);
+    }
+
+    /**
+     * Gets all NoteTypes that are enharmonically equivalent to the specified NoteType, without allocating.
+     * This function operates in Θ(1) time.
+     * @param noteType the NoteType to receive enharmonic equivalents for
+     * @param wantNatural whether to include natural accidentals in the returned list
+     * @param wantDoubleAccidentals whether to include double accidentals in the returned list
+     * @return a shared, unmodifiable list of enharmonic equivalents for the given NoteType
+     */
+    static final List<NoteType> getEnharmonicEquivalentsView(NoteType noteType, boolean wantNatural, boolean wantDoubleAccidentals) {
+        return ENHARMONIC_EQUIVALENTS[enharmonicFlags(wantNatural, wantDoubleAccidentals)][noteType.relativePitch];
+    }
+
+    /**
+     * This function operates in Θ(1) time.
+     * @param noteType the NoteType to receive enharmonic equivalents for
+     * @param wantNatural whether to include natural accidentals in the mask
+     * @param wantDoubleAccidentals whether to include double accidentals in the mask
+     * @return a mask with bit n set if the NoteType with ordinal n is an enharmonic equivalent of noteType
+     */
+    static final long getEnharmonicEquivalentsMask(NoteType noteType, boolean wantNatural, boolean wantDoubleAccidentals) {
+        return ENHARMONIC_EQUIVALENT_MASKS[enharmonicFlags(wantNatural, wantDoubleAccidentals)][noteType.relativePitch];
+    }
+
+    /**
+     * A membership test against the enharmonic equivalents of noteType, without allocating.
+     * This function operates in Θ(1) time.
+     * @param noteType the NoteType to receive enharmonic equivalents for
+     * @param candidate the NoteType to look for among the equivalents
+     * @param wantNatural whether natural accidentals count as equivalents
+     * @param wantDoubleAccidentals whether double accidentals count as equivalents
+     * @return whether candidate is in getEnharmonicEquivalents(noteType, wantNatural, wantDoubleAccidentals)
+     */
+    static final boolean isEnharmonicEquivalent(NoteType noteType, NoteType candidate, boolean wantNatural, boolean wantDoubleAccidentals) {
+        return (getEnharmonicEquivalentsMask(noteType, wantNatural, wantDoubleAccidentals) & (1L << candidate.ordinal())) != 0;
+    }
+
+    /**
+     * The source data for the enharmonic tables above; only called while they are being built.
+     * @param relativePitch the relative pitch (0 - 11) to receive enharmonic equivalents for
+     * @param wantNatural whether to include natural accidentals in the returned list
+     * @param wantDoubleAccidentals whether to include double accidentals in the returned list
+     * @return a list of enharmonic equivalents for the given relative pitch
+     */
+    private static NoteType[] enharmonicEquivalentsOf(int relativePitch, boolean wantNatural, boolean wantDoubleAccidentals) {
         /*
-         * The switch statement operates at O(n) in worst-case (e.g., reaching the default case),
-         * but since I've already done some preprocessing to get the enharmonics for each case,
-         * returning the result is Θ(1).
-         *
          * While it's possible to have implemented the switch-case as a HashMap to allow
          * constant access time for all results, I would argue that it is (somewhat) easier to
          * read and debug this logic when structured as a switch-case.
          */
-        switch (noteType.relativePitch) {
+        switch (relativePitch) {
             case 0: { // B# | C | CNat | Dbb
                 if (wantNatural && wantDoubleAccidentals) {
                     return new NoteType[] {B_SHARP, C, C_NATURAL, D_DOUBLE_FLAT};
@@ -226,11 +317,36 @@ class Theory {
      * Gives back the NoteType that would be the enharmonic result from applying the specified Accidental
      * to the specified NoteType. This function does not perform any side effects to the
      * original NoteType.
+     * This function operates in Θ(1) time (a single read from a table generated by applyAccidentalByRules).
      * @param original the NoteType in question
      * @param accidentalToApply the Accidental to apply to original
      * @return the NoteType that enharmonically matches the result from applying the specified accidental to it
      */
     static final NoteType applyAccidentalTo(NoteType original, Accidental accidentalToApply) {
+        return APPLIED_ACCIDENTALS[original.ordinal()][accidentalToApply.ordinal()];
+    }
+
+    private static NoteType[][] buildAppliedAccidentals() {
+        NoteType[] noteTypes = NoteType.values();
+        Accidental[] accidentals = Accidental.values();
+        NoteType[][] table = new NoteType[noteTypes.length][accidentals.length];
+
+        for (NoteType nt : noteTypes) {
+            for (Accidental accidental : accidentals) {
+                table[nt.ordinal()][accidental.ordinal()] = applyAccidentalByRules(nt, accidental);
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     * The rules that the applyAccidentalTo table is generated from. Every combination has a result.
+     * @param original the NoteType in question
+     * @param accidentalToApply the Accidental to apply to original
+     * @return the NoteType that enharmonically matches the result from applying the specified accidental to it
+     */
+    static NoteType applyAccidentalByRules(NoteType original, Accidental accidentalToApply) {
         Accidental a = original.accidental, b = accidentalToApply;
 
         // ACCIDENTAL && (NATURAL || NONE) == ACCIDENTAL
@@ -254,7 +370,7 @@ class Theory {
         // FLAT && FLAT = DOUBLE FLAT;
         // SHARP && SHARP =  DOUBLE SHARP
         else if ((a.equals(FLAT) && b.equals(FLAT)) || (a.equals(SHARP) && b.equals(SHARP))) {
-            Accidental doubleAccidental = Enum.valueOf(Accidental.class, "DOUBLE_" + a.name());
+            Accidental doubleAccidental = a.equals(FLAT) ? DOUBLE_FLAT : DOUBLE_SHARP;
 
             // flat + flat = double flat; sharp + sharp = double sharp
             return getNoteType(original.letter, doubleAccidental);
@@ -299,22 +415,11 @@ class Theory {
         }
 
         // DOUBLE SHARP && FLAT; DOUBLE FLAT && SHARP
+        // These are the only remaining combinations: a double flat on either side
+        // nets out to a single flat, and a double sharp to a single sharp.
         else {
-            if (a.equals(SHARP) && b.equals(DOUBLE_FLAT)) {
-                return getNoteType(original.letter, FLAT);
-            }
-            else if (a.equals(FLAT) && b.equals(DOUBLE_SHARP)) {
-                return getNoteType(original.letter, SHARP);
-            }
-            else if (a.equals(DOUBLE_SHARP) && b.equals(FLAT)) {
-                return getNoteType(original.letter, SHARP);
-            }
-            else if (a.equals(DOUBLE_FLAT) && b.equals(SHARP)) {
-                return getNoteType(original.letter, FLAT);
-            }
-            else {
-                return null; // error
-            }
+            boolean netFlat = a.equals(DOUBLE_FLAT) || b.equals(DOUBLE_FLAT);
+            return getNoteType(original.letter, netFlat ? FLAT : SHARP);
         }
     }
 
@@ -331,28 +436,72 @@ class Theory {
     }
 
     /**
-     *
-     * @param scale
-     * @param note
-     * @return
+     * Transposes a Scale to a new root, reusing everything that does not depend on the root (see Scale(Scale, NoteType)).
+     * @param scale the Scale to transpose
+     * @param note the root NoteType of the transposed Scale
+     * @return a new Scale, at the same Octave as scale
      */
     static final Scale transpose(Scale scale, NoteType note) throws Exception {
-        Scale s = new Scale(note, scale.getScaleType());
-        s.setOctave(scale.octave);
-        return s;
+        return new Scale(scale, note);
     }
 
     /**
-     * 
-     * @param chord
-     * @param note
-     * @return
+     * Transposes a Chord to a new root, keeping its Octave and inversion (see Chord(Chord, NoteType)).
+     * @param chord the Chord to transpose
+     * @param note the root NoteType of the transposed Chord
+     * @return a new Chord, at the same Octave as chord
      */
     static final Chord transpose(Chord chord, NoteType note) throws Exception {
-        Chord c =  new Chord(note, chord.getChordType());
-        c.setOctave(chord.octave);
-        return c;
+        return new Chord(chord, note);
+    }
+
+    /**
+     * Transposes every Chord of a progression by the interval from one key's tonic to another's.
+     * Each root keeps its letter distance from the tonic (e.g., from C to E♭, Am becomes Cm rather than B♯m),
+     * unless that would take more than a double accidental to spell, in which case the root is respelled
+     * with the fewest accidentals.
+     * This function operates in Θ(n) time in the number of Notes in the progression.
+     * @param progression the Chords to transpose, in order; they are not modified
+     * @param from the tonic of the progression's key
+     * @param to the tonic of the key to transpose into
+     * @return the transposed Chords, in order
+     */
+    static final List<Chord> transpose(List<Chord> progression, NoteType from, NoteType to) throws Exception {
+        int letterSteps = to.letter - from.letter;
+        int semitones = to.relativePitch - from.relativePitch;
+
+        List<Chord> transposed = new ArrayList<>(progression.size());
+        for (Chord chord : progression) {
+            transposed.add(new Chord(chord, transposeRoot(chord, letterSteps, semitones)));
+        }
+        return transposed;
     }
-}
 
+    private static NoteType transposeRoot(Chord chord, int letterSteps, int semitones) {
+        NoteType root = SpellingTable.transpose(chord.getRootNoteType(), letterSteps, semitones);
+        if (root != null) return root;
 
+        int rootPitch = Math.floorMod(chord.getRootNoteType().relativePitch + semitones, 12);
+        return SpellingTable.getPreferredRoot(chord.getChordType().nashvilleNumbers, rootPitch);
+    }
+
+    /**
+     * Transposes a progression into all 12 keys at once, e.g. for showing a song in every key.
+     * Each key's tonic is the spelling with the fewest accidentals for the key's ScaleType (e.g., E♭ major, not D♯ major).
+     * @param progression the Chords to transpose, in order; they are not modified
+     * @param key the key of the progression
+     * @return 12 transposed progressions, where element i is transposed up by i semitones (element 0 is a copy)
+     */
+    static final List<List<Chord>> transposeToAllKeys(List<Chord> progression, Scale key) throws Exception {
+        NoteType tonic = key.getRootNoteType();
+        NashvilleNumber[] nashvilleNumbers = key.getNashvilleNumbers();
+
+        List<List<Chord>> keys = new ArrayList<>(12);
+        for (int semitones = 0; semitones < 12; semitones++) {
+            int tonicPitch = (tonic.relativePitch + semitones) % 12;
+            NoteType newTonic = (semitones == 0) ? tonic : SpellingTable.getPreferredRoot(nashvilleNumbers, tonicPitch);
+            keys.add(transpose(progression, tonic, newTonic));
+        }
+        return keys;
+    }
+}
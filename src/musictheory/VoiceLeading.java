@@ -0,0 +1,199 @@
+package musictheory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Chooses an inversion and an Octave for every Chord of a progression, so that the voices move as little as possible.
+ *
+ * The candidate voicings of each Chord are all of its inversions (see Chord.setToInversion) at every Octave
+ * in a register (see IntervalSet.setOctave). The cheapest path through the candidates is found with dynamic
+ * programming (Viterbi), which takes Θ(n) time in the number of Chords for a fixed register.
+ *
+ * The cost of moving between two voicings is the number of semitones the voices travel:
+ * when both voicings have the same number of Notes, their pitches are paired off from the bottom up;
+ * otherwise, each pitch of the larger voicing is paired with the nearest pitch of the smaller one.
+ */
+public final class VoiceLeading {
+    private final Chord[] chords;
+    private final int[] costs;
+    private final int totalCost;
+
+    private VoiceLeading(Chord[] chords, int[] costs, int totalCost) {
+        this.chords = chords;
+        this.costs = costs;
+        this.totalCost = totalCost;
+    }
+
+    /**
+     * Voices a progression within a middle register (OCTAVE_THREE to OCTAVE_FIVE).
+     * @param progression the Chords to voice, in order; they are not modified
+     * @return the voiced progression and its costs
+     */
+    public static VoiceLeading optimize(List<Chord> progression) throws Exception {
+        return optimize(progression, Octave.OCTAVE_THREE, Octave.OCTAVE_FIVE);
+    }
+
+    /**
+     *
+     * @param progression the Chords to voice, in order; they are not modified
+     * @param lowest the lowest Octave a Chord may be placed at
+     * @param highest the highest Octave a Chord may be placed at
+     * @return the voiced progression and its costs
+     * @throws IllegalArgumentException if lowest is above highest
+     */
+    public static VoiceLeading optimize(List<Chord> progression, Octave lowest, Octave highest) throws Exception {
+        if (lowest.ordinal() > highest.ordinal()) {
+            throw new IllegalArgumentException("lowest Octave " + lowest + " is above highest Octave " + highest);
+        }
+
+        int n = progression.size();
+        if (n == 0) return new VoiceLeading(new Chord[0], new int[0], 0);
+
+        // Every distinct voicing of every Chord, as sorted pitches, along with how to produce it
+        int[][][] voicings = new int[n][][];
+        Octave[][] octaves = new Octave[n][];
+        int[][] inversions = new int[n][];
+        for (int i = 0; i < n; i++) {
+            buildCandidates(progression.get(i), lowest, highest, i, voicings, octaves, inversions);
+        }
+
+        // best[i][c]: the cheapest cost of voicing Chords 0..i with Chord i voiced as candidate c
+        int[][] best = new int[n][];
+        int[][] previous = new int[n][];
+        best[0] = new int[voicings[0].length];
+
+        for (int i = 1; i < n; i++) {
+            best[i] = new int[voicings[i].length];
+            previous[i] = new int[voicings[i].length];
+
+            for (int c = 0; c < voicings[i].length; c++) {
+                int bestCost = Integer.MAX_VALUE;
+                for (int p = 0; p < voicings[i - 1].length; p++) {
+                    int cost = best[i - 1][p] + getCost(voicings[i - 1][p], voicings[i][c]);
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        previous[i][c] = p;
+                    }
+                }
+                best[i][c] = bestCost;
+            }
+        }
+
+        // Walk the cheapest path back from the last Chord
+        int[] chosen = new int[n];
+        for (int c = 1; c < best[n - 1].length; c++) {
+            if (best[n - 1][c] < best[n - 1][chosen[n - 1]]) chosen[n - 1] = c;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            chosen[i - 1] = previous[i][chosen[i]];
+        }
+
+        Chord[] chords = new Chord[n];
+        int[] costs = new int[n - 1];
+        for (int i = 0; i < n; i++) {
+            Chord chord = new Chord(progression.get(i));
+            chord.setOctave(octaves[i][chosen[i]]);
+            chord.setToInversion(inversions[i][chosen[i]]);
+            chords[i] = chord;
+
+            if (i > 0) costs[i - 1] = getCost(voicings[i - 1][chosen[i - 1]], voicings[i][chosen[i]]);
+        }
+
+        return new VoiceLeading(chords, costs, best[n - 1][chosen[n - 1]]);
+    }
+
+    private static void buildCandidates(Chord original, Octave lowest, Octave highest, int index,
+                                        int[][][] voicings, Octave[][] octaves, int[][] inversions) throws Exception {
+        Chord chord = new Chord(original);
+        int numNotes = chord.notes.length;
+        int maxCandidates = (highest.ordinal() - lowest.ordinal() + 1) * numNotes;
+
+        List<int[]> found = new ArrayList<int[]>(maxCandidates);
+        Octave[] foundOctaves = new Octave[maxCandidates];
+        int[] foundInversions = new int[maxCandidates];
+
+        int[] pitches = new int[numNotes];
+        for (Octave o : Octave.values()) {
+            if (o.ordinal() < lowest.ordinal() || o.ordinal() > highest.ordinal()) continue;
+
+            chord.setOctave(o);
+            for (int inversion = 0; inversion < numNotes; inversion++) {
+                chord.getPitchesForInversion(inversion, pitches);
+                int[] sorted = pitches.clone();
+                Arrays.sort(sorted);
+
+                // Octaves are clamped at the edges of the MIDI range, so the same voicing can show up twice
+                if (!containsVoicing(found, sorted)) {
+                    foundOctaves[found.size()] = o;
+                    foundInversions[found.size()] = inversion;
+                    found.add(sorted);
+                }
+            }
+        }
+
+        voicings[index] = found.toArray(new int[found.size()][]);
+        octaves[index] = Arrays.copyOf(foundOctaves, found.size());
+        inversions[index] = Arrays.copyOf(foundInversions, found.size());
+    }
+
+    private static boolean containsVoicing(List<int[]> voicings, int[] voicing) {
+        for (int[] v : voicings) {
+            if (Arrays.equals(v, voicing)) return true;
+        }
+        return false;
+    }
+
+    /**
+     *
+     * @param from the sorted pitches of a voicing
+     * @param to the sorted pitches of the following voicing
+     * @return the number of semitones that the voices travel between the two voicings
+     */
+    static int getCost(int[] from, int[] to) {
+        int cost = 0;
+        if (from.length == to.length) {
+            for (int i = 0; i < from.length; i++) {
+                cost += Math.abs(from[i] - to[i]);
+            }
+        }
+        else {
+            int[] larger = from.length > to.length ? from : to;
+            int[] smaller = from.length > to.length ? to : from;
+            for (int pitch : larger) {
+                int nearest = Integer.MAX_VALUE;
+                for (int other : smaller) {
+                    nearest = Math.min(nearest, Math.abs(pitch - other));
+                }
+                cost += nearest;
+            }
+        }
+        return cost;
+    }
+
+    /**
+     *
+     * @return an unmodifiable list of the voiced Chords (new, mutable copies of the progression's Chords)
+     */
+    public List<Chord> getChords() {
+        return Collections.unmodifiableList(Arrays.asList(chords));
+    }
+
+    /**
+     *
+     * @return the cost of each move, where element i is the cost from Chord i to Chord i + 1
+     */
+    public int[] getCosts() {
+        return costs.clone();
+    }
+
+    /**
+     *
+     * @return the total number of semitones the voices travel over the whole progression
+     */
+    public int getTotalCost() {
+        return totalCost;
+    }
+}
@@ -0,0 +1,105 @@
+package generator;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class BjorklundTest {
+
+    @Test
+    public void testEuclidean() throws Exception {
+        // Step i is bit i, so the patterns read backwards in binary
+        assertEquals(0b01001001L, Bjorklund.euclidean(8, 3));          // x..x..x.
+        assertEquals(0b0100101001001L, Bjorklund.euclidean(13, 5));    // x..x..x.x..x.
+        assertEquals(0b1011010110101L, Bjorklund.euclidean(13, 8));    // x.x.xx.x.xx.x
+        assertEquals(0L, Bjorklund.euclidean(8, 0));
+        assertEquals(0xFFL, Bjorklund.euclidean(8, 8));
+        assertEquals(0L, Bjorklund.euclidean(0, 0));
+        assertEquals(-1L, Bjorklund.euclidean(64, 64));
+    }
+
+    @Test
+    public void testRotationOfComputeBitmap() throws Exception {
+        for (int steps = 2; steps <= Bjorklund.MAX_PACKED_STEPS; steps++) {
+            for (int pulses = 1; pulses <= steps; pulses++) {
+                boolean[] bitmap = new Bjorklund().compute_bitmap(steps, pulses);
+                long pattern = Bjorklund.euclidean(steps, pulses);
+
+                assertEquals(pulses, Long.bitCount(pattern));
+                assertTrue("E(" + pulses + ", " + steps + ") starts on a pulse", (pattern & 1) != 0);
+                assertTrue("E(" + pulses + ", " + steps + ")", isRotation(pattern, bitmap));
+            }
+        }
+    }
+
+    @Test
+    public void testLongAndWordsAgree() throws Exception {
+        long[] words = new long[2];
+        for (int steps = 0; steps <= Bjorklund.MAX_PACKED_STEPS; steps++) {
+            for (int pulses = 0; pulses <= steps; pulses++) {
+                Arrays.fill(words, -1L);
+                Bjorklund.euclidean(steps, pulses, words);
+                assertEquals(Bjorklund.euclidean(steps, pulses), words[0]);
+                assertEquals(0L, words[1]);     // Words past the pattern are cleared
+            }
+        }
+    }
+
+    @Test
+    public void testWords() throws Exception {
+        for (int steps = 65; steps <= 200; steps += 9) {
+            for (int pulses = 0; pulses <= steps; pulses += 7) {
+                long[] words = new long[Bjorklund.getWordCount(steps)];
+                Bjorklund.euclidean(steps, pulses, words);
+
+                int count = 0;
+                for (int i = 0; i < steps; i++) {
+                    boolean expected = (long) i * pulses % steps < pulses;
+                    assertEquals(expected, (words[i >>> 6] & (1L << i)) != 0);
+                    if (expected) count++;
+                }
+                assertEquals(pulses, count);
+                if ((steps & 63) != 0) assertEquals(0L, words[words.length - 1] >>> (steps & 63));
+            }
+        }
+    }
+
+    @Test
+    public void testGetWordCount() throws Exception {
+        assertEquals(0, Bjorklund.getWordCount(0));
+        assertEquals(1, Bjorklund.getWordCount(1));
+        assertEquals(1, Bjorklund.getWordCount(64));
+        assertEquals(2, Bjorklund.getWordCount(65));
+        assertEquals(33554432, Bjorklund.getWordCount(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testInvalidArguments() throws Exception {
+        int[][] invalid = {{-1, 0}, {8, -1}, {8, 9}, {Bjorklund.MAX_PACKED_STEPS + 1, 1}};
+        for (int[] args : invalid) {
+            try {
+                Bjorklund.euclidean(args[0], args[1]);
+                fail(Arrays.toString(args));
+            } catch (IllegalArgumentException ex) {}
+        }
+
+        try {
+            Bjorklund.euclidean(65, 1, new long[1]);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    private static boolean isRotation(long pattern, boolean[] bitmap) {
+        int steps = bitmap.length;
+        for (int r = 0; r < steps; r++) {
+            boolean matches = true;
+            for (int i = 0; i < steps && matches; i++) {
+                matches = ((pattern & (1L << ((i + r) % steps))) != 0) == bitmap[i];
+            }
+            if (matches) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,186 @@
+package generator;
+
+import musictheory.NashvilleNumber;
+import org.jgrapht.alg.DijkstraShortestPath;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static musictheory.NashvilleNumber.*;
+import static org.junit.Assert.*;
+
+public class CompactProgressionGraphTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        ChordProgression original = new MajorProgressionGraph1();
+        CompactProgressionGraph compact = CompactProgressionGraph.of(original);
+
+        assertEquals(original.vertexSet().size(), compact.vertexCount());
+        assertEquals(original.edgeSet().size(), compact.edgeCount());
+        for (NashvilleNumber v : original.vertexSet()) {
+            assertTrue(compact.containsVertex(v));
+            assertEquals(original.outDegreeOf(v), compact.outDegreeOf(v));
+            assertEquals(original.inDegreeOf(v), compact.inDegreeOf(v));
+        }
+        for (DefaultWeightedEdge e : original.edgeSet()) {
+            NashvilleNumber source = original.getEdgeSource(e), target = original.getEdgeTarget(e);
+            assertTrue(compact.containsEdge(source, target));
+            assertEquals(original.getEdgeWeight(e), compact.getEdgeWeight(source, target), 0.0);
+        }
+        assertEquals(2.0, compact.getEdgeWeight(FIVE, ONE), 0.0);
+
+        ChordProgression copy = compact.toChordProgression();
+        assertEquals(original.vertexSet(), copy.vertexSet());
+        assertEquals(original.edgeSet().size(), copy.edgeSet().size());
+        for (DefaultWeightedEdge e : original.edgeSet()) {
+            DefaultWeightedEdge copied = copy.getEdge(original.getEdgeSource(e), original.getEdgeTarget(e));
+            assertNotNull(copied);
+            assertEquals(original.getEdgeWeight(e), copy.getEdgeWeight(copied), 0.0);
+        }
+    }
+
+    @Test
+    public void testParallelEdgesAreMerged() throws Exception {
+        ChordProgression graph = new ChordProgression() {};
+        graph.addVertex(ONE);
+        graph.addVertex(FIVE);
+        graph.addVertex(SIX);
+        graph.addEdge(FIVE, ONE, 1.5);
+        graph.addEdge(FIVE, ONE, 2.0);
+        assertEquals(2, graph.edgeSet().size());
+
+        CompactProgressionGraph compact = CompactProgressionGraph.of(graph);
+        assertEquals(3, compact.vertexCount());
+        assertEquals(1, compact.edgeCount());
+        assertEquals(3.5, compact.getEdgeWeight(FIVE, ONE), 0.0);
+        assertTrue(compact.containsVertex(SIX));
+        assertEquals(0, compact.outDegreeOf(SIX));
+    }
+
+    @Test
+    public void testEdges() throws Exception {
+        CompactProgressionGraph graph = new CompactProgressionGraph();
+        graph.addEdge(ONE, FOUR);
+        graph.addEdge(ONE, DOUBLE_SHARP_THIRTEEN, 3.0);     // The last ordinal, in the second word
+        graph.addEdge(DOUBLE_FLAT_ONE, ONE, 0.5);           // The first ordinal
+
+        assertEquals(4, graph.vertexCount());
+        assertEquals(3, graph.edgeCount());
+        assertEquals(1.0, graph.getEdgeWeight(ONE, FOUR), 0.0);
+        assertEquals(0.0, graph.getEdgeWeight(FOUR, ONE), 0.0);
+        assertFalse(graph.containsEdge(FOUR, ONE));
+
+        // Successors come out in ordinal order, across both words
+        assertEquals(FOUR.ordinal(), graph.nextSuccessor(ONE.ordinal(), 0));
+        assertEquals(DOUBLE_SHARP_THIRTEEN.ordinal(), graph.nextSuccessor(ONE.ordinal(), FOUR.ordinal() + 1));
+        assertEquals(-1, graph.nextSuccessor(ONE.ordinal(), DOUBLE_SHARP_THIRTEEN.ordinal() + 1));
+        assertEquals(DOUBLE_FLAT_ONE.ordinal(), graph.nextPredecessor(ONE.ordinal(), 0));
+        assertEquals(ONE.ordinal(), graph.nextPredecessor(DOUBLE_SHARP_THIRTEEN.ordinal(), 0));
+        assertEquals(DOUBLE_FLAT_ONE.ordinal(), graph.nextVertex(0));
+
+        // Adding an existing edge replaces its weight
+        graph.addEdge(ONE, FOUR, 4.0);
+        assertEquals(3, graph.edgeCount());
+        assertEquals(4.0, graph.getEdgeWeight(ONE, FOUR), 0.0);
+
+        graph.removeEdge(ONE, DOUBLE_SHARP_THIRTEEN);
+        assertFalse(graph.containsEdge(ONE, DOUBLE_SHARP_THIRTEEN));
+        assertEquals(0, graph.inDegreeOf(DOUBLE_SHARP_THIRTEEN));
+        assertEquals(1, graph.outDegreeOf(ONE));
+        assertTrue(graph.containsVertex(DOUBLE_SHARP_THIRTEEN));
+
+        try {
+            graph.addEdge(ONE, FIVE, -1.0);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    @Test
+    public void testView() throws Exception {
+        ChordProgression original = new MajorProgressionGraph1();
+        CompactProgressionGraph compact = CompactProgressionGraph.of(original);
+        CompactProgressionGraph.View view = compact.asGraph();
+
+        assertEquals(original.vertexSet(), view.vertexSet());
+        assertEquals(original.edgeSet().size(), view.edgeSet().size());
+        for (DefaultWeightedEdge e : original.edgeSet()) {
+            CompactProgressionGraph.Edge edge = view.getEdge(original.getEdgeSource(e), original.getEdgeTarget(e));
+            assertTrue(view.edgeSet().contains(edge));
+            assertSame(original.getEdgeSource(e), view.getEdgeSource(edge));
+            assertEquals(original.getEdgeWeight(e), view.getEdgeWeight(edge), 0.0);
+        }
+        for (NashvilleNumber v : original.vertexSet()) {
+            assertEquals(original.outDegreeOf(v), view.outgoingEdgesOf(v).size());
+            assertEquals(original.inDegreeOf(v), view.incomingEdgesOf(v).size());
+            for (CompactProgressionGraph.Edge edge : view.outgoingEdgesOf(v)) {
+                assertTrue(original.containsEdge(v, view.getEdgeTarget(edge)));
+            }
+            for (CompactProgressionGraph.Edge edge : view.incomingEdgesOf(v)) {
+                assertTrue(original.containsEdge(view.getEdgeSource(edge), v));
+            }
+        }
+
+        // jgrapht's algorithms run on the view
+        List<CompactProgressionGraph.Edge> path = DijkstraShortestPath.findPathBetween(view, TWO, ONE);
+        assertNotNull(path);
+        assertSame(TWO, path.get(0).getSource());
+        assertSame(ONE, path.get(path.size() - 1).getTarget());
+    }
+
+    @Test
+    public void testViewFollowsChanges() throws Exception {
+        CompactProgressionGraph graph = new CompactProgressionGraph();
+        CompactProgressionGraph.View view = graph.asGraph();
+        graph.addEdge(ONE, FIVE, 2.0);
+        graph.addEdge(FIVE, FIVE);      // A loop is one edge of FIVE, not two
+        graph.addEdge(FIVE, ONE);
+
+        assertEquals(2, view.vertexSet().size());
+        assertEquals(3, view.edgeSet().size());
+        assertEquals(3, view.edgesOf(FIVE).size());
+        Set<CompactProgressionGraph.Edge> edges = new HashSet<>(view.edgesOf(FIVE));
+        assertEquals(3, edges.size());
+        assertEquals(view.edgeSet(), edges);
+
+        CompactProgressionGraph.Edge edge = view.getEdge(ONE, FIVE);
+        graph.addEdge(ONE, FIVE, 3.0);
+        assertEquals(3.0, view.getEdgeWeight(edge), 0.0);
+
+        graph.removeEdge(ONE, FIVE);
+        assertNull(view.getEdge(ONE, FIVE));
+        assertFalse(view.containsEdge(edge));
+        assertEquals(0, view.outgoingEdgesOf(ONE).size());
+        assertEquals(2, view.edgeSet().size());
+        assertTrue(view.getAllEdges(ONE, FIVE).isEmpty());
+        assertNull(view.getAllEdges(ONE, SIX));
+
+        try {
+            view.addEdge(ONE, FIVE);
+            fail();
+        } catch (UnsupportedOperationException ex) {}
+
+        try {
+            view.setEdgeWeight(view.getEdge(FIVE, ONE), 2.0);
+            fail();
+        } catch (UnsupportedOperationException ex) {}
+
+        try {
+            view.outgoingEdgesOf(SIX);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    @Test
+    public void testNegativeFrom() throws Exception {
+        CompactProgressionGraph graph = new CompactProgressionGraph();
+        graph.addEdge(DOUBLE_FLAT_ONE, ONE);
+
+        assertEquals(DOUBLE_FLAT_ONE.ordinal(), graph.nextVertex(-1));
+        assertEquals(ONE.ordinal(), graph.nextSuccessor(DOUBLE_FLAT_ONE.ordinal(), Integer.MIN_VALUE));
+        assertEquals(DOUBLE_FLAT_ONE.ordinal(), graph.nextPredecessor(ONE.ordinal(), -64));
+    }
+}
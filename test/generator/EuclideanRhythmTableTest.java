@@ -0,0 +1,124 @@
+package generator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EuclideanRhythmTableTest {
+
+    @Test
+    public void testLookUpRoundTrips() throws Exception {
+        for (int steps = 1; steps <= EuclideanRhythmTable.MAX_STEPS; steps++) {
+            for (int pulses = 0; pulses <= steps; pulses++) {
+                for (int rotation = 0; rotation < steps; rotation++) {
+                    long pattern = EuclideanRhythmTable.getPattern(steps, pulses, rotation);
+                    assertEquals(rotate(Bjorklund.euclidean(steps, pulses), steps, rotation), pattern);
+
+                    int result = EuclideanRhythmTable.lookUp(pattern, steps);
+                    assertNotEquals(EuclideanRhythmTable.NOT_FOUND, result);
+                    assertEquals(steps, EuclideanRhythmTable.getSteps(result));
+                    assertEquals(pulses, EuclideanRhythmTable.getPulses(result));
+
+                    // Periodic patterns repeat, so the smallest rotation that gives the pattern comes back
+                    int found = EuclideanRhythmTable.getRotation(result);
+                    assertTrue(found <= rotation);
+                    assertEquals(pattern, EuclideanRhythmTable.getPattern(steps, pulses, found));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testExamples() throws Exception {
+        long tresillo = 0b01001001L;    // x..x..x.
+        int result = EuclideanRhythmTable.lookUp(tresillo, 8);
+        assertEquals(3, EuclideanRhythmTable.getPulses(result));
+        assertEquals(0, EuclideanRhythmTable.getRotation(result));
+
+        // ..x..x.x
+        result = EuclideanRhythmTable.lookUp(0b10100100L, 8);
+        assertEquals(3, EuclideanRhythmTable.getPulses(result));
+        assertEquals(1, EuclideanRhythmTable.getRotation(result));
+        assertEquals(0b10100100L, EuclideanRhythmTable.getPattern(8, 3, 1));
+        assertEquals(0b10100100L, EuclideanRhythmTable.getPattern(8, 3, -7));
+
+        // x.x.x.x. repeats every 2 steps
+        result = EuclideanRhythmTable.lookUp(0b01010101L, 8);
+        assertEquals(4, EuclideanRhythmTable.getPulses(result));
+        assertEquals(0, EuclideanRhythmTable.getRotation(result));
+        assertEquals(1, EuclideanRhythmTable.getRotation(EuclideanRhythmTable.lookUp(0b10101010L, 8)));
+
+        // The same bits mean a different rhythm with a different number of steps
+        assertEquals(9, EuclideanRhythmTable.getSteps(EuclideanRhythmTable.lookUp(tresillo, 9)));    // x..x..x..
+        assertFalse(EuclideanRhythmTable.isEuclidean(tresillo, 11));                               // x..x..x....
+
+        // All 64 steps, with the top bit set
+        assertEquals(64, EuclideanRhythmTable.getPulses(EuclideanRhythmTable.lookUp(-1L, 64)));
+    }
+
+    @Test
+    public void testNotFound() throws Exception {
+        assertEquals(EuclideanRhythmTable.NOT_FOUND, EuclideanRhythmTable.lookUp(0b10010101L, 8));   // x.x.x..x
+        assertEquals(EuclideanRhythmTable.NOT_FOUND, EuclideanRhythmTable.lookUp(0b00000011L, 8));   // xx......
+        assertEquals(EuclideanRhythmTable.NOT_FOUND, EuclideanRhythmTable.lookUp(1L, 0));
+        assertEquals(EuclideanRhythmTable.NOT_FOUND, EuclideanRhythmTable.lookUp(1L, EuclideanRhythmTable.MAX_STEPS + 1));
+
+        // Bits past the last step never match
+        assertEquals(EuclideanRhythmTable.NOT_FOUND, EuclideanRhythmTable.lookUp(0b101001001L, 8));
+    }
+
+    @Test
+    public void testEveryShortPattern() throws Exception {
+        // A pattern is Euclidean exactly when one of its rotations is Bjorklund's pattern with as many pulses
+        for (int steps = 1; steps <= 14; steps++) {
+            for (long pattern = 0; pattern < 1L << steps; pattern++) {
+                long euclidean = Bjorklund.euclidean(steps, Long.bitCount(pattern));
+                boolean expected = false;
+                for (int r = 0; r < steps && !expected; r++) {
+                    expected = rotate(euclidean, steps, r) == pattern;
+                }
+
+                assertEquals(steps + " " + Long.toBinaryString(pattern), expected, EuclideanRhythmTable.isEuclidean(pattern, steps));
+            }
+        }
+    }
+
+    @Test
+    public void testCanonicalize() throws Exception {
+        for (int steps = 1; steps <= EuclideanRhythmTable.MAX_STEPS; steps++) {
+            for (int pulses = 0; pulses <= steps; pulses++) {
+                long necklace = EuclideanRhythmTable.getNecklace(steps, pulses);
+                for (int rotation = 0; rotation < steps; rotation++) {
+                    long pattern = EuclideanRhythmTable.getPattern(steps, pulses, rotation);
+                    assertEquals(necklace, EuclideanRhythmTable.canonicalize(pattern, steps));
+                    assertTrue(Long.compareUnsigned(necklace, pattern) <= 0);
+                }
+            }
+        }
+
+        // The rotation of x..x..x. with the smallest value is x.x..x.. (bits 0, 2 and 5)
+        assertEquals(0b00100101L, EuclideanRhythmTable.getNecklace(8, 3));
+    }
+
+    @Test
+    public void testInvalidArguments() throws Exception {
+        int[][] invalid = {{0, 0}, {EuclideanRhythmTable.MAX_STEPS + 1, 1}, {8, -1}, {8, 9}};
+        for (int[] args : invalid) {
+            try {
+                EuclideanRhythmTable.getPattern(args[0], args[1], 0);
+                fail();
+            } catch (IllegalArgumentException ex) {}
+        }
+    }
+
+    /**
+     * The pattern, starting rotation steps later, one step at a time.
+     */
+    private static long rotate(long pattern, int steps, int rotation) {
+        long rotated = 0;
+        for (int i = 0; i < steps; i++) {
+            if ((pattern & (1L << ((i + rotation) % steps))) != 0) rotated |= 1L << i;
+        }
+        return rotated;
+    }
+}
@@ -0,0 +1,177 @@
+package generator;
+
+import musictheory.NashvilleNumber;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static musictheory.NashvilleNumber.*;
+import static org.junit.Assert.*;
+
+public class MarkovProgressionModelTest {
+
+    @Test
+    public void testParse() throws Exception {
+        assertSame(ONE, MarkovProgressionModel.parse("1"));
+        assertSame(THIRTEEN, MarkovProgressionModel.parse("13"));
+        assertSame(FLAT_SEVEN, MarkovProgressionModel.parse("b7"));
+        assertSame(SHARP_FOUR, MarkovProgressionModel.parse("#4"));
+        assertSame(FLAT_THREE, MarkovProgressionModel.parse("♭3"));
+        assertSame(SHARP_FIVE, MarkovProgressionModel.parse("♯5"));
+        assertSame(DOUBLE_FLAT_SEVEN, MarkovProgressionModel.parse("bb7"));
+        assertSame(DOUBLE_SHARP_FOUR, MarkovProgressionModel.parse("x4"));
+        assertSame(OCTAVE, MarkovProgressionModel.parse("8"));
+
+        // Chord qualities and slash basses are ignored
+        assertSame(SIX, MarkovProgressionModel.parse("6m"));
+        assertSame(FOUR, MarkovProgressionModel.parse("4/6"));
+        assertSame(SEVEN, MarkovProgressionModel.parse("7b5"));
+
+        for (String token : new String[] {"", "b", "m", "0", "14", "h7", "-1", "+4", "bbb7"}) {
+            try {
+                MarkovProgressionModel.parse(token);
+                fail(token);
+            } catch (IllegalArgumentException ex) {}
+        }
+    }
+
+    @Test
+    public void testFirstOrderProbabilities() throws Exception {
+        MarkovProgressionModel model = train("1 4 5 1\n1, 6m, 4, 5\n\n1 4 1\n", 1);
+
+        assertEquals(1, model.getOrder());
+        assertEquals(3, model.getSongCount());
+        assertEquals(2, model.getCount(of(ONE), FOUR));
+        assertEquals(3, model.getCount(of(FOUR), FIVE) + model.getCount(of(FOUR), ONE));
+        assertEquals(2.0 / 3, model.getProbability(of(ONE), FOUR), 1e-12);
+        assertEquals(1.0 / 3, model.getProbability(of(ONE), SIX), 1e-12);
+        assertEquals(2.0 / 3, model.getProbability(of(FOUR), FIVE), 1e-12);
+        assertEquals(1.0, model.getProbability(of(FIVE), ONE), 1e-12);
+        assertEquals(0.0, model.getProbability(of(TWO), ONE), 0.0);
+
+        // The graph holds the first-order transitions, weighted by their counts
+        CompactProgressionGraph graph = model.toGraph();
+        assertEquals(4, graph.vertexCount());
+        assertEquals(2.0, graph.getEdgeWeight(ONE, FOUR), 0.0);
+        assertEquals(1.0, graph.getEdgeWeight(FIVE, ONE), 0.0);
+        assertFalse(graph.containsEdge(ONE, FIVE));
+    }
+
+    @Test
+    public void testHigherOrderProbabilities() throws Exception {
+        MarkovProgressionModel model = train("1 4 5 1\n1 4 1\n6 4 5 1 4 5\n", 2);
+
+        assertEquals(2, model.getOrder());
+        assertEquals(2, model.getCount(of(ONE, FOUR), FIVE));
+        assertEquals(1, model.getCount(of(ONE, FOUR), ONE));
+        assertEquals(2.0 / 3, model.getProbability(of(ONE, FOUR), FIVE), 1e-12);
+        assertEquals(1.0 / 3, model.getProbability(of(ONE, FOUR), ONE), 1e-12);
+        assertEquals(1.0, model.getProbability(of(FOUR, FIVE), ONE), 1e-12);
+        assertEquals(1.0, model.getProbability(of(SIX, FOUR), FIVE), 1e-12);
+        assertEquals(0.0, model.getProbability(of(FIVE, FOUR), ONE), 0.0);
+
+        // Contexts do not run across songs
+        assertEquals(0, model.getCount(of(FIVE, ONE), SIX));
+
+        model = train("1 2 3 4 5 1 2 3 4 6\n", 4);
+        assertEquals(0.5, model.getProbability(of(ONE, TWO, THREE, FOUR), FIVE), 1e-12);
+        assertEquals(0.5, model.getProbability(of(ONE, TWO, THREE, FOUR), SIX), 1e-12);
+        assertEquals(1.0, model.getProbability(of(TWO, THREE, FOUR, FIVE), ONE), 1e-12);
+
+        try {
+            model.getCount(of(ONE), TWO);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    @Test
+    public void testInvalidOrder() throws Exception {
+        for (int order : new int[] {0, MarkovProgressionModel.MAX_ORDER + 1}) {
+            try {
+                new MarkovProgressionModel(order);
+                fail();
+            } catch (IllegalArgumentException ex) {}
+        }
+    }
+
+    @Test
+    public void testTrainFileMatchesStream() throws Exception {
+        // A few MB, so that the file is split into several byte ranges
+        String[] tokens = {"1", "2m", "3m", "4", "5", "6m", "b7", "#4", "♭3", "4/6", "5/7"};
+        Random random = new Random(3);
+        StringBuilder corpus = new StringBuilder();
+        while (corpus.length() < 3 << 20) {
+            int length = 1 + random.nextInt(12);
+            for (int i = 0; i < length; i++) {
+                if (i > 0) corpus.append(random.nextBoolean() ? " " : ", ");
+                corpus.append(tokens[random.nextInt(tokens.length)]);
+            }
+            corpus.append(random.nextInt(4) == 0 ? "\r\n" : "\n");
+        }
+
+        Path file = Files.createTempFile("corpus", ".txt");
+        try {
+            Files.write(file, corpus.toString().getBytes(StandardCharsets.UTF_8));
+
+            for (int order = 1; order <= 2; order++) {
+                MarkovProgressionModel fromStream = train(corpus.toString(), order);
+                MarkovProgressionModel fromFile = MarkovProgressionModel.train(file, order, 4);
+
+                assertEquals(fromStream.getSongCount(), fromFile.getSongCount());
+                assertCountsEqual(fromStream, fromFile, tokens);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testMerge() throws Exception {
+        MarkovProgressionModel a = train("1 4 5 1\n", 2);
+        a.merge(train("1 4 1\n", 2));
+        MarkovProgressionModel expected = train("1 4 5 1\n1 4 1\n", 2);
+
+        assertEquals(expected.getSongCount(), a.getSongCount());
+        assertCountsEqual(expected, a, new String[] {"1", "4", "5"});
+
+        try {
+            a.merge(new MarkovProgressionModel(1));
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    private static MarkovProgressionModel train(String corpus, int order) throws Exception {
+        InputStream in = new ByteArrayInputStream(corpus.getBytes(StandardCharsets.UTF_8));
+        return MarkovProgressionModel.train(in, order);
+    }
+
+    private static NashvilleNumber[] of(NashvilleNumber... context) {
+        return context;
+    }
+
+    /**
+     * Compares every count whose context and next NashvilleNumber come from tokens.
+     */
+    private static void assertCountsEqual(MarkovProgressionModel expected, MarkovProgressionModel actual, String[] tokens) {
+        NashvilleNumber[] numbers = new NashvilleNumber[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            numbers[i] = MarkovProgressionModel.parse(tokens[i]);
+        }
+
+        NashvilleNumber[] context = new NashvilleNumber[expected.getOrder()];
+        int combinations = (int) Math.pow(numbers.length, context.length);
+        for (int c = 0; c < combinations; c++) {
+            for (int i = 0, rest = c; i < context.length; i++, rest /= numbers.length) {
+                context[i] = numbers[rest % numbers.length];
+            }
+            for (NashvilleNumber next : numbers) {
+                assertEquals(expected.getCount(context, next), actual.getCount(context, next));
+            }
+        }
+    }
+}
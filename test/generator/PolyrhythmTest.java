@@ -0,0 +1,162 @@
+package generator;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PolyrhythmTest {
+
+    @Test
+    public void testThreeAgainstFive() throws Exception {
+        // E(3, 8) is x..x..x. and E(5, 12) is x..x.x..x.x., over 24 ticks
+        Polyrhythm polyrhythm = new Polyrhythm();
+        assertEquals(0, polyrhythm.addLayer(8, 3));
+        assertEquals(1, polyrhythm.addLayer(12, 5));
+        assertEquals(24, polyrhythm.getResolution());
+        assertEquals(3, polyrhythm.getTicksPerStep(0));
+        assertEquals(2, polyrhythm.getTicksPerStep(1));
+
+        long[] expected = {0, 0b11, 6, 0b10, 9, 0b01, 10, 0b10, 16, 0b10, 18, 0b01, 20, 0b10};
+        List<Long> onsets = new ArrayList<>();
+        Polyrhythm.OnsetIterator it = polyrhythm.onsets(2);
+        while (it.next()) {
+            onsets.add(it.getTick());
+            onsets.add(it.getLayers());
+            assertEquals(it.getTick() % 24, it.getTickInCycle());
+        }
+
+        assertEquals(2 * expected.length, onsets.size());
+        for (int i = 0; i < onsets.size(); i += 2) {
+            int j = i % expected.length;
+            assertEquals((i / expected.length) * 24 + expected[j], (long) onsets.get(i));
+            assertEquals(expected[j + 1], (long) onsets.get(i + 1));
+        }
+        assertFalse(it.next());
+
+        assertArrayEquals(new long[] {(1L << 0) | (1L << 9) | (1L << 18)}, polyrhythm.getOnsets(0));
+        assertArrayEquals(new long[] {(1L << 0) | (1L << 6) | (1L << 9) | (1L << 10) | (1L << 16) | (1L << 18) | (1L << 20)},
+                polyrhythm.getOnsets());
+    }
+
+    @Test
+    public void testRotationAndOffset() throws Exception {
+        Polyrhythm polyrhythm = new Polyrhythm();
+        polyrhythm.addLayer(4, 4);
+        polyrhythm.addLayer(8, 3, 1, 0);    // ..x..x.x
+        assertArrayEquals(new long[] {(1L << 2) | (1L << 5) | (1L << 7)}, polyrhythm.getOnsets(1));
+
+        polyrhythm = new Polyrhythm();
+        polyrhythm.addLayer(8, 3, 0, 2);    // x.x..x..: x..x..x. delayed 2 ticks, wrapping around
+        assertArrayEquals(new long[] {(1L << 0) | (1L << 2) | (1L << 5)}, polyrhythm.getOnsets(0));
+
+        polyrhythm.addLayer(3, 1, 0, -1);   // Offsets are taken modulo the resolution (now 24 ticks)
+        assertArrayEquals(new long[] {1L << 23}, polyrhythm.getOnsets(1));
+
+        // Offsets stay in ticks, which are now 3 to a step of the first layer
+        assertArrayEquals(new long[] {(1L << 2) | (1L << 11) | (1L << 20)}, polyrhythm.getOnsets(0));
+    }
+
+    @Test
+    public void testMatchesBooleanReference() throws Exception {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 500; trial++) {
+            Polyrhythm polyrhythm = new Polyrhythm();
+            int numLayers = 1 + random.nextInt(4);
+            int[][] layers = new int[numLayers][];
+            for (int l = 0; l < numLayers; l++) {
+                int steps = 1 + random.nextInt(40);
+                layers[l] = new int[] {steps, random.nextInt(steps + 1), random.nextInt(300) - 150, random.nextInt(1000) - 500};
+                polyrhythm.addLayer(layers[l][0], layers[l][1], layers[l][2], layers[l][3]);
+            }
+
+            int resolution = polyrhythm.getResolution();
+            for (int[] layer : layers) {
+                assertEquals(0, resolution % layer[0]);
+            }
+
+            // One boolean per tick and layer, built one step at a time from the (i * pulses) mod steps rule
+            boolean[][] reference = new boolean[numLayers][resolution];
+            for (int l = 0; l < numLayers; l++) {
+                int steps = layers[l][0], pulses = layers[l][1], rotation = layers[l][2], offset = layers[l][3];
+                for (int step = 0; step < steps; step++) {
+                    int i = Math.floorMod(step + rotation, steps);
+                    if ((long) i * pulses % steps < pulses) {
+                        reference[l][(int) Math.floorMod((long) step * (resolution / steps) + offset, (long) resolution)] = true;
+                    }
+                }
+            }
+
+            int cycles = 3;
+            Polyrhythm.OnsetIterator it = polyrhythm.onsets(cycles);
+            for (int cycle = 0; cycle < cycles; cycle++) {
+                for (int tick = 0; tick < resolution; tick++) {
+                    long layerMask = 0;
+                    for (int l = 0; l < numLayers; l++) {
+                        if (reference[l][tick]) layerMask |= 1L << l;
+                    }
+                    if (layerMask == 0) continue;
+
+                    assertTrue(it.next());
+                    assertEquals((long) cycle * resolution + tick, it.getTick());
+                    assertEquals(layerMask, it.getLayers());
+                }
+            }
+            assertFalse(it.next());
+        }
+    }
+
+    @Test
+    public void testNoOnsets() throws Exception {
+        Polyrhythm polyrhythm = new Polyrhythm();
+        polyrhythm.addLayer(5, 0);
+        assertFalse(polyrhythm.onsets(Long.MAX_VALUE).next());
+        assertFalse(new Polyrhythm().onsets(1).next());
+    }
+
+    @Test
+    public void testIteratorIsASnapshot() throws Exception {
+        Polyrhythm polyrhythm = new Polyrhythm();
+        polyrhythm.addLayer(4, 1);
+        Polyrhythm.OnsetIterator it = polyrhythm.onsets(1);
+        polyrhythm.addLayer(3, 3);
+
+        assertTrue(it.next());
+        assertEquals(0, it.getTick());
+        assertEquals(1, it.getLayers());
+        assertFalse(it.next());
+    }
+
+    @Test
+    public void testInvalidLayers() throws Exception {
+        Polyrhythm polyrhythm = new Polyrhythm();
+        int[][] invalid = {{0, 0}, {8, -1}, {8, 9}};
+        for (int[] args : invalid) {
+            try {
+                polyrhythm.addLayer(args[0], args[1]);
+                fail();
+            } catch (IllegalArgumentException ex) {}
+        }
+
+        // 4999 and 4993 are prime, so they would need 4999 * 4993 ticks
+        polyrhythm.addLayer(4999, 3);
+        try {
+            polyrhythm.addLayer(4993, 3);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+        assertEquals(1, polyrhythm.getLayerCount());
+        assertEquals(4999, polyrhythm.getResolution());
+
+        polyrhythm = new Polyrhythm();
+        for (int l = 0; l < Polyrhythm.MAX_LAYERS; l++) {
+            polyrhythm.addLayer(2, 1);
+        }
+        try {
+            polyrhythm.addLayer(2, 1);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+}
@@ -0,0 +1,161 @@
+package generator;
+
+import musictheory.NashvilleNumber;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static musictheory.NashvilleNumber.*;
+import static org.junit.Assert.*;
+
+public class ProgressionEnumeratorTest {
+
+    @Test
+    public void testMatchesBruteForce() throws Exception {
+        ChordProgression graph = new MajorProgressionGraph1();
+        CompactProgressionGraph compact = CompactProgressionGraph.of(graph);
+        NashvilleNumber[][] constraints = {{null, null}, {ONE, null}, {null, ONE}, {TWO, FIVE}, {SEVEN, SEVEN}};
+
+        for (int length = 1; length <= 7; length++) {
+            for (NashvilleNumber[] constraint : constraints) {
+                NashvilleNumber start = constraint[0], end = constraint[1];
+                Set<String> expected = bruteForce(graph, length, start, end);
+
+                assertEquals(length + " " + start + " " + end, expected.size(), ProgressionEnumerator.countPaths(compact, length, start, end));
+                assertEquals(expected, enumerate(graph, length, start, end));
+            }
+        }
+    }
+
+    @Test
+    public void testLargeEnumerationSplitsIntoTasks() throws Exception {
+        // Enough paths that the search is split into many fork/join tasks
+        ChordProgression graph = new MajorProgressionGraph1();
+        int length = 11;
+        long count = ProgressionEnumerator.countPaths(CompactProgressionGraph.of(graph), length, null, null);
+        assertTrue(count > 1 << 16);
+
+        assertEquals(bruteForce(graph, length, null, null), enumerate(graph, length, null, null));
+    }
+
+    @Test
+    public void testSpillAndReadBack() throws Exception {
+        ChordProgression graph = new MajorProgressionGraph1();
+        int length = 9;
+        Set<String> expected = enumerate(graph, length, ONE, null);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProgressionEnumerator.enumerate(graph, length, ONE, null, out);
+        assertEquals(expected.size() * length, out.size());
+
+        Set<String> read = ConcurrentHashMap.newKeySet();
+        long count = ProgressionEnumerator.read(new ByteArrayInputStream(out.toByteArray()), length,
+                path -> read.add(Arrays.toString(ProgressionEnumerator.decode(path))));
+        assertEquals(expected.size(), count);
+        assertEquals(expected, read);
+
+        // A truncated record is an error rather than a short path
+        byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 1);
+        try {
+            ProgressionEnumerator.read(new ByteArrayInputStream(truncated), length, path -> {});
+            fail();
+        } catch (EOFException ex) {}
+    }
+
+    @Test
+    public void testLongPaths() throws Exception {
+        // One path, far longer than the call stack could follow one frame per step
+        CompactProgressionGraph loop = new CompactProgressionGraph();
+        loop.addEdge(ONE, ONE);
+        int length = 100000;
+        AtomicLong count = new AtomicLong();
+        ProgressionEnumerator.enumerate(loop, length, null, null, path -> {
+            for (byte b : path) assertEquals(ONE.ordinal(), b);
+            count.incrementAndGet();
+        });
+        assertEquals(1, count.get());
+
+        // ONE stays put for a while and then moves to TWO for good, so there is a path for every step it can move
+        // at, and the search keeps splitting off a small subtree from a large one at every step
+        CompactProgressionGraph chain = new CompactProgressionGraph();
+        chain.addEdge(ONE, ONE);
+        chain.addEdge(ONE, TWO);
+        chain.addEdge(TWO, TWO);
+        length = 20000;
+        assertEquals(length, ProgressionEnumerator.countPaths(chain, length, ONE, null));
+
+        Set<Integer> switches = ConcurrentHashMap.newKeySet();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            ProgressionEnumerator.enumerate(chain, length, ONE, null, path -> {
+                int i = 0;
+                while (i < path.length && path[i] == ONE.ordinal()) i++;
+                for (int j = i; j < path.length; j++) assertEquals(TWO.ordinal(), path[j]);
+                assertTrue(switches.add(i));
+            }, pool);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(length, switches.size());
+    }
+
+    @Test
+    public void testDecode() throws Exception {
+        byte[] path = {(byte) ONE.ordinal(), (byte) FLAT_SEVEN.ordinal(), (byte) DOUBLE_SHARP_THIRTEEN.ordinal()};
+        assertArrayEquals(new NashvilleNumber[] {ONE, FLAT_SEVEN, DOUBLE_SHARP_THIRTEEN}, ProgressionEnumerator.decode(path));
+    }
+
+    @Test
+    public void testInvalidLength() throws Exception {
+        try {
+            ProgressionEnumerator.countPaths(new CompactProgressionGraph(), 0, null, null);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    /**
+     * Enumerates the paths, checking that none is produced twice.
+     */
+    private static Set<String> enumerate(ChordProgression graph, int length, NashvilleNumber start, NashvilleNumber end) {
+        Set<String> paths = ConcurrentHashMap.newKeySet();
+        AtomicLong count = new AtomicLong();
+        ProgressionEnumerator.enumerate(graph, length, start, end, path -> {
+            assertEquals(length, path.length);
+            paths.add(Arrays.toString(ProgressionEnumerator.decode(path)));
+            count.incrementAndGet();
+        });
+        assertEquals(count.get(), paths.size());
+        return paths;
+    }
+
+    private static Set<String> bruteForce(ChordProgression graph, int length, NashvilleNumber start, NashvilleNumber end) {
+        Set<String> paths = new HashSet<>();
+        NashvilleNumber[] path = new NashvilleNumber[length];
+        for (NashvilleNumber v : graph.vertexSet()) {
+            if (start != null && v != start) continue;
+            path[0] = v;
+            extend(graph, path, 1, end, paths);
+        }
+        return paths;
+    }
+
+    private static void extend(ChordProgression graph, NashvilleNumber[] path, int depth, NashvilleNumber end, Set<String> paths) {
+        if (depth == path.length) {
+            if (end == null || path[depth - 1] == end) paths.add(Arrays.toString(path));
+            return;
+        }
+        for (DefaultWeightedEdge e : graph.outgoingEdgesOf(path[depth - 1])) {
+            path[depth] = graph.getEdgeTarget(e);
+            extend(graph, path, depth + 1, end, paths);
+        }
+    }
+}
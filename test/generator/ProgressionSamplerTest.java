@@ -0,0 +1,107 @@
+package generator;
+
+import musictheory.NashvilleNumber;
+import org.junit.Test;
+
+import static musictheory.NashvilleNumber.*;
+import static org.junit.Assert.*;
+
+public class ProgressionSamplerTest {
+
+    @Test
+    public void testFrequenciesFollowWeights() throws Exception {
+        ChordProgression graph = newGraph(ONE, TWO, FOUR, FIVE, SIX);
+        graph.addEdge(ONE, FOUR, 1.0);
+        graph.addEdge(ONE, FIVE, 2.0);
+        graph.addEdge(ONE, SIX, 3.0);
+        graph.addEdge(ONE, TWO, 4.0);
+
+        ProgressionSampler sampler = new ProgressionSampler(graph, 42);
+        int samples = 200000;
+        int[] counts = new int[NashvilleNumber.values().length];
+        for (int i = 0; i < samples; i++) {
+            counts[sampler.next(ONE).ordinal()]++;
+        }
+
+        assertEquals(0.1, (double) counts[FOUR.ordinal()] / samples, 0.005);
+        assertEquals(0.2, (double) counts[FIVE.ordinal()] / samples, 0.005);
+        assertEquals(0.3, (double) counts[SIX.ordinal()] / samples, 0.005);
+        assertEquals(0.4, (double) counts[TWO.ordinal()] / samples, 0.005);
+        assertEquals(samples, counts[FOUR.ordinal()] + counts[FIVE.ordinal()] + counts[SIX.ordinal()] + counts[TWO.ordinal()]);
+    }
+
+    @Test
+    public void testSingleEdge() throws Exception {
+        ChordProgression graph = newGraph(ONE, FIVE);
+        graph.addEdge(FIVE, ONE, 0.25);
+
+        ProgressionSampler sampler = new ProgressionSampler(graph, 0);
+        for (int i = 0; i < 100; i++) {
+            assertSame(ONE, sampler.next(FIVE));
+        }
+    }
+
+    @Test
+    public void testSeededWalksReproduce() throws Exception {
+        ChordProgression graph = new MajorProgressionGraph1();
+        ProgressionSampler a = new ProgressionSampler(graph, 7);
+        ProgressionSampler b = new ProgressionSampler(graph, 7);
+
+        NashvilleNumber[] first = a.walk(ONE, 64);
+        assertArrayEquals(first, b.walk(ONE, 64));
+        assertSame(ONE, first[0]);
+
+        // Every step of the walk follows an edge of the graph
+        for (int i = 1; i < first.length; i++) {
+            assertTrue(first[i - 1] + " -> " + first[i], graph.containsEdge(first[i - 1], first[i]));
+        }
+
+        // setSeed restarts the sequence
+        a.walk(ONE, 64);
+        a.setSeed(7);
+        assertArrayEquals(first, a.walk(ONE, 64));
+
+        // Filling an array gives the same walk as allocating one
+        NashvilleNumber[] filled = new NashvilleNumber[64];
+        b.setSeed(7);
+        b.walk(ONE, filled);
+        assertArrayEquals(first, filled);
+    }
+
+    @Test
+    public void testDeadEnd() throws Exception {
+        ChordProgression graph = newGraph(ONE, FIVE);
+        graph.addEdge(ONE, FIVE);
+
+        ProgressionSampler sampler = new ProgressionSampler(graph, 0);
+        assertNull(sampler.next(FIVE));
+        assertEquals(-1, sampler.next(FIVE.ordinal()));
+
+        try {
+            sampler.walk(ONE, 3);
+            fail();
+        } catch (IllegalStateException ex) {}
+    }
+
+    @Test
+    public void testWeightMustBePositive() throws Exception {
+        ChordProgression graph = newGraph(ONE, FIVE);
+        try {
+            graph.addEdge(ONE, FIVE, 0.0);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+
+        try {
+            graph.addEdge(ONE, FIVE, Double.NaN);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    private static ChordProgression newGraph(NashvilleNumber... vertices) {
+        ChordProgression graph = new ChordProgression() {};
+        for (NashvilleNumber v : vertices) {
+            graph.addVertex(v);
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,99 @@
+package musictheory;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+public class ChordRecognizerTest {
+
+    @Test
+    public void testRecognizeEveryInversion() throws Exception {
+        for (NoteType nt : NoteType.values()) {
+            for (ChordType ct : ChordType.values()) {
+                Chord chord = new Chord(nt, ct, Octave.OCTAVE_FOUR);
+                int[] pitches = new int[chord.notes.length];
+
+                for (int i = 0; i < chord.notes.length; i++) {
+                    chord.getPitchesForInversion(i, pitches);
+
+                    int recognized = ChordRecognizer.recognize(pitches);
+                    assertNotEquals(ChordRecognizer.NOT_FOUND, recognized);
+
+                    int lowest = Integer.MAX_VALUE;
+                    for (int pitch : pitches) lowest = Math.min(lowest, pitch);
+
+                    // The reading may differ (e.g., C6 vs. Am7/C), but the pitch classes and bass must match
+                    Chord result = ChordRecognizer.toChord(recognized, Octave.OCTAVE_FOUR);
+                    assertEquals(chord.getPitchClassMask(), result.getPitchClassMask());
+                    assertEquals(lowest % 12, result.noteTypes[result.getInversionNumber()].relativePitch);
+
+                    // Root position clusters of a ChordType with a unique set of intervals are read back exactly
+                    if (i == 0 && hasUniqueIntervals(ct)) {
+                        assertSame(ct, ChordRecognizer.getChordType(recognized));
+                        assertEquals(nt.relativePitch, ChordRecognizer.getRootNoteType(recognized).relativePitch);
+                        assertEquals(0, ChordRecognizer.getInversionNumber(recognized));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRecognizeVoicing() throws Exception {
+        // E G C E G: a spread, doubled C major chord in first inversion
+        int recognized = ChordRecognizer.recognize(new int[] {64, 79, 72, 67, 76});
+        assertSame(NoteType.C, ChordRecognizer.getRootNoteType(recognized));
+        assertSame(ChordType.MAJOR, ChordRecognizer.getChordType(recognized));
+        assertEquals(1, ChordRecognizer.getInversionNumber(recognized));
+
+        // D♭ F A♭ is preferred over C♯ E♯ G♯
+        recognized = ChordRecognizer.recognize(PitchArray.of(new Chord(NoteType.C_SHARP, ChordType.MAJOR).getNotes()));
+        assertSame(NoteType.D_FLAT, ChordRecognizer.getRootNoteType(recognized));
+
+        assertEquals(ChordRecognizer.NOT_FOUND, ChordRecognizer.recognize(new int[] {60, 61, 62}));
+        assertEquals(ChordRecognizer.NOT_FOUND, ChordRecognizer.recognize(new int[0]));
+    }
+
+    @Test
+    public void testRecognizeDoesNotAllocate() throws Exception {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+        final int iterations = 1000000;
+        int[] pitches = {60, 64, 67, 70};
+        long threadId = Thread.currentThread().getId();
+        int checksum = 0;
+
+        // Warm up, so that class loading and compilation are not measured
+        for (int i = 0; i < iterations; i++) {
+            pitches[0] = 60 + i % 12;
+            checksum += ChordRecognizer.recognize(pitches);
+        }
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            pitches[0] = 60 + i % 12;
+            checksum += ChordRecognizer.recognize(pitches);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue("allocated " + allocated + " bytes", allocated < iterations / 100);
+        assertTrue(checksum != 0);
+    }
+
+    private static boolean hasUniqueIntervals(ChordType chordType) {
+        for (ChordType other : ChordType.values()) {
+            for (int rootPitch = 0; rootPitch < 12; rootPitch++) {
+                if (other != chordType && PitchClassSet.rotate(other.pitchClassMask, rootPitch) == chordType.pitchClassMask) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,57 @@
+package musictheory;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ChordScaleTableTest {
+
+    @Test
+    public void testCompatibleScalesContainTheChord() throws Exception {
+        for (ChordType ct : ChordType.values()) {
+            for (NoteType nt : new NoteType[] {NoteType.C, NoteType.D_FLAT, NoteType.F_SHARP, NoteType.A}) {
+                int chordMask = new Chord(nt, ct).getPitchClassMask();
+                List<Scale> scales = ChordScaleTable.getCompatibleScales(nt, ct);
+
+                assertEquals(ScaleIndex.getCandidateCount(chordMask), scales.size());
+                assertSame(scales, ChordScaleTable.getCompatibleScales(new Chord(nt, ct)));
+
+                int previousRank = Integer.MIN_VALUE;
+                for (Scale s : scales) {
+                    assertTrue(PitchClassSet.isSubsetOf(chordMask, s.getPitchClassMask()));
+
+                    int rank = ChordScaleTable.getRank(chordMask, s.getPitchClassMask());
+                    assertTrue(rank >= previousRank);
+                    previousRank = rank;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAgreesWithDiatonicChords() throws Exception {
+        for (ScaleType st : new ScaleType[] {ScaleType.MAJOR, ScaleType.HARMONIC_MINOR, ScaleType.DORIAN}) {
+            Scale scale = Scale.of(NoteType.E_FLAT, st);
+            for (int degree = 0; degree < st.nashvilleNumbers.length; degree++) {
+                for (ChordType ct : DiatonicChordTable.getChordTypes(st, degree)) {
+                    assertTrue(ChordScaleTable.getCompatibleScales(scale.noteTypes[degree], ct).contains(scale));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAvoidNotesRankLower() throws Exception {
+        List<Scale> scales = ChordScaleTable.getCompatibleScales(NoteType.C, ChordType.MAJOR_SEVEN);
+
+        // C Ionian has an avoid note over Cmaj7 (F, a half step above E); C Lydian does not
+        assertTrue(scales.indexOf(Scale.of(NoteType.C, ScaleType.LYDIAN)) < scales.indexOf(Scale.of(NoteType.C, ScaleType.IONIAN)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCompatibleScalesAreReadOnly() throws Exception {
+        ChordScaleTable.getCompatibleScales(NoteType.C, ChordType.MAJOR).clear();
+    }
+}
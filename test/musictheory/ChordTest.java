@@ -133,7 +133,7 @@ public class ChordTest {
 
             Note[] inverted = c.getNotes();
 
-            System.out.print(c.name + " : ");
+            System.out.print(c.getName() + " : ");
             for (Note m : c.notes) {
                 System.out.print(m.getName() + m.getOctave().number + " ");
             }
@@ -176,7 +176,7 @@ public class ChordTest {
 
             Note[] inverted = c.getNotes();
 
-            System.out.print(c.name + " : ");
+            System.out.print(c.getName() + " : ");
             for (Note m : c.notes) {
                 System.out.print(m.getName() + m.getOctave().number + " ");
             }
@@ -209,6 +209,25 @@ public class ChordTest {
         System.out.println("==========================================");
     }
 
+    @Test
+    public void testGetPitchesForInversion() throws Exception {
+        Chord c = new Chord(chord);
+        int[] pitches = new int[c.notes.length];
+
+        for (int i = -c.notes.length; i <= c.notes.length; i++) {
+            c.getPitchesForInversion(i, pitches);
+            c.setToInversion(i);
+
+            assertEquals(Math.floorMod(i, c.notes.length), c.getInversionNumber());
+            for (int j = 0; j < c.notes.length; j++) {
+                assertEquals(c.notes[j].getPitch(), pitches[j]);
+            }
+
+            if (c.getInversionNumber() == 0) assertFalse(c.getName().contains("/"));
+            else assertTrue(c.getName().endsWith("/" + c.noteTypes[c.getInversionNumber()].name));
+        }
+    }
+
     @Test
     public void testGetChordType() throws Exception {
         assertNotNull(chord.getChordType());
@@ -0,0 +1,171 @@
+package musictheory;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class IntervalSetCacheTest {
+
+    @Test
+    public void testScaleOf() throws Exception {
+        Scale.getCache().clear();
+
+        Scale s1 = Scale.of(NoteType.D, ScaleType.DORIAN, Octave.OCTAVE_FOUR);
+        Scale s2 = Scale.of(NoteType.D, ScaleType.DORIAN, Octave.OCTAVE_FOUR);
+        assertSame(s1, s2);
+        assertNotSame(s1, Scale.of(NoteType.D, ScaleType.DORIAN, Octave.OCTAVE_FIVE));
+        assertEquals(1, Scale.getCache().getHitCount());
+        assertEquals(2, Scale.getCache().getMissCount());
+        assertEquals(2, Scale.getCache().size());
+
+        // Cached Scales must match freshly constructed ones
+        Scale expected = new Scale(NoteType.D, ScaleType.DORIAN, Octave.OCTAVE_FOUR);
+        for (int i = 0; i < expected.getNotes().length; i++) {
+            assertEquals(expected.getNotes()[i].getNoteType(), s1.getNotes()[i].getNoteType());
+            assertEquals(expected.getNotes()[i].getPitch(), s1.getNotes()[i].getPitch());
+        }
+    }
+
+    @Test
+    public void testChordOf() throws Exception {
+        Chord.getCache().clear();
+
+        Chord c1 = Chord.of(NoteType.E_FLAT, ChordType.MINOR_SEVEN);
+        assertSame(c1, Chord.of(NoteType.E_FLAT, ChordType.MINOR_SEVEN, Octave.OCTAVE_MIN));
+        assertEquals(1, Chord.getCache().getHitCount());
+        assertEquals(1, Chord.getCache().getMissCount());
+    }
+
+    @Test
+    public void testImmutability() throws Exception {
+        Scale scale = Scale.of(NoteType.C, ScaleType.MAJOR);
+        Chord chord = Chord.of(NoteType.C, ChordType.MAJOR);
+        assertTrue(scale.isImmutable());
+        assertTrue(chord.isImmutable());
+
+        try {
+            scale.setOctave(Octave.OCTAVE_FIVE);
+            fail();
+        } catch (UnsupportedOperationException ex) {}
+
+        try {
+            chord.invert();
+            fail();
+        } catch (UnsupportedOperationException ex) {}
+
+        try {
+            chord.setToInversion(2);
+            fail();
+        } catch (UnsupportedOperationException ex) {}
+
+        // Mutating the root Note handed out by a shared Chord must not affect the Chord
+        int pitch = chord.getNotes()[0].getPitch();
+        chord.getRootNote().setOctave(Octave.OCTAVE_SIX);
+        assertEquals(pitch, chord.getNotes()[0].getPitch());
+
+        // Copies are mutable
+        Chord copy = new Chord(chord);
+        assertFalse(copy.isImmutable());
+        copy.invert();
+        assertEquals(1, copy.getInversionNumber());
+        assertEquals(0, chord.getInversionNumber());
+    }
+
+    @Test
+    public void testBoundedCache() throws Exception {
+        IntervalSetCache<Chord> cache = new IntervalSetCache<>(1);
+        Chord c = new Chord(NoteType.C, ChordType.MAJOR);
+        Chord d = new Chord(NoteType.D, ChordType.MAJOR);
+        assertSame(c, cache.putIfAbsent(0, c));
+        assertSame(d, cache.putIfAbsent(1, d));
+        assertEquals(1, cache.size());
+        assertSame(c, cache.get(0));
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testSetMaxSize() throws Exception {
+        IntervalSetCache<Chord> cache = new IntervalSetCache<>(16);
+        for (int key = 0; key < 5; key++) {
+            cache.putIfAbsent(key, new Chord(NoteType.C, ChordType.MAJOR));
+        }
+        assertEquals(5, cache.size());
+
+        cache.setMaxSize(2);
+        assertEquals(2, cache.getMaxSize());
+        assertEquals(2, cache.size());
+
+        // The cache is full, so new Chords are handed out but not retained
+        Chord d = new Chord(NoteType.D, ChordType.MAJOR);
+        assertSame(d, cache.putIfAbsent(10, d));
+        assertEquals(2, cache.size());
+
+        try {
+            cache.setMaxSize(-1);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+
+    @Test
+    public void testConcurrentInsertsStayWithinMaxSize() throws Exception {
+        IntervalSetCache<Chord> cache = new IntervalSetCache<>(10);
+        Chord c = new Chord(NoteType.C, ChordType.MAJOR);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int first = t * 1000;
+            executor.execute(() -> {
+                for (int key = first; key < first + 1000; key++) {
+                    cache.putIfAbsent(key, c);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals(10, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertSame(c, cache.putIfAbsent(0, c));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testEveryKeyIsInterned() throws Exception {
+        int numRoots = NoteType.values().length, numOctaves = Octave.values().length;
+        assertEquals(numRoots * ScaleType.values().length * numOctaves, Scale.getCache().getMaxSize());
+        assertEquals(numRoots * ChordType.values().length * numOctaves, Chord.getCache().getMaxSize());
+
+        // Each key keeps its instance, however many others have been requested
+        Chord first = Chord.of(NoteType.C, ChordType.MAJOR);
+        for (NoteType root : NoteType.values()) {
+            for (ChordType chordType : ChordType.values()) {
+                assertSame(Chord.of(root, chordType), Chord.of(root, chordType));
+            }
+        }
+        assertSame(first, Chord.of(NoteType.C, ChordType.MAJOR));
+    }
+
+    @Test
+    public void testSharedDiatonicChordTypesAreUnmodifiable() throws Exception {
+        Scale scale = Scale.of(NoteType.C, ScaleType.MAJOR);
+        Map<Integer, List<ChordType>> byRelativePitch = scale.getDiatonicChordTypesByRelativePitch();
+
+        try {
+            byRelativePitch.remove(0);
+            fail();
+        } catch (UnsupportedOperationException ex) {}
+
+        try {
+            byRelativePitch.get(0).clear();
+            fail();
+        } catch (UnsupportedOperationException ex) {}
+
+        assertSame(byRelativePitch, new Scale(scale).getDiatonicChordTypesByRelativePitch());
+    }
+}
@@ -0,0 +1,90 @@
+package musictheory;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IntervalTest {
+
+    @Test
+    public void testBetweenNoteTypes() throws Exception {
+        for (NoteType from : NoteType.values()) {
+            for (NoteType to : NoteType.values()) {
+                Interval interval = Interval.between(from, to);
+                if (interval == null) continue;
+
+                int letters = Math.floorMod((to.letter - 'C' + 7) % 7 - (from.letter - 'C' + 7) % 7, 7);
+                assertEquals(letters, (interval.intervalNumber - 1) % 7);
+                assertEquals(Math.floorMod(to.relativePitch - from.relativePitch, 12), interval.relativePitchDistance % 12);
+            }
+        }
+
+        assertSame(Interval.MAJOR_THIRD, Interval.between(NoteType.C, NoteType.E));
+        assertSame(Interval.DIMINISHED_FOURTH, Interval.between(NoteType.C_SHARP, NoteType.F));
+        assertSame(Interval.DIMINISHED_SECOND, Interval.between(NoteType.B, NoteType.C_FLAT));
+        assertSame(Interval.AUGMENTED_SEVENTH, Interval.between(NoteType.C, NoteType.B_SHARP));
+        assertSame(Interval.DIMINISHED_OCTAVE, Interval.between(NoteType.C, NoteType.C_FLAT));
+        assertSame(Interval.AUGMENTED_UNISON, Interval.between(NoteType.C, NoteType.C_SHARP));
+        assertNull(Interval.between(NoteType.F_FLAT, NoteType.B_SHARP));
+    }
+
+    @Test
+    public void testBetweenScaleNotes() throws Exception {
+        for (ScaleType st : ScaleType.values()) {
+            for (NoteType nt : new NoteType[] {NoteType.C, NoteType.E_FLAT, NoteType.F_SHARP}) {
+                Scale scale = new Scale(nt, st, Octave.OCTAVE_FOUR);
+                Note[] notes = scale.getNotes();
+
+                for (int i = 0; i < notes.length; i++) {
+                    NashvilleNumber nn = st.nashvilleNumbers[i];
+                    Interval interval = Interval.between(notes[0], notes[i]);
+                    if (interval == null) continue;
+
+                    assertEquals((nn.intervalNumber - 1) % 7, (interval.intervalNumber - 1) % 7);
+                    assertEquals(nn.relativePitchDistance % 12, interval.relativePitchDistance % 12);
+                    assertSame(interval, Interval.between(notes[i], notes[0]));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCompoundIntervals() throws Exception {
+        Note c4 = new Note(NoteType.C, Octave.OCTAVE_FOUR);
+        Note e5 = new Note(NoteType.E, Octave.OCTAVE_FIVE);
+
+        assertSame(Interval.MAJOR_THIRD, Interval.between(c4, e5));
+        assertEquals(10, Interval.getCompoundNumber(c4, e5));
+        assertSame(Interval.MAJOR_THIRD, Interval.between(e5, c4));
+        assertEquals(-10, Interval.getCompoundNumber(e5, c4));
+
+        assertSame(Interval.PERFECT_UNISON, Interval.between(c4, c4));
+        assertEquals(1, Interval.getCompoundNumber(c4, c4));
+        assertSame(Interval.PERFECT_OCTAVE, Interval.between(c4, new Note(NoteType.C, Octave.OCTAVE_FIVE)));
+        assertEquals(8, Interval.getCompoundNumber(c4, new Note(NoteType.C, Octave.OCTAVE_FIVE)));
+        assertSame(Interval.PERFECT_OCTAVE, Interval.between(c4, new Note(NoteType.C, Octave.OCTAVE_SIX)));
+        assertEquals(15, Interval.getCompoundNumber(c4, new Note(NoteType.C, Octave.OCTAVE_SIX)));
+
+        // B♯ and C♭ are spelled on their own letters, whatever they sound like
+        Note bSharp = new Note(NoteType.B_SHARP, Octave.OCTAVE_FOUR);
+        assertEquals(c4.getPitch(), bSharp.getPitch());
+        assertSame(Interval.DIMINISHED_SECOND, Interval.between(bSharp, c4));
+        assertEquals(2, Interval.getCompoundNumber(bSharp, c4));
+        assertEquals(-2, Interval.getCompoundNumber(c4, bSharp));
+    }
+
+    @Test
+    public void testBetweenMelody() throws Exception {
+        Note[] melody = {
+                new Note(NoteType.G, Octave.OCTAVE_FOUR),
+                new Note(NoteType.E, Octave.OCTAVE_FOUR),
+                new Note(NoteType.E_FLAT, Octave.OCTAVE_FIVE),
+                new Note(NoteType.D, Octave.OCTAVE_FIVE)};
+        Interval[] intervals = new Interval[melody.length - 1];
+        int[] numbers = new int[melody.length - 1];
+
+        Interval.between(melody, intervals, numbers);
+        assertArrayEquals(new Interval[] {Interval.MINOR_THIRD, Interval.DIMINISHED_OCTAVE, Interval.MINOR_SECOND}, intervals);
+        assertArrayEquals(new int[] {-3, 8, -2}, numbers);
+    }
+}
@@ -0,0 +1,71 @@
+package musictheory;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class KeySignatureTest {
+
+    @Test
+    public void testStandardKeySignatures() throws Exception {
+        assertSame(KeySignature.C_MAJOR, KeySignature.getMajorKeySignatureWithRoot(NoteType.C));
+        assertSame(KeySignature.C_SHARP_MAJOR, KeySignature.getMajorKeySignatureWithRoot(NoteType.C_SHARP));
+        assertSame(KeySignature.C_FLAT_MAJOR, KeySignature.getMajorKeySignatureWithRoot(NoteType.C_FLAT));
+        assertSame(KeySignature.A_MINOR, KeySignature.getMinorKeySignatureWithRoot(NoteType.A));
+        assertSame(KeySignature.A_SHARP_MINOR, KeySignature.getMinorKeySignatureWithRoot(NoteType.A_SHARP));
+        assertSame(KeySignature.A_FLAT_MINOR, KeySignature.getMinorKeySignatureWithRoot(NoteType.A_FLAT));
+
+        for (KeySignature ks : KeySignature.values()) {
+            if (ks == KeySignature.NO_KEY_SIGNATURE || ks == KeySignature.THEORETICAL_KEY_SIGNATURE) continue;
+
+            int fifths = ks.isFlatKeySignature() ? -ks.notes.length : ks.notes.length;
+            assertArrayEquals(ks.notes, KeySignature.getAccidentals(fifths));
+        }
+    }
+
+    @Test
+    public void testTheoreticalKeySignatures() throws Exception {
+        assertSame(KeySignature.THEORETICAL_KEY_SIGNATURE, KeySignature.getMajorKeySignatureWithRoot(NoteType.G_SHARP));
+        assertSame(KeySignature.THEORETICAL_KEY_SIGNATURE, KeySignature.getMinorKeySignatureWithRoot(NoteType.D_FLAT));
+
+        assertEquals(8, KeySignature.getFifths(NoteType.G_SHARP));
+        assertEquals(-8, KeySignature.getFifths(NoteType.F_FLAT));
+        assertSame(NoteType.F_DOUBLE_SHARP, KeySignature.getAccidentals(8)[0]);
+        assertSame(NoteType.B_DOUBLE_FLAT, KeySignature.getAccidentals(-8)[0]);
+        assertNull(KeySignature.getAccidentals(KeySignature.MAX_FIFTHS + 1));
+        assertNull(KeySignature.getAccidentals(KeySignature.NO_FIFTHS));
+    }
+
+    @Test
+    public void testModalKeySignatures() throws Exception {
+        assertSame(KeySignature.C_MAJOR, new Scale(NoteType.D, ScaleType.DORIAN).getKeySignature());
+        assertSame(KeySignature.C_MAJOR, new Scale(NoteType.B, ScaleType.LOCRIAN).getKeySignature());
+        assertSame(KeySignature.B_FLAT_MAJOR, new Scale(NoteType.F, ScaleType.MIXOLYDIAN).getKeySignature());
+        assertSame(KeySignature.E_MAJOR, new Scale(NoteType.C_SHARP, ScaleType.AEOLIAN).getKeySignature());
+        assertSame(KeySignature.NO_KEY_SIGNATURE, new Scale(NoteType.C, ScaleType.WHOLE_TONE).getKeySignature());
+    }
+
+    @Test
+    public void testKeySignatureMatchesSpelledScale() throws Exception {
+        for (ScaleType st : ScaleType.values()) {
+            for (NoteType nt : NoteType.values()) {
+                if (nt.isNatural()) continue;
+
+                Scale scale = new Scale(nt, st);
+                NoteType[] accidentals = scale.getKeySignatureAccidentals();
+                if (accidentals == null || st.tonality == Tonality.MINOR_TONALITY) continue;
+
+                // The key signature of a diatonic Scale holds exactly the Scale's sharps and flats
+                Set<NoteType> expected = new HashSet<NoteType>();
+                for (NoteType n : scale.getNoteTypes()) {
+                    if (n.hasAccidentalSymbol() && !n.isNatural()) expected.add(n);
+                }
+                assertEquals(scale.getName(), expected, new HashSet<NoteType>(Arrays.asList(accidentals)));
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package musictheory;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NameTableTest {
+
+    @Test
+    public void testChordNames() throws Exception {
+        for (NoteType nt : NoteType.values()) {
+            for (ChordType ct : ChordType.values()) {
+                Chord chord = new Chord(nt, ct);
+                Chord copy = new Chord(chord);
+
+                for (int i = 0; i < chord.notes.length; i++) {
+                    chord.setToInversion(i);
+                    copy.setToInversion(i);
+
+                    String expected = nt.name + ct.chordSymbol
+                            + (i == 0 ? "" : "/" + chord.noteTypes[i].name);
+                    assertEquals(expected, chord.getName());
+                    assertEquals(chord.getName(), chord.getName(AccidentalStyle.UNICODE));
+
+                    // Chords with the same structure share the same String
+                    assertSame(chord.getName(), copy.getName());
+                    assertSame(chord.getName(AccidentalStyle.ASCII), copy.getName(AccidentalStyle.ASCII));
+
+                    assertIsAscii(chord.getName(AccidentalStyle.ASCII));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testScaleNames() throws Exception {
+        for (NoteType nt : NoteType.values()) {
+            for (ScaleType st : ScaleType.values()) {
+                Scale scale = new Scale(nt, st);
+
+                assertEquals(nt.name + " " + st.name, scale.getName());
+                assertSame(scale.getName(), new Scale(nt, st).getName());
+                assertIsAscii(scale.getName(AccidentalStyle.ASCII));
+            }
+        }
+    }
+
+    @Test
+    public void testAsciiNames() throws Exception {
+        assertEquals("Bb", NoteType.B_FLAT.getName(AccidentalStyle.ASCII));
+        assertEquals("F#", new Note(NoteType.F_SHARP, Octave.OCTAVE_FOUR).getName(AccidentalStyle.ASCII));
+        assertEquals("E", NoteType.E_NATURAL.getName(AccidentalStyle.ASCII));
+        assertEquals("7b5#9", ChordType.SEVEN_FLAT_FIVE_SHARP_NINE.getChordSymbol(AccidentalStyle.ASCII));
+        assertEquals("m7b5", ChordType.HALF_DIMINISHED.getChordSymbol(AccidentalStyle.ASCII));
+
+        Chord chord = new Chord(NoteType.E_FLAT, ChordType.MAJOR);
+        chord.setToInversion(1);
+        assertEquals("E♭maj/G♮", chord.getName());
+        assertEquals("Ebmaj/G", chord.getName(AccidentalStyle.ASCII));
+    }
+
+    private static void assertIsAscii(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            assertTrue(name, name.charAt(i) < 128);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package musictheory;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+public class NoteTypeTest {
+
+    @Test
+    public void testGetNoteType() throws Exception {
+        for (NoteType nt : NoteType.values()) {
+            assertSame(nt, NoteType.getNoteType(nt.letter, nt.accidental));
+
+            String enumName = nt.accidental == Accidental.NONE ? nt.letter + "" : nt.letter + "_" + nt.accidental;
+            assertSame(Enum.valueOf(NoteType.class, enumName), NoteType.getNoteType(nt.letter, nt.accidental));
+        }
+
+        for (char c = 'A'; c <= 'G'; c++) {
+            for (Accidental a : Accidental.values()) {
+                NoteType nt = NoteType.getNoteType(c, a);
+                assertEquals(c, nt.letter);
+                assertEquals(a, nt.accidental);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetNoteTypeInvalidLetter() throws Exception {
+        NoteType.getNoteType('H', Accidental.SHARP);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetNoteTypeLowercaseLetter() throws Exception {
+        NoteType.getNoteType('c', Accidental.NONE);
+    }
+
+    @Test
+    public void testGetNoteTypeDoesNotAllocate() throws Exception {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+        final int iterations = 1000000;
+        Accidental[] accidentals = Accidental.values();
+        long threadId = Thread.currentThread().getId();
+        int checksum = 0;
+
+        // Warm up, so that class loading and compilation are not measured
+        for (int i = 0; i < iterations; i++) {
+            checksum += NoteType.getNoteType((char) ('A' + i % 7), accidentals[i % accidentals.length]).relativePitch;
+        }
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            checksum += NoteType.getNoteType((char) ('A' + i % 7), accidentals[i % accidentals.length]).relativePitch;
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        // Building a String per lookup would cost dozens of bytes per call
+        assertTrue("allocated " + allocated + " bytes", allocated < iterations / 100);
+        assertTrue(checksum > 0);
+    }
+}
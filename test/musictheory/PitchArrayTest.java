@@ -0,0 +1,70 @@
+package musictheory;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PitchArrayTest {
+
+    @Test
+    public void testPackedPitchRoundTrip() throws Exception {
+        for (NoteType nt : NoteType.values()) {
+            for (Octave o : Octave.values()) {
+                Note note = new Note(nt, o);
+                int packed = PackedPitch.of(note);
+
+                assertEquals(nt, PackedPitch.getNoteType(packed));
+                assertEquals(note.getPitch(), PackedPitch.getMidiPitch(packed));
+                assertEquals(note.getOctave(), PackedPitch.getOctave(packed));
+                assertEquals(packed, PackedPitch.of(nt, note.getPitch()));
+                assertEquals(packed, PackedPitch.of(nt, o));
+                assertTrue(note.isIdenticalTo(PackedPitch.toNote(packed)));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPackedPitchMismatch() throws Exception {
+        PackedPitch.of(NoteType.C_SHARP, 60);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPackedPitchOutOfRange() throws Exception {
+        PackedPitch.shiftOctaves(PackedPitch.of(NoteType.G, 127), 1);
+    }
+
+    @Test
+    public void testPitchArray() throws Exception {
+        Chord chord = new Chord(NoteType.E_FLAT, ChordType.MINOR_SEVEN, Octave.OCTAVE_FOUR);
+        PitchArray array = PitchArray.of(chord);
+        Note[] notes = chord.getNotes();
+
+        assertEquals(notes.length, array.size());
+        assertEquals(chord.getPitchClassMask(), array.getPitchClassMask());
+        for (int i = 0; i < notes.length; i++) {
+            assertEquals(notes[i].getNoteType(), array.getNoteType(i));
+            assertEquals(notes[i].getPitch(), array.getMidiPitch(i));
+        }
+
+        // The PitchArray is a snapshot; inverting the Chord afterwards does not change it
+        PitchArray copy = new PitchArray(array);
+        chord.invert();
+        assertEquals(copy, array);
+        assertEquals(copy, PitchArray.of(copy.toNotes()));
+
+        // Growing past the initial capacity
+        PitchArray grown = new PitchArray(1);
+        for (int i = 0; i < 100; i++) {
+            grown.add(NoteType.C, 12 * (i % 10));
+        }
+        assertEquals(100, grown.size());
+        assertEquals(108, grown.getMidiPitch(99));
+        grown.clear();
+        assertEquals(0, grown.size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testPitchArrayIndex() throws Exception {
+        new PitchArray().get(0);
+    }
+}
@@ -0,0 +1,78 @@
+package musictheory;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class PitchClassSetTest {
+
+    @Test
+    public void testOf() throws Exception {
+        assertEquals(0b000010010001, PitchClassSet.of(ChordType.MAJOR.nashvilleNumbers));
+        assertEquals(0b101010110101, PitchClassSet.of(ScaleType.MAJOR.nashvilleNumbers));
+        assertEquals(0b101010110101, PitchClassSet.of(new Scale(NoteType.C, ScaleType.MAJOR).getNoteTypes()));
+    }
+
+    @Test
+    public void testCatalogMasks() throws Exception {
+        for (ScaleType scaleType : ScaleType.values()) {
+            assertEquals(toSet(scaleType.nashvilleNumbers), toSet(scaleType.pitchClassMask));
+        }
+        for (ChordType chordType : ChordType.values()) {
+            assertEquals(toSet(chordType.nashvilleNumbers), toSet(chordType.pitchClassMask));
+        }
+    }
+
+    @Test
+    public void testIntervalSetMask() throws Exception {
+        for (NoteType nt : NoteType.values()) {
+            for (ChordType ct : ChordType.values()) {
+                Chord chord = new Chord(nt, ct);
+                assertEquals(PitchClassSet.rotate(ct.pitchClassMask, nt.relativePitch), chord.getPitchClassMask());
+            }
+        }
+    }
+
+    @Test
+    public void testRotate() throws Exception {
+        int major = ChordType.MAJOR.pitchClassMask;
+        for (int i = -24; i <= 24; i++) {
+            int rotated = PitchClassSet.rotate(major, i);
+            assertEquals(3, PitchClassSet.size(rotated));
+            assertTrue(PitchClassSet.contains(rotated, Math.floorMod(i, 12)));
+            assertEquals(major, PitchClassSet.rotate(rotated, -i));
+        }
+        assertEquals(PitchClassSet.CHROMATIC, PitchClassSet.rotate(PitchClassSet.CHROMATIC, 5));
+    }
+
+    @Test
+    public void testSubsetAndIntersection() throws Exception {
+        int major = ScaleType.MAJOR.pitchClassMask;
+        assertTrue(PitchClassSet.isSubsetOf(ChordType.MAJOR.pitchClassMask, major));
+        assertTrue(PitchClassSet.isSubsetOf(PitchClassSet.EMPTY, major));
+        assertFalse(PitchClassSet.isSubsetOf(ChordType.MINOR.pitchClassMask, major));
+        assertEquals(0b000010000001,
+                PitchClassSet.intersection(ChordType.MAJOR.pitchClassMask, ChordType.MINOR.pitchClassMask));
+        assertEquals(0b000010011001,
+                PitchClassSet.union(ChordType.MAJOR.pitchClassMask, ChordType.MINOR.pitchClassMask));
+    }
+
+    private Set<Integer> toSet(NashvilleNumber[] nashvilleNumbers) {
+        Set<Integer> set = new HashSet<>();
+        for (NashvilleNumber nn : nashvilleNumbers) {
+            set.add(nn.relativePitchDistance % 12);
+        }
+        return set;
+    }
+
+    private Set<Integer> toSet(int mask) {
+        Set<Integer> set = new HashSet<>();
+        for (int i = 0; i < 12; i++) {
+            if (PitchClassSet.contains(mask, i)) set.add(i);
+        }
+        return set;
+    }
+}
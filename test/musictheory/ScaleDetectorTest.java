@@ -0,0 +1,86 @@
+package musictheory;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ScaleDetectorTest {
+
+    @Test
+    public void testDetectScaleFromItsNotes() throws Exception {
+        for (NoteType nt : new NoteType[] {NoteType.C, NoteType.E_FLAT, NoteType.F_SHARP, NoteType.A}) {
+            for (ScaleType st : new ScaleType[] {ScaleType.MAJOR, ScaleType.HARMONIC_MINOR, ScaleType.WHOLE_TONE}) {
+                ScaleDetector detector = new ScaleDetector();
+                for (Note n : new Scale(nt, st).getNotes()) {
+                    detector.addNote(n);
+                }
+                // Lean on the tonic, as a melody would
+                detector.addPitch(nt.relativePitch, 2);
+
+                Scale best = detector.getRankedScales(1).get(0);
+                assertEquals(nt.relativePitch, best.getRootNoteType().relativePitch);
+                assertEquals(new Scale(nt, st).getPitchClassMask(), best.getPitchClassMask());
+                assertEquals(detector.getScore(best.getRootNoteType(), best.getScaleType()), detector.getScore(nt, st), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testRankedScalesAreSorted() throws Exception {
+        ScaleDetector detector = new ScaleDetector();
+        for (int pitch : new int[] {60, 62, 64, 65, 67, 69, 71, 72, 66}) {
+            detector.addPitch(pitch, 1);
+        }
+
+        List<Scale> ranked = detector.getRankedScales(25);
+        assertEquals(25, ranked.size());
+        for (int i = 1; i < ranked.size(); i++) {
+            assertTrue(detector.getScore(ranked.get(i - 1).getRootNoteType(), ranked.get(i - 1).getScaleType())
+                    >= detector.getScore(ranked.get(i).getRootNoteType(), ranked.get(i).getScaleType()));
+        }
+
+        // The chromatic scale explains everything, and so it tells nothing apart
+        assertEquals(0.0, detector.getScore(NoteType.C, ScaleType.CHROMATIC), 0.0);
+    }
+
+    @Test
+    public void testRemovePitch() throws Exception {
+        ScaleDetector window = new ScaleDetector();
+        ScaleDetector fresh = new ScaleDetector();
+
+        int[] pitches = {60, 64, 67, 61, 65, 68, 70, 63};
+        for (int i = 0; i < pitches.length; i++) {
+            window.addPitch(pitches[i], 1);
+            if (i >= 4) window.removePitch(pitches[i - 4], 1);
+        }
+        for (int i = pitches.length - 4; i < pitches.length; i++) {
+            fresh.addPitch(pitches[i], 1);
+        }
+
+        assertEquals(fresh.getTotalWeight(), window.getTotalWeight());
+        for (NoteType nt : NoteType.values()) {
+            for (ScaleType st : ScaleType.values()) {
+                assertEquals(fresh.getScore(nt, st), window.getScore(nt, st), 1e-9);
+            }
+        }
+        assertEquals(fresh.getRankedScales(10), window.getRankedScales(10));
+
+        window.reset();
+        assertEquals(0, window.getTotalWeight());
+        assertEquals(0.0, window.getScore(NoteType.C, ScaleType.MAJOR), 0.0);
+    }
+
+    @Test
+    public void testRankedScalesLimit() throws Exception {
+        ScaleDetector detector = new ScaleDetector();
+        detector.addPitch(60, 1);
+        assertTrue(detector.getRankedScales(0).isEmpty());
+
+        try {
+            detector.getRankedScales(-1);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+    }
+}
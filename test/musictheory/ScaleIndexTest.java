@@ -0,0 +1,47 @@
+package musictheory;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ScaleIndexTest {
+
+    @Test
+    public void testEveryMaskMatchesBruteForce() throws Exception {
+        for (int mask = 0; mask <= PitchClassSet.CHROMATIC; mask++) {
+            List<Integer> expected = new ArrayList<Integer>();
+            for (int k = 0; k < ScaleIndex.NUM_CANDIDATES; k++) {
+                if (ScaleIndex.getRoot(k) != null && PitchClassSet.isSubsetOf(mask, ScaleIndex.getPitchClassMask(k))) {
+                    expected.add(k);
+                }
+            }
+
+            assertEquals(expected.size(), ScaleIndex.getCandidateCount(mask));
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals((int) expected.get(i), ScaleIndex.getCandidate(mask, i));
+            }
+        }
+    }
+
+    @Test
+    public void testGetScalesContaining() throws Exception {
+        List<Scale> scales = ScaleIndex.getScalesContaining(NoteType.C, NoteType.E_FLAT, NoteType.B);
+        assertFalse(scales.isEmpty());
+        assertTrue(scales.contains(Scale.of(NoteType.C, ScaleType.HARMONIC_MINOR)));
+        assertFalse(scales.contains(Scale.of(NoteType.C, ScaleType.MAJOR)));
+
+        int mask = PitchClassSet.of(new NoteType[] {NoteType.C, NoteType.E_FLAT, NoteType.B});
+        for (Scale s : scales) {
+            assertTrue(s.isImmutable());
+            assertTrue(PitchClassSet.isSubsetOf(mask, s.getPitchClassMask()));
+        }
+
+        // Spelling does not matter
+        assertEquals(scales, ScaleIndex.getScalesContaining(NoteType.B_SHARP, NoteType.D_SHARP, NoteType.C_FLAT));
+        assertEquals(scales, ScaleIndex.getScalesContaining(new Note(NoteType.C, Octave.OCTAVE_FOUR),
+                new Note(NoteType.E_FLAT, Octave.OCTAVE_TWO), new Note(NoteType.B, Octave.OCTAVE_SIX)));
+    }
+}
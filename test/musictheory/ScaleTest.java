@@ -134,7 +134,7 @@ public class ScaleTest {
 
     @Test
     public void testScaleDiatonicChords() throws Exception {
-        Map<Integer, ArrayList<ChordType>> hm = scale.getDiatonicChordTypesByRelativePitch();
+        Map<Integer, List<ChordType>> hm = scale.getDiatonicChordTypesByRelativePitch();
 
         int index = 0;
         for (Integer i : hm.keySet()) {
@@ -191,6 +191,19 @@ public class ScaleTest {
         assertFalse(diatonicChordTypes.isEmpty());
     }
 
+    @Test
+    public void testGetDiatonicChordsAtDegree() throws Exception {
+        int numDiatonicChords = 0;
+        for (int i = 0; i < scale.noteTypes.length; i++) {
+            for (Chord c : scale.getDiatonicChordsAtDegree(i)) {
+                assertEquals(scale.noteTypes[i].relativePitch, c.getRootNoteType().relativePitch);
+                assertTrue(scale.containsAllPitchClassesOf(c));
+                numDiatonicChords++;
+            }
+        }
+        assertEquals(scale.getDiatonicChordTypes().size(), numDiatonicChords);
+    }
+
     @Test
     public void testGetScaleType() throws Exception {
         assertNotNull(scale.getScaleType());
@@ -236,7 +249,7 @@ public class ScaleTest {
 
     @Test
     public void testGetDiatonicChordTypesByRelativePitch() throws Exception {
-        HashMap<Integer, ArrayList<ChordType>> diatonicChordTypesByRelativePitch = scale.getDiatonicChordTypesByRelativePitch();
+        Map<Integer, List<ChordType>> diatonicChordTypesByRelativePitch = scale.getDiatonicChordTypesByRelativePitch();
         assertNotNull(diatonicChordTypesByRelativePitch);
     }
 
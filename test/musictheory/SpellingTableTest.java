@@ -0,0 +1,281 @@
+package musictheory;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SpellingTableTest {
+
+    /*
+     * Every (root, NashvilleNumber) spelling from the rule-based setNoteTypes that SpellingTable replaced,
+     * generated by spelling {ONE, NashvilleNumber} above each root. One row per root in NoteType order,
+     * one token per NashvilleNumber in NashvilleNumber order: the letter, then bb, b, n, # or x for the
+     * accidental, or - where the rules could not spell it.
+     */
+    private static final String[] SNAPSHOT = {
+            // B_SHARP
+            "Bb B B# Bx Cx C C# Cx D# - Dn D# Dx E# - Eb En E# Ex Fx Fn F# Fx G# - Gn G# Gx A# - An A# Ax " +
+                    "- - Bb B B# Bx Cx C C# Cx D# - Dn D# Dx E# - Eb En E# Ex Fx Fn F# Fx G# - Gn G# Gx A# -",
+            // C
+            "- Cb C C# Cx Dbb Db D D# Dx Ebb Eb E E# Ex Fbb Fb F F# Fx Gbb Gb G G# Gx Abb Ab A A# Ax Bbb Bb B " +
+                    "B# - - Cb C C# Cx Dbb Db D D# Dx Ebb Eb E E# Ex Fbb Fb F F# Fx Gbb Gb G G# Gx Abb Ab A A# Ax",
+            // C_NATURAL
+            "- Cb C C# Cx Dbb Db D D# Dx Ebb Eb E E# Ex Fbb Fb F F# Fx Gbb Gb G G# Gx Abb Ab A A# Ax Bbb Bb B " +
+                    "B# - - Cb C C# Cx Dbb Db D D# Dx Ebb Eb E E# Ex Fbb Fb F F# Fx Gbb Gb G G# Gx Abb Ab A A# Ax",
+            // D_DOUBLE_FLAT
+            "- Cb Dbb Db Dn Dbb Db Ebb Eb E Ebb Fbb Fb Fn - Fbb Fb Gbb Gb Gn Gbb Gb Abb Ab An Abb Ab Bbb Bb Bn Bbb Cbb Cb " +
+                    "C - - Cb Dbb Db Dn Dbb Db Ebb Eb E Ebb Fbb Fb Fn - Fbb Fb Gbb Gb Gn Gbb Gb Abb Ab An Abb Ab Bbb Bb Bn",
+            // B_DOUBLE_SHARP
+            "B B# Bx Cx D# C# Cx D# Dx - D# Dx E# Ex - En E# Ex Fx G# F# Fx G# Gx - G# Gx A# Ax - A# Ax B# " +
+                    "- - B B# Bx Cx D# C# Cx D# Dx - D# Dx E# Ex - En E# Ex Fx G# F# Fx G# Gx - G# Gx A# Ax -",
+            // C_SHARP
+            "- Cn C# Cx D# Db D D# Dx E# Eb En E# Ex Fx Fb Fn F# Fx G# Gb Gn G# Gx A# Ab An A# Ax - Bb B B# " +
+                    "Bx Cx - Cn C# Cx D# Db D D# Dx E# Eb En E# Ex Fx Fb Fn F# Fx G# Gb Gn G# Gx A# Ab An A# Ax -",
+            // D_FLAT
+            "- Dbb Db Dn D# Db Ebb Eb E E# Fbb Fb Fn F# - Fb Gbb Gb Gn G# Gb Abb Ab An A# Ab Bbb Bb Bn - Cbb Cb C " +
+                    "C# - - Dbb Db Dn D# Db Ebb Eb E E# Fbb Fb Fn F# - Fb Gbb Gb Gn G# Gb Abb Ab An A# Ab Bbb Bb Bn -",
+            // C_DOUBLE_SHARP
+            "Cn C# Cx D# Dx D D# Dx E# Ex En E# Ex Fx G# Fn F# Fx G# Gx Gn G# Gx A# Ax An A# Ax B# - B B# Bx " +
+                    "Cx D# Cn C# Cx D# Dx D D# Dx E# Ex En E# Ex Fx G# Fn F# Fx G# Gx Gn G# Gx A# Ax An A# Ax B# -",
+            // D
+            "Dbb Db D D# Dx Ebb Eb E E# Ex Fb F F# Fx - Gbb Gb G G# Gx Abb Ab A A# Ax Bbb Bb B B# - Cb C C# " +
+                    "Cx - Dbb Db D D# Dx Ebb Eb E E# Ex Fb F F# Fx - Gbb Gb G G# Gx Abb Ab A A# Ax Bbb Bb B B# -",
+            // D_NATURAL
+            "Dbb Db D D# Dx Ebb Eb E E# Ex Fb F F# Fx - Gbb Gb G G# Gx Abb Ab A A# Ax Bbb Bb B B# - Cb C C# " +
+                    "Cx - Dbb Db D D# Dx Ebb Eb E E# Ex Fb F F# Fx - Gbb Gb G G# Gx Abb Ab A A# Ax Bbb Bb B B# -",
+            // E_DOUBLE_FLAT
+            "Dbb Db Ebb Eb En Ebb Fbb Fb F - Fb Gbb Gb Gn - Gbb Gb Abb Ab An Abb Ab Bbb Bb Bn Bbb Cbb Cb C - Cb Dbb Db " +
+                    "Dn - Dbb Db Ebb Eb En Ebb Fbb Fb F - Fb Gbb Gb Gn - Gbb Gb Abb Ab An Abb Ab Bbb Bb Bn Bbb Cbb Cb C -",
+            // D_SHARP
+            "Db Dn D# Dx E# Eb E E# Ex Fx Fn F# Fx G# - Gb Gn G# Gx A# Ab An A# Ax - Bb B B# Bx Cx Cn C# Cx " +
+                    "D# - Db Dn D# Dx E# Eb E E# Ex Fx Fn F# Fx G# - Gb Gn G# Gx A# Ab An A# Ax - Bb B B# Bx Cx",
+            // E_FLAT
+            "Db Ebb Eb En E# Fbb Fb F F# - Gbb Gb Gn G# - Gb Abb Ab An A# Ab Bbb Bb Bn - Cbb Cb C C# - Dbb Db Dn " +
+                    "D# - Db Ebb Eb En E# Fbb Fb F F# - Gbb Gb Gn G# - Gb Abb Ab An A# Ab Bbb Bb Bn - Cbb Cb C C# -",
+            // F_DOUBLE_FLAT
+            "Db Ebb Fbb Fb Fn Fbb Fb Gbb Gb G Gbb Gb Abb Ab An - Abb Ab Bbb Bb Ab Bbb Cbb Cb C - Cb Dbb Db Dn Dbb Db Ebb " +
+                    "Eb En Db Ebb Fbb Fb Fn Fbb Fb Gbb Gb G Gbb Gb Abb Ab An - Abb Ab Bbb Bb Ab Bbb Cbb Cb C - Cb Dbb Db Dn",
+            // D_DOUBLE_SHARP
+            "Dn D# Dx E# Ex E E# Ex Fx G# F# Fx G# Gx - Gn G# Gx A# Ax An A# Ax B# - B B# Bx Cx D# C# Cx D# " +
+                    "Dx - Dn D# Dx E# Ex E E# Ex Fx G# F# Fx G# Gx - Gn G# Gx A# Ax An A# Ax B# - B B# Bx Cx D#",
+            // E
+            "Ebb Eb E E# Ex Fb F F# Fx - Gb G G# Gx - Abb Ab A A# Ax Bbb Bb B B# - Cb C C# Cx - Db D D# " +
+                    "Dx - Ebb Eb E E# Ex Fb F F# Fx - Gb G G# Gx - Abb Ab A A# Ax Bbb Bb B B# - Cb C C# Cx -",
+            // E_NATURAL
+            "Ebb Eb E E# Ex Fb F F# Fx - Gb G G# Gx - Abb Ab A A# Ax Bbb Bb B B# - Cb C C# Cx - Db D D# " +
+                    "Dx - Ebb Eb E E# Ex Fb F F# Fx - Gb G G# Gx - Abb Ab A A# Ax Bbb Bb B B# - Cb C C# Cx -",
+            // F_FLAT
+            "Ebb Fbb Fb Fn F# Fb Gbb Gb G G# Gb Abb Ab An A# - Ab Bbb Bb Bn Bbb Cbb Cb C C# - Dbb Db Dn D# Db Ebb Eb " +
+                    "En E# Ebb Fbb Fb Fn F# Fb Gbb Gb G G# Gb Abb Ab An A# - Ab Bbb Bb Bn Bbb Cbb Cb C C# - Dbb Db Dn D#",
+            // E_SHARP
+            "Eb En E# Ex Fx F F# Fx G# - Gn G# Gx A# - Ab An A# Ax - Bb B B# Bx Cx Cn C# Cx D# - Dn D# Dx " +
+                    "E# - Eb En E# Ex Fx F F# Fx G# - Gn G# Gx A# - Ab An A# Ax - Bb B B# Bx Cx Cn C# Cx D# -",
+            // F
+            "Fbb Fb F F# Fx Gbb Gb G G# Gx Abb Ab A A# Ax - Bbb Bb B B# - Cb C C# Cx Dbb Db D D# Dx Ebb Eb E " +
+                    "E# Ex Fbb Fb F F# Fx Gbb Gb G G# Gx Abb Ab A A# Ax - Bbb Bb B B# - Cb C C# Cx Dbb Db D D# Dx",
+            // F_NATURAL
+            "Fbb Fb F F# Fx Gbb Gb G G# Gx Abb Ab A A# Ax - Bbb Bb B B# - Cb C C# Cx Dbb Db D D# Dx Ebb Eb E " +
+                    "E# Ex Fbb Fb F F# Fx Gbb Gb G G# Gx Abb Ab A A# Ax - Bbb Bb B B# - Cb C C# Cx Dbb Db D D# Dx",
+            // G_DOUBLE_FLAT
+            "Fbb Fb Gbb Gb Gn Gbb Gb Abb Ab A Abb Ab Bbb Bb Bn Ab Bbb Cbb Cb C - Cb Dbb Db Dn Dbb Db Ebb Eb En Ebb Fbb Fb " +
+                    "Fn - Fbb Fb Gbb Gb Gn Gbb Gb Abb Ab A Abb Ab Bbb Bb Bn Ab Bbb Cbb Cb C - Cb Dbb Db Dn Dbb Db Ebb Eb En",
+            // E_DOUBLE_SHARP
+            "En E# Ex Fx G# F# Fx G# Gx - G# Gx A# Ax - An A# Ax B# - B B# Bx Cx D# C# Cx D# Dx - D# Dx E# " +
+                    "Ex - En E# Ex Fx G# F# Fx G# Gx - G# Gx A# Ax - An A# Ax B# - B B# Bx Cx D# C# Cx D# Dx -",
+            // F_SHARP
+            "Fb Fn F# Fx G# Gb G G# Gx A# Ab An A# Ax - - Bb B B# Bx - Cn C# Cx D# Db Dn D# Dx E# Eb En E# " +
+                    "Ex Fx Fb Fn F# Fx G# Gb G G# Gx A# Ab An A# Ax - - Bb B B# Bx - Cn C# Cx D# Db Dn D# Dx E#",
+            // G_FLAT
+            "Fb Gbb Gb Gn G# Gb Abb Ab A A# Ab Bbb Bb Bn - Bbb Cbb Cb C C# - Dbb Db Dn D# Db Ebb Eb En E# Fbb Fb Fn " +
+                    "F# - Fb Gbb Gb Gn G# Gb Abb Ab A A# Ab Bbb Bb Bn - Bbb Cbb Cb C C# - Dbb Db Dn D# Db Ebb Eb En E#",
+            // F_DOUBLE_SHARP
+            "Fn F# Fx G# Gx G G# Gx A# Ax An A# Ax B# - - B B# Bx Cx Cn C# Cx D# Dx Dn D# Dx E# Ex En E# Ex " +
+                    "Fx G# Fn F# Fx G# Gx G G# Gx A# Ax An A# Ax B# - - B B# Bx Cx Cn C# Cx D# Dx Dn D# Dx E# Ex",
+            // G
+            "Gbb Gb G G# Gx Abb Ab A A# Ax Bbb Bb B B# - - Cb C C# Cx Dbb Db D D# Dx Ebb Eb E E# Ex Fb F F# " +
+                    "Fx - Gbb Gb G G# Gx Abb Ab A A# Ax Bbb Bb B B# - - Cb C C# Cx Dbb Db D D# Dx Ebb Eb E E# Ex",
+            // G_NATURAL
+            "Gbb Gb G G# Gx Abb Ab A A# Ax Bbb Bb B B# - - Cb C C# Cx Dbb Db D D# Dx Ebb Eb E E# Ex Fb F F# " +
+                    "Fx - Gbb Gb G G# Gx Abb Ab A A# Ax Bbb Bb B B# - - Cb C C# Cx Dbb Db D D# Dx Ebb Eb E E# Ex",
+            // A_DOUBLE_FLAT
+            "Gbb Gb Abb Ab An Abb Ab Bbb Bb B Bbb Cbb Cb C - - Cb Dbb Db Dn Dbb Db Ebb Eb En Ebb Fbb Fb Fn - Fb Gbb Gb " +
+                    "- - Gbb Gb Abb Ab An Abb Ab Bbb Bb B Bbb Cbb Cb C - - Cb Dbb Db Dn Dbb Db Ebb Eb En Ebb Fbb Fb Fn -",
+            // G_SHARP
+            "Gb Gn G# Gx A# Ab A A# Ax - Bb B B# Bx Cx - Cn C# Cx D# Db Dn D# Dx E# Eb En E# Ex Fx Fn F# Fx " +
+                    "G# - Gb Gn G# Gx A# Ab A A# Ax - Bb B B# Bx Cx - Cn C# Cx D# Db Dn D# Dx E# Eb En E# Ex Fx",
+            // A_FLAT
+            "Gb Abb Ab An A# Ab Bbb Bb B - Cbb Cb C C# - - Dbb Db Dn D# Db Ebb Eb En E# Fbb Fb Fn F# - Gbb Gb Gn " +
+                    "- - Gb Abb Ab An A# Ab Bbb Bb B - Cbb Cb C C# - - Dbb Db Dn D# Db Ebb Eb En E# Fbb Fb Fn F# -",
+            // G_DOUBLE_SHARP
+            "Gn G# Gx A# Ax A A# Ax B# - B B# Bx Cx D# Cn C# Cx D# Dx Dn D# Dx E# Ex En E# Ex Fx G# F# Fx G# " +
+                    "Gx - Gn G# Gx A# Ax A A# Ax B# - B B# Bx Cx D# Cn C# Cx D# Dx Dn D# Dx E# Ex En E# Ex Fx G#",
+            // A
+            "Abb Ab A A# Ax Bbb Bb B B# - Cb C C# Cx - Dbb Db D D# Dx Ebb Eb E E# Ex Fb F F# Fx - Gb G G# " +
+                    "- - Abb Ab A A# Ax Bbb Bb B B# - Cb C C# Cx - Dbb Db D D# Dx Ebb Eb E E# Ex Fb F F# Fx -",
+            // A_NATURAL
+            "Abb Ab A A# Ax Bbb Bb B B# - Cb C C# Cx - Dbb Db D D# Dx Ebb Eb E E# Ex Fb F F# Fx - Gb G G# " +
+                    "- - Abb Ab A A# Ax Bbb Bb B B# - Cb C C# Cx - Dbb Db D D# Dx Ebb Eb E E# Ex Fb F F# Fx -",
+            // B_DOUBLE_FLAT
+            "Abb Ab Bbb Bb Bn Bbb Cbb Cb C - Cb Dbb Db Dn - Dbb Db Ebb Eb En Ebb Fbb Fb Fn - Fb Gbb Gb Gn - Gb Abb Ab " +
+                    "An - Abb Ab Bbb Bb Bn Bbb Cbb Cb C - Cb Dbb Db Dn - Dbb Db Ebb Eb En Ebb Fbb Fb Fn - Fb Gbb Gb Gn -",
+            // A_SHARP
+            "Ab An A# Ax - Bb B B# Bx Cx Cn C# Cx D# - Db Dn D# Dx E# Eb En E# Ex Fx Fn F# Fx G# - Gn G# Gx " +
+                    "- - Ab An A# Ax - Bb B B# Bx Cx Cn C# Cx D# - Db Dn D# Dx E# Eb En E# Ex Fx Fn F# Fx G# -",
+            // B_FLAT
+            "Ab Bbb Bb Bn - Cbb Cb C C# - Dbb Db Dn D# - Db Ebb Eb En E# Fbb Fb Fn F# - Gbb Gb Gn G# - Abb Ab An " +
+                    "A# - Ab Bbb Bb Bn - Cbb Cb C C# - Dbb Db Dn D# - Db Ebb Eb En E# Fbb Fb Fn F# - Gbb Gb Gn G# -",
+            // C_DOUBLE_FLAT
+            "Ab Bbb Cbb Cb C - Cb Dbb Db D Dbb Db Ebb Eb En Db Ebb Fbb Fb Fn Fbb Fb Gbb Gb Gn Gbb Gb Abb Ab An Abb Ab Bbb " +
+                    "Bb Bn Ab Bbb Cbb Cb C - Cb Dbb Db D Dbb Db Ebb Eb En Db Ebb Fbb Fb Fn Fbb Fb Gbb Gb Gn Gbb Gb Abb Ab An",
+            // A_DOUBLE_SHARP
+            "An A# Ax B# - B B# Bx Cx D# C# Cx D# Dx - Dn D# Dx E# Ex En E# Ex Fx G# F# Fx G# Gx - G# Gx A# " +
+                    "- - An A# Ax B# - B B# Bx Cx D# C# Cx D# Dx - Dn D# Dx E# Ex En E# Ex Fx G# F# Fx G# Gx -",
+            // B
+            "Bbb Bb B B# - Cb C C# Cx - Db D D# Dx - Ebb Eb E E# Ex Fb F F# Fx - Gb G G# Gx - Ab A A# " +
+                    "Ax - Bbb Bb B B# - Cb C C# Cx - Db D D# Dx - Ebb Eb E E# Ex Fb F F# Fx - Gb G G# Gx -",
+            // B_NATURAL
+            "Bbb Bb B B# - Cb C C# Cx - Db D D# Dx - Ebb Eb E E# Ex Fb F F# Fx - Gb G G# Gx - Ab A A# " +
+                    "Ax - Bbb Bb B B# - Cb C C# Cx - Db D D# Dx - Ebb Eb E E# Ex Fb F F# Fx - Gb G G# Gx -",
+            // C_FLAT
+            "Bbb Cbb Cb C C# - Dbb Db D D# Db Ebb Eb En E# Ebb Fbb Fb Fn F# Fb Gbb Gb Gn G# Gb Abb Ab An A# Ab Bbb Bb " +
+                    "Bn - Bbb Cbb Cb C C# - Dbb Db D D# Db Ebb Eb En E# Ebb Fbb Fb Fn F# Fb Gbb Gb Gn G# Gb Abb Ab An A#"
+    };
+
+    @Test
+    public void testSpell() throws Exception {
+        assertSame(NoteType.E_FLAT, SpellingTable.spell(NoteType.C, NashvilleNumber.FLAT_THREE));
+        assertSame(NoteType.E_FLAT, SpellingTable.spell(NoteType.C_NATURAL, NashvilleNumber.FLAT_THREE));
+        assertSame(NoteType.F_SHARP, SpellingTable.spell(NoteType.C, NashvilleNumber.SHARP_FOUR));
+        assertSame(NoteType.G_FLAT, SpellingTable.spell(NoteType.C, NashvilleNumber.FLAT_FIVE));
+        assertSame(NoteType.B_DOUBLE_FLAT, SpellingTable.spell(NoteType.C, NashvilleNumber.DOUBLE_FLAT_SEVEN));
+        assertSame(NoteType.A, SpellingTable.spell(NoteType.C, NashvilleNumber.THIRTEEN));
+        assertSame(NoteType.F_SHARP, SpellingTable.spell(NoteType.D, NashvilleNumber.THREE));
+        assertSame(NoteType.B_FLAT, SpellingTable.spell(NoteType.E_FLAT, NashvilleNumber.FIVE));
+        assertSame(NoteType.F_DOUBLE_SHARP, SpellingTable.spell(NoteType.E, NashvilleNumber.SHARP_NINE));
+        assertSame(NoteType.E_FLAT, SpellingTable.spell(NoteType.F, NashvilleNumber.FLAT_SEVEN));
+        assertSame(NoteType.B, SpellingTable.spell(NoteType.F, NashvilleNumber.SHARP_ELEVEN));
+        assertSame(NoteType.A_FLAT, SpellingTable.spell(NoteType.G, NashvilleNumber.FLAT_NINE));
+        assertSame(NoteType.D_SHARP, SpellingTable.spell(NoteType.A, NashvilleNumber.SHARP_FOUR));
+        assertSame(NoteType.F_SHARP, SpellingTable.spell(NoteType.B, NashvilleNumber.FIVE));
+        assertSame(NoteType.A_FLAT, SpellingTable.spell(NoteType.B_FLAT, NashvilleNumber.FLAT_SEVEN));
+        assertSame(NoteType.E_SHARP, SpellingTable.spell(NoteType.C_SHARP, NashvilleNumber.THREE));
+        assertSame(NoteType.F_FLAT, SpellingTable.spell(NoteType.D_FLAT, NashvilleNumber.FLAT_THREE));
+        assertSame(NoteType.E_SHARP, SpellingTable.spell(NoteType.F_SHARP, NashvilleNumber.SEVEN));
+        assertSame(NoteType.C_FLAT, SpellingTable.spell(NoteType.G_FLAT, NashvilleNumber.FOUR));
+        assertSame(NoteType.F_DOUBLE_SHARP, SpellingTable.spell(NoteType.G_SHARP, NashvilleNumber.SEVEN));
+        assertSame(NoteType.A_DOUBLE_SHARP, SpellingTable.spell(NoteType.D_SHARP, NashvilleNumber.SHARP_FIVE));
+        assertSame(NoteType.D_DOUBLE_SHARP, SpellingTable.spell(NoteType.B_SHARP, NashvilleNumber.THREE));
+        assertSame(NoteType.G_FLAT, SpellingTable.spell(NoteType.E_DOUBLE_FLAT, NashvilleNumber.THREE));
+        assertSame(NoteType.C_DOUBLE_FLAT, SpellingTable.spell(NoteType.D_DOUBLE_FLAT, NashvilleNumber.FLAT_SEVEN));
+
+        // Would need a triple accidental
+        assertNull(SpellingTable.spell(NoteType.F_SHARP, NashvilleNumber.DOUBLE_SHARP_THREE));
+        assertNull(SpellingTable.spell(NoteType.B_DOUBLE_SHARP, NashvilleNumber.DOUBLE_SHARP_THREE));
+    }
+
+    @Test
+    public void testSpellMatchesSnapshot() throws Exception {
+        NoteType[] roots = NoteType.values();
+        NashvilleNumber[] nashvilleNumbers = NashvilleNumber.values();
+        assertEquals(roots.length, SNAPSHOT.length);
+
+        for (NoteType root : roots) {
+            String[] tokens = SNAPSHOT[root.ordinal()].split(" ");
+            assertEquals(nashvilleNumbers.length, tokens.length);
+
+            NoteType previous = root.isNatural() ? NoteType.getNoteType(root.letter, Accidental.NONE) : root;
+            for (NashvilleNumber nn : nashvilleNumbers) {
+                NoteType spelled = SpellingTable.spell(root, nn);
+
+                // The rules dropped a natural sign when the letter directly follows the previous Note's, and so does setNoteTypes
+                if (spelled != null && spelled.isNatural() && Theory.noteLettersFollow(previous, spelled)) {
+                    spelled = NoteType.getNoteType(spelled.letter, Accidental.NONE);
+                }
+                assertSame(root + " " + nn, parse(tokens[nn.ordinal()]), spelled);
+            }
+        }
+    }
+
+    private static NoteType parse(String token) {
+        if (token.equals("-")) return null;
+
+        Accidental accidental;
+        switch (token.substring(1)) {
+            case "bb": accidental = Accidental.DOUBLE_FLAT; break;
+            case "b": accidental = Accidental.FLAT; break;
+            case "n": accidental = Accidental.NATURAL; break;
+            case "#": accidental = Accidental.SHARP; break;
+            case "x": accidental = Accidental.DOUBLE_SHARP; break;
+            default: accidental = Accidental.NONE;
+        }
+        return NoteType.getNoteType(token.charAt(0), accidental);
+    }
+
+    @Test
+    public void testSpellMajorScales() throws Exception {
+        assertMajorScale(NoteType.C, NoteType.C, NoteType.D, NoteType.E, NoteType.F, NoteType.G, NoteType.A, NoteType.B);
+        assertMajorScale(NoteType.G, NoteType.G, NoteType.A, NoteType.B, NoteType.C, NoteType.D, NoteType.E, NoteType.F_SHARP);
+        assertMajorScale(NoteType.F, NoteType.F, NoteType.G, NoteType.A, NoteType.B_FLAT, NoteType.C, NoteType.D, NoteType.E);
+        assertMajorScale(NoteType.E, NoteType.E, NoteType.F_SHARP, NoteType.G_SHARP, NoteType.A, NoteType.B, NoteType.C_SHARP, NoteType.D_SHARP);
+        assertMajorScale(NoteType.F_SHARP, NoteType.F_SHARP, NoteType.G_SHARP, NoteType.A_SHARP, NoteType.B, NoteType.C_SHARP, NoteType.D_SHARP, NoteType.E_SHARP);
+        assertMajorScale(NoteType.C_SHARP, NoteType.C_SHARP, NoteType.D_SHARP, NoteType.E_SHARP, NoteType.F_SHARP, NoteType.G_SHARP, NoteType.A_SHARP, NoteType.B_SHARP);
+        assertMajorScale(NoteType.C_FLAT, NoteType.C_FLAT, NoteType.D_FLAT, NoteType.E_FLAT, NoteType.F_FLAT, NoteType.G_FLAT, NoteType.A_FLAT, NoteType.B_FLAT);
+    }
+
+    private static void assertMajorScale(NoteType root, NoteType... expected) {
+        NashvilleNumber[] nashvilleNumbers = ScaleType.MAJOR.nashvilleNumbers;
+        for (int i = 0; i < nashvilleNumbers.length; i++) {
+            assertSame(root + " " + nashvilleNumbers[i], expected[i], SpellingTable.spell(root, nashvilleNumbers[i]));
+        }
+    }
+
+    @Test
+    public void testSpellRelativePitch() throws Exception {
+        for (NoteType root : NoteType.values()) {
+            for (NashvilleNumber nn : NashvilleNumber.values()) {
+                NoteType spelled = SpellingTable.spell(root, nn);
+                if (spelled != null) {
+                    assertEquals((root.relativePitch + nn.relativePitchDistance) % 12, spelled.relativePitch);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCatalogIsSpellable() throws Exception {
+        for (NoteType root : NoteType.values()) {
+            for (ScaleType st : ScaleType.values()) {
+                for (NashvilleNumber nn : st.nashvilleNumbers) {
+                    assertNotNull(SpellingTable.spell(root, nn));
+                }
+            }
+            for (ChordType ct : ChordType.values()) {
+                for (NashvilleNumber nn : ct.nashvilleNumbers) {
+                    assertNotNull(SpellingTable.spell(root, nn));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTranspose() throws Exception {
+        assertSame(NoteType.D, SpellingTable.transpose(NoteType.C_SHARP, 1, 1));
+        assertSame(NoteType.E_DOUBLE_FLAT, SpellingTable.transpose(NoteType.D_FLAT, 1, 1));
+        assertSame(NoteType.C, SpellingTable.transpose(NoteType.A, NoteType.C, NoteType.E_FLAT));
+        assertSame(NoteType.F_SHARP, SpellingTable.transpose(NoteType.B_NATURAL, NoteType.G, NoteType.D));
+        assertNull(SpellingTable.transpose(NoteType.B_DOUBLE_SHARP, 0, 1));
+
+        for (NoteType nt : NoteType.values()) {
+            for (int letterSteps = -7; letterSteps < 14; letterSteps++) {
+                for (int semitones = -12; semitones < 24; semitones++) {
+                    NoteType moved = SpellingTable.transpose(nt, letterSteps, semitones);
+                    if (moved == null) continue;
+
+                    assertEquals(Math.floorMod(nt.relativePitch + semitones, 12), moved.relativePitch);
+                    assertEquals(Math.floorMod(nt.letter - 'A' + letterSteps, 7), moved.letter - 'A');
+                    assertFalse(moved.isNatural());
+                }
+            }
+        }
+    }
+}
@@ -2,6 +2,10 @@ package musictheory;
 
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+
+import static musictheory.NoteType.*;
 import static org.junit.Assert.*;
 
 /**
@@ -11,7 +15,36 @@ public class TheoryTest {
 
     @Test
     public void testGetEnharmonicEquivalents() throws Exception {
+        boolean[] flags = {false, true};
+        for (NoteType nt : NoteType.values()) {
+            for (boolean wantNatural : flags) {
+                for (boolean wantDoubleAccidentals : flags) {
+                    NoteType[] equivalents = Theory.getEnharmonicEquivalents(nt, wantNatural, wantDoubleAccidentals);
+                    List<NoteType> view = Theory.getEnharmonicEquivalentsView(nt, wantNatural, wantDoubleAccidentals);
+                    long mask = Theory.getEnharmonicEquivalentsMask(nt, wantNatural, wantDoubleAccidentals);
+
+                    assertEquals(Arrays.asList(equivalents), view);
+                    assertEquals(equivalents.length, Long.bitCount(mask));
+                    assertSame(view, Theory.getEnharmonicEquivalentsView(nt, wantNatural, wantDoubleAccidentals));
+
+                    for (NoteType candidate : NoteType.values()) {
+                        assertEquals(view.contains(candidate),
+                                Theory.isEnharmonicEquivalent(nt, candidate, wantNatural, wantDoubleAccidentals));
+                    }
+
+                    for (NoteType equivalent : equivalents) {
+                        assertEquals(nt.relativePitch, equivalent.relativePitch);
+                        if (!wantNatural) assertFalse(equivalent.isNatural());
+                        if (!wantDoubleAccidentals) assertFalse(equivalent.isDoubleAccidental());
+                    }
+                }
+            }
+        }
+    }
 
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetEnharmonicEquivalentsViewIsReadOnly() throws Exception {
+        Theory.getEnharmonicEquivalentsView(NoteType.C, true, true).set(0, NoteType.D);
     }
 
     @Test
@@ -50,6 +83,38 @@ public class TheoryTest {
         }
     }
 
+    @Test
+    public void testApplyAccidentalToTable() throws Exception {
+        // Each row is indexed by Accidental ordinal: DOUBLE_FLAT, FLAT, NATURAL, NONE, SHARP, DOUBLE_SHARP
+        NoteType[] noteTypes = {C, C_NATURAL, C_SHARP, D_FLAT, C_DOUBLE_SHARP, D_DOUBLE_FLAT, B_SHARP, F_FLAT};
+        NoteType[][] expected = {
+                {C_DOUBLE_FLAT, C_FLAT, C, C, C_SHARP, C_DOUBLE_SHARP},
+                {C_DOUBLE_FLAT, C_FLAT, C_NATURAL, C_NATURAL, C_SHARP, C_DOUBLE_SHARP},
+                {C_FLAT, C_NATURAL, C_SHARP, C_SHARP, C_DOUBLE_SHARP, D_SHARP},
+                {C_FLAT, D_DOUBLE_FLAT, D_FLAT, D_FLAT, D_NATURAL, D_SHARP},
+                {C_NATURAL, C_SHARP, C_DOUBLE_SHARP, C_DOUBLE_SHARP, D_SHARP, D_DOUBLE_SHARP},
+                {C_DOUBLE_FLAT, C_FLAT, D_DOUBLE_FLAT, D_DOUBLE_FLAT, D_FLAT, D_NATURAL},
+                {B_FLAT, B_NATURAL, B_SHARP, B_SHARP, B_DOUBLE_SHARP, C_DOUBLE_SHARP},
+                {E_DOUBLE_FLAT, F_DOUBLE_FLAT, F_FLAT, F_FLAT, F_NATURAL, F_SHARP}
+        };
+
+        for (int i = 0; i < noteTypes.length; i++) {
+            for (Accidental a : Accidental.values()) {
+                assertSame(noteTypes[i] + " " + a, expected[i][a.ordinal()], Theory.applyAccidentalTo(noteTypes[i], a));
+            }
+        }
+
+        // Every result is defined and has the expected relative pitch
+        int[] semitones = {-2, -1, 0, 0, 1, 2}; // indexed by Accidental ordinal
+        for (NoteType nt : NoteType.values()) {
+            for (Accidental a : Accidental.values()) {
+                NoteType result = Theory.applyAccidentalTo(nt, a);
+                assertNotNull(nt + " " + a, result);
+                assertEquals(Math.floorMod(nt.relativePitch + semitones[a.ordinal()], 12), result.relativePitch);
+            }
+        }
+    }
+
     @Test
     public void testTransposeScale() throws Exception {
         for (Octave o : Octave.values()) {
@@ -127,4 +192,124 @@ public class TheoryTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testTransposeChordMatchesNewChord() throws Exception {
+        NoteType[] sources = {NoteType.C, NoteType.F_SHARP, NoteType.B_SHARP, NoteType.C_FLAT, NoteType.E_DOUBLE_FLAT};
+        Octave[] octaves = {Octave.OCTAVE_MIN, Octave.OCTAVE_FOUR, Octave.OCTAVE_SEVEN, Octave.OCTAVE_EIGHT, Octave.OCTAVE_MAX};
+
+        for (ChordType ct : ChordType.values()) {
+            int[] expectedPitches = new int[ct.nashvilleNumbers.length];
+            int[] actualPitches = new int[ct.nashvilleNumbers.length];
+
+            for (NoteType source : sources) {
+                for (Octave o : octaves) {
+                    for (int inversion = 0; inversion < ct.nashvilleNumbers.length; inversion++) {
+                        Chord original = new Chord(source, ct, o);
+                        original.setToInversion(inversion);
+
+                        for (NoteType nt : NoteType.values()) {
+                            Chord expected;
+                            try {
+                                expected = new Chord(nt, ct, o);
+                            } catch (Exception e) {
+                                continue;
+                            }
+                            expected.setToInversion(inversion);
+                            Chord transposed = Theory.transpose(original, nt);
+
+                            String message = source + " -> " + nt + " " + ct + " " + o + " " + inversion;
+                            assertEquals(message, expected.getName(), transposed.getName());
+                            assertEquals(message, expected.getPitchClassMask(), transposed.getPitchClassMask());
+                            for (int i = 0; i < expectedPitches.length; i++) {
+                                assertSame(message, expected.getNotes()[i].getNoteType(), transposed.getNotes()[i].getNoteType());
+                                assertEquals(message, expected.getNotes()[i].getPitch(), transposed.getNotes()[i].getPitch());
+                            }
+
+                            // Every other inversion must line up, too
+                            for (int k = 0; k < expectedPitches.length; k++) {
+                                expected.getPitchesForInversion(k, expectedPitches);
+                                transposed.getPitchesForInversion(k, actualPitches);
+                                assertArrayEquals(message, expectedPitches, actualPitches);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTransposeSharesStructure() throws Exception {
+        Scale original = new Scale(NoteType.C, ScaleType.DORIAN, Octave.OCTAVE_FOUR);
+        original.getDiatonicChordTypesByRelativePitch();
+
+        Scale transposed = Theory.transpose(original, NoteType.E_FLAT);
+        Scale expected = new Scale(NoteType.E_FLAT, ScaleType.DORIAN, Octave.OCTAVE_FOUR);
+
+        assertSame(original.getSteps(), transposed.getSteps());
+        assertSame(original.getDiatonicChordTypesByRelativePitch(), transposed.getDiatonicChordTypesByRelativePitch());
+        assertEquals(expected.getKeySignature(), transposed.getKeySignature());
+        assertEquals(expected.getName(), transposed.getName());
+        assertEquals(expected.getDiatonicChordTypes().size(), transposed.getDiatonicChordTypes().size());
+
+        // Chords keep their inversion
+        Chord chord = new Chord(NoteType.C, ChordType.MAJOR_SEVEN, Octave.OCTAVE_FOUR);
+        chord.setToInversion(2);
+        Chord transposedChord = Theory.transpose(chord, NoteType.A);
+        assertEquals(2, transposedChord.getInversionNumber());
+        assertEquals("Amaj7/E", transposedChord.getName());
+    }
+
+    @Test
+    public void testTransposeProgression() throws Exception {
+        List<Chord> progression = Arrays.asList(
+                new Chord(NoteType.C, ChordType.MAJOR, Octave.OCTAVE_FOUR),
+                new Chord(NoteType.A, ChordType.MINOR, Octave.OCTAVE_FOUR),
+                new Chord(NoteType.F, ChordType.MAJOR, Octave.OCTAVE_FOUR),
+                new Chord(NoteType.G, ChordType.SEVEN, Octave.OCTAVE_FOUR));
+
+        List<Chord> transposed = Theory.transpose(progression, NoteType.C, NoteType.E_FLAT);
+        NoteType[] expectedRoots = {NoteType.E_FLAT, NoteType.C, NoteType.A_FLAT, NoteType.B_FLAT};
+
+        for (int i = 0; i < progression.size(); i++) {
+            assertSame(expectedRoots[i], transposed.get(i).getRootNoteType());
+            assertSame(progression.get(i).getChordType(), transposed.get(i).getChordType());
+            assertEquals(progression.get(i).getRootNote().getOctave(), transposed.get(i).getRootNote().getOctave());
+        }
+    }
+
+    @Test
+    public void testTransposeToAllKeys() throws Exception {
+        List<Chord> progression = Arrays.asList(
+                new Chord(NoteType.A, ChordType.MINOR),
+                new Chord(NoteType.D, ChordType.MINOR_SEVEN),
+                new Chord(NoteType.E, ChordType.SEVEN));
+        Scale key = new Scale(NoteType.A, ScaleType.HARMONIC_MINOR);
+
+        List<List<Chord>> keys = Theory.transposeToAllKeys(progression, key);
+        assertEquals(12, keys.size());
+
+        for (int semitones = 0; semitones < 12; semitones++) {
+            List<Chord> inKey = keys.get(semitones);
+            NoteType tonic = inKey.get(0).getRootNoteType();
+            assertEquals((NoteType.A.relativePitch + semitones) % 12, tonic.relativePitch);
+
+            for (int i = 0; i < progression.size(); i++) {
+                Chord original = progression.get(i), chord = inKey.get(i);
+                assertSame(original.getChordType(), chord.getChordType());
+                assertEquals(PitchClassSet.rotate(original.getPitchClassMask(), semitones), chord.getPitchClassMask());
+            }
+
+            // The chords stay diatonic to the transposed key
+            Scale transposedKey = new Scale(tonic, key.getScaleType());
+            for (Chord chord : inKey) {
+                assertTrue(transposedKey.containsAllPitchClassesOf(chord));
+            }
+        }
+
+        // Element 0 keeps the original spelling
+        assertSame(NoteType.E, keys.get(0).get(2).getRootNoteType());
+        assertSame(NoteType.C, keys.get(3).get(0).getRootNoteType());
+    }
+}
@@ -0,0 +1,172 @@
+package musictheory;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class VoiceLeadingTest {
+
+    @Test
+    public void testGetCost() {
+        assertEquals(0, VoiceLeading.getCost(new int[] {60, 64, 67}, new int[] {60, 64, 67}));
+        assertEquals(3, VoiceLeading.getCost(new int[] {60, 64, 67}, new int[] {60, 65, 69}));
+
+        // A triad moving to a seventh chord: the extra voice pairs with its nearest neighbor
+        assertEquals(7, VoiceLeading.getCost(new int[] {60, 64, 67}, new int[] {62, 65, 67, 71}));
+        assertEquals(VoiceLeading.getCost(new int[] {60, 64, 67}, new int[] {62, 65, 67, 71}),
+                VoiceLeading.getCost(new int[] {62, 65, 67, 71}, new int[] {60, 64, 67}));
+    }
+
+    @Test
+    public void testOptimizeOneFourFiveOne() throws Exception {
+        List<Chord> progression = Arrays.asList(
+                Chord.of(NoteType.C, ChordType.MAJOR),
+                Chord.of(NoteType.F, ChordType.MAJOR),
+                Chord.of(NoteType.G, ChordType.MAJOR),
+                Chord.of(NoteType.C, ChordType.MAJOR));
+
+        VoiceLeading result = VoiceLeading.optimize(progression);
+        List<Chord> chords = result.getChords();
+        int[] costs = result.getCosts();
+
+        assertEquals(4, chords.size());
+        assertEquals(3, costs.length);
+
+        // C-E-G to C-F-A (2nd inversion of F) moves two voices by 3 semitones, and so on
+        assertEquals(3, costs[0]);
+        assertEquals(6, costs[1]);
+        assertEquals(3, costs[2]);
+        assertEquals(12, result.getTotalCost());
+
+        for (int i = 0; i < chords.size(); i++) {
+            assertSame(progression.get(i).getChordType(), chords.get(i).getChordType());
+            assertEquals(progression.get(i).getPitchClassMask(), chords.get(i).getPitchClassMask());
+        }
+
+        // The progression itself is left alone
+        assertEquals(0, progression.get(1).getInversionNumber());
+    }
+
+    @Test
+    public void testCostsMatchChords() throws Exception {
+        List<Chord> progression = new ArrayList<Chord>();
+        for (NoteType nt : NoteType.values()) {
+            progression.add(Chord.of(nt, ChordType.values()[nt.ordinal() % ChordType.values().length]));
+        }
+
+        VoiceLeading result = VoiceLeading.optimize(progression, Octave.OCTAVE_TWO, Octave.OCTAVE_SIX);
+        List<Chord> chords = result.getChords();
+        int[] costs = result.getCosts();
+
+        int total = 0;
+        for (int i = 0; i < costs.length; i++) {
+            assertEquals(VoiceLeading.getCost(getSortedPitches(chords.get(i)), getSortedPitches(chords.get(i + 1))), costs[i]);
+            total += costs[i];
+        }
+        assertEquals(total, result.getTotalCost());
+    }
+
+    @Test
+    public void testOptimalOverGreedy() throws Exception {
+        List<Chord> progression = Arrays.asList(
+                Chord.of(NoteType.C, ChordType.MAJOR),
+                Chord.of(NoteType.A, ChordType.MINOR),
+                Chord.of(NoteType.D, ChordType.MINOR_SEVEN),
+                Chord.of(NoteType.G, ChordType.SEVEN),
+                Chord.of(NoteType.C, ChordType.MAJOR_SEVEN));
+
+        VoiceLeading result = VoiceLeading.optimize(progression);
+
+        // Brute force over every combination of inversions and octaves
+        int best = Integer.MAX_VALUE;
+        int[][][] voicings = new int[progression.size()][][];
+        for (int i = 0; i < progression.size(); i++) {
+            voicings[i] = getVoicings(progression.get(i), Octave.OCTAVE_THREE, Octave.OCTAVE_FIVE);
+        }
+        int[] choice = new int[progression.size()];
+        while (true) {
+            int cost = 0;
+            for (int i = 1; i < choice.length; i++) {
+                cost += VoiceLeading.getCost(voicings[i - 1][choice[i - 1]], voicings[i][choice[i]]);
+            }
+            best = Math.min(best, cost);
+
+            int i = 0;
+            while (i < choice.length && ++choice[i] == voicings[i].length) choice[i++] = 0;
+            if (i == choice.length) break;
+        }
+
+        assertEquals(best, result.getTotalCost());
+    }
+
+    @Test
+    public void testEmptyAndSingle() throws Exception {
+        VoiceLeading empty = VoiceLeading.optimize(Collections.<Chord>emptyList());
+        assertEquals(0, empty.getChords().size());
+        assertEquals(0, empty.getTotalCost());
+
+        VoiceLeading single = VoiceLeading.optimize(Collections.singletonList(Chord.of(NoteType.E, ChordType.MINOR)));
+        assertEquals(1, single.getChords().size());
+        assertEquals(0, single.getCosts().length);
+        assertEquals(0, single.getTotalCost());
+    }
+
+    @Test
+    public void testLongProgression() throws Exception {
+        List<Chord> progression = new ArrayList<Chord>();
+        NoteType[] roots = {NoteType.C, NoteType.A, NoteType.F, NoteType.G};
+        for (int i = 0; i < 5000; i++) {
+            progression.add(Chord.of(roots[i % roots.length], i % 2 == 0 ? ChordType.MAJOR : ChordType.MINOR));
+        }
+
+        VoiceLeading result = VoiceLeading.optimize(progression);
+        assertEquals(5000, result.getChords().size());
+        assertEquals(4999, result.getCosts().length);
+    }
+
+    @Test
+    public void testInvalidOctaveRange() throws Exception {
+        List<Chord> progression = Arrays.asList(new Chord(NoteType.C, ChordType.MAJOR), new Chord(NoteType.G, ChordType.MAJOR));
+
+        try {
+            VoiceLeading.optimize(progression, Octave.OCTAVE_FIVE, Octave.OCTAVE_FOUR);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+
+        try {
+            VoiceLeading.optimize(progression, Octave.OCTAVE_SIX, Octave.OCTAVE_THREE);
+            fail();
+        } catch (IllegalArgumentException ex) {}
+
+        // A single Octave is a valid range
+        assertEquals(2, VoiceLeading.optimize(progression, Octave.OCTAVE_FOUR, Octave.OCTAVE_FOUR).getChords().size());
+    }
+
+    private static int[] getSortedPitches(Chord chord) {
+        int[] pitches = new int[chord.notes.length];
+        for (int i = 0; i < pitches.length; i++) {
+            pitches[i] = chord.notes[i].getPitch();
+        }
+        Arrays.sort(pitches);
+        return pitches;
+    }
+
+    private static int[][] getVoicings(Chord original, Octave lowest, Octave highest) throws Exception {
+        Chord chord = new Chord(original);
+        List<int[]> voicings = new ArrayList<int[]>();
+        for (Octave o : Octave.values()) {
+            if (o.ordinal() < lowest.ordinal() || o.ordinal() > highest.ordinal()) continue;
+            chord.setOctave(o);
+            for (int inversion = 0; inversion < chord.notes.length; inversion++) {
+                chord.setToInversion(inversion);
+                voicings.add(getSortedPitches(chord));
+            }
+        }
+        return voicings.toArray(new int[voicings.size()][]);
+    }
+}